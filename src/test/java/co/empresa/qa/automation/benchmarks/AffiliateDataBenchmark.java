@@ -0,0 +1,68 @@
+package co.empresa.qa.automation.benchmarks;
+
+import co.empresa.qa.automation.models.AffiliateData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de construir y validar un {@link AffiliateData}: el constructor compacto compila las regex de fecha
+ * ({@code String.matches}) y recalcula la edad con {@code Period.between} en cada instancia, y {@code of(...)}
+ * vuelve a calcularla antes de construir. Se mide cada pieza por separado para ver cuál domina.
+ * <p>
+ * Ejecutar con el resto de benchmarks: {@code mvn -Pbenchmarks verify} (ver perfil en {@code pom.xml}).
+ *
+ * @author David
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AffiliateDataBenchmark {
+
+    private static final String BIRTH_DATE = "1990-05-17";
+
+    private final Random random = new Random(42L);
+    private int age;
+
+    @Setup
+    public void computeAge() {
+        age = AffiliateData.calculateAge(BIRTH_DATE);
+    }
+
+    @Benchmark
+    public int calculateAge() {
+        return AffiliateData.calculateAge(BIRTH_DATE);
+    }
+
+    @Benchmark
+    public boolean dateRegex() {
+        return BIRTH_DATE.matches("\\d{4}-\\d{2}-\\d{2}");
+    }
+
+    @Benchmark
+    public AffiliateData construct() {
+        return new AffiliateData(BIRTH_DATE, age, "1234567890", "2008-06-01", "Ana", "Pérez", "Colombia",
+                "ana.perez@example.com", "6015551234", "Bogotá", "SER123", "IPS Central", false,
+                "2020-01-01", "2020-01-01", true, false, "12", "Chapinero", "3001234567", null, null);
+    }
+
+    @Benchmark
+    public AffiliateData constructWithDisability() {
+        return AffiliateData.of(BIRTH_DATE, "1234567890", "2008-06-01", "Ana", "Pérez", "Colombia",
+                "ana.perez@example.com", "6015551234", "Bogotá", "SER123", "IPS Central", true,
+                "2020-01-01", "2020-01-01", true, false, "12", "Chapinero", "3001234567", random);
+    }
+}
@@ -0,0 +1,111 @@
+package co.empresa.qa.automation.benchmarks;
+
+import co.empresa.qa.automation.models.AffiliateCorpus;
+import co.empresa.qa.automation.models.AffiliateData;
+import co.empresa.qa.automation.models.AffiliateDataGenerator;
+import co.empresa.qa.automation.models.DocumentNumberAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput de generación de afiliados por núcleo (JMH): generador al vuelo ({@code Faker} por hilo de
+ * {@code RunRandom} y número de documento asignado), generación determinista del corpus y lectura del corpus
+ * desde disco.
+ * {@link #main} ejecuta cada benchmark con 1 hilo y con todos los núcleos para ver cómo escala. Los números de
+ * documento salen de un {@link DocumentNumberAllocator} con estado temporal propio: el benchmark gasta millones y no
+ * debe consumir los del carril real ({@code document.allocator.state}).
+ * <p>
+ * Ejecutar: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=co.empresa.qa.automation.benchmarks.AffiliateGenerationBenchmark}, o con el resto de benchmarks
+ * y resultados en JSON: {@code mvn -Pbenchmarks verify} (ver perfil en {@code pom.xml}).
+ *
+ * @author David
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AffiliateGenerationBenchmark {
+
+    private static final long SEED = 42L;
+    private static final int CORPUS_SIZE = 50_000;
+
+    private long index;
+    private Path numbersState;
+    private DocumentNumberAllocator numbers;
+    private Path corpus;
+    private Stream<AffiliateData> reading;
+    private Iterator<AffiliateData> cursor;
+
+    @Setup(Level.Trial)
+    public void writeCorpus() throws IOException {
+        numbersState = Files.createTempFile("documentos-bench", ".properties");
+        numbers = new DocumentNumberAllocator(numbersState, 1000, 0);
+        corpus = Files.createTempFile("afiliados-bench", ".tsv.gz");
+        AffiliateCorpus.write(corpus, CORPUS_SIZE, SEED, 1);
+        openCorpus();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCorpus() throws IOException {
+        reading.close();
+        Files.deleteIfExists(corpus);
+        Files.deleteIfExists(numbersState);
+    }
+
+    @Benchmark
+    public AffiliateData generateLegacy() {
+        return AffiliateDataGenerator.generateRandomAffiliate(numbers);
+    }
+
+    @Benchmark
+    public AffiliateData generateSeeded() {
+        return AffiliateCorpus.generate(SEED, index++);
+    }
+
+    @Benchmark
+    public AffiliateData readCorpus() {
+        if (!cursor.hasNext()) {
+            reading.close();
+            openCorpus();
+        }
+        return cursor.next();
+    }
+
+    private void openCorpus() {
+        reading = AffiliateCorpus.stream(corpus, numbers);
+        cursor = reading.iterator();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads : new int[]{1, cores}) {
+            new Runner(new OptionsBuilder()
+                    .include(AffiliateGenerationBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package co.empresa.qa.automation.benchmarks;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por llamada de los getters de {@link ConfigManager}: cada uno consulta {@code System.getProperty},
+ * luego {@code Properties} y vuelve a parsear el valor ({@code Long.parseLong}, {@code Boolean.parseBoolean}...).
+ * {@code getBrowserPoolSize} además resuelve {@code getParallelism} para su valor por defecto.
+ * Se llaman en rutas calientes (timeouts en cada espera, {@code fill.fast} en cada selección).
+ * <p>
+ * Ejecutar con el resto de benchmarks: {@code mvn -Pbenchmarks verify} (ver perfil en {@code pom.xml}).
+ *
+ * @author David
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigManagerBenchmark {
+
+    @Benchmark
+    public String baseUrl() {
+        return ConfigManager.getBaseUrl();
+    }
+
+    @Benchmark
+    public long elementTimeout() {
+        return ConfigManager.getElementTimeout();
+    }
+
+    @Benchmark
+    public boolean fastFillEnabled() {
+        return ConfigManager.isFastFillEnabled();
+    }
+
+    @Benchmark
+    public int browserPoolSize() {
+        return ConfigManager.getBrowserPoolSize();
+    }
+}
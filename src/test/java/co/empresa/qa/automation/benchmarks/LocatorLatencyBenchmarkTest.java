@@ -0,0 +1,170 @@
+package co.empresa.qa.automation.benchmarks;
+
+import co.empresa.qa.automation.flows.AffiliateFlow;
+import co.empresa.qa.automation.flows.LoginFlow;
+import co.empresa.qa.automation.infrastructure.DriverManager;
+import co.empresa.qa.automation.infrastructure.stub.SaviaStubServer;
+import co.empresa.qa.automation.models.Credentials;
+import co.empresa.qa.automation.utils.LocatorRegistry;
+import co.empresa.qa.automation.utils.Locators;
+import co.empresa.qa.automation.utils.PrimeFacesAjax;
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import static com.codeborne.selenide.Selenide.$;
+import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latencia de {@code findElement} de los widgets de {@code frmCrear}, {@code frmDireccion}, {@code frmBarrio} y
+ * {@code frmCrearContacto} contra el stub local {@link SaviaStubServer}, con los tres diálogos renderizados:
+ * XPath con {@code contains(@id, ...)} construido en cada llamada ({@link Locators}, antes) frente a CSS por id exacto
+ * cacheado por página ({@link LocatorRegistry}, ahora). Reporta aparte el costo de la resolución inicial (el listado
+ * JS que se paga una vez por página). Escribe {@code target/benchmarks/locator-latency.txt} y lo adjunta a Allure.
+ * <p>
+ * Excluido de la ejecución normal; se lanza con
+ * {@code mvn test -Dgroups=benchmark -Dtest.excludedGroups= -Dtest=LocatorLatencyBenchmarkTest}.
+ *
+ * @author David
+ */
+@Tag("benchmark")
+@Execution(ExecutionMode.SAME_THREAD) // el driver es por hilo: @BeforeAll y las pruebas deben compartir hilo
+public class LocatorLatencyBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(LocatorLatencyBenchmarkTest.class);
+
+    private static final Credentials CREDENTIALS = new Credentials("qa.stub", "clave.stub");
+    private static final Path REPORT = Path.of("target", "benchmarks", "locator-latency.txt");
+    private static final int ITERATIONS = 50;
+
+    private static final List<String> SELECT_ONE_MENUS = List.of(
+            "frmCrear:tipoDocumento", "frmCrear:paisNacimiento", "frmCrear:genero", "frmCrear:estadoCivil",
+            "frmCrear:tipoAfiliado", "frmCrear:tipoDocumentoBDUA", "frmCrear:zona",
+            "frmDireccion:j_idt864", "frmDireccion:j_idt905", "frmDireccion:j_idt944",
+            "frmBarrio:selectBarrio", "frmCrearContacto:tipoContacto");
+    private static final List<String> AUTO_COMPLETES = List.of("frmCrear:epsBDUA", "frmCrear:municipioAfiliacion");
+    private static final List<String> DIALOG_BUTTONS = List.of("frmCrear:j_idt300", "frmCrear:j_idt310", "frmCrear:j_idt320");
+
+    private static SaviaStubServer stub;
+
+    @BeforeAll
+    static void openForm() {
+        stub = new SaviaStubServer(CREDENTIALS.username(), CREDENTIALS.password()).start();
+        System.setProperty("baseUrl", stub.baseUrl());
+        System.setProperty("timeout.adaptive", "false"); // la latencia del stub no debe entrar al historial de Savia
+        DriverManager.initDriver();
+        DriverManager.openBaseUrl();
+        assertTrue(new LoginFlow().loginWithCachedSession(CREDENTIALS), "Login contra el stub debe ser exitoso");
+
+        AffiliateFlow affiliateFlow = new AffiliateFlow();
+        affiliateFlow.navigateToList();
+        affiliateFlow.clickCreate();
+        for (String button : DIALOG_BUTTONS) {
+            $(By.id(button)).click();
+            PrimeFacesAjax.waitForIdle();
+        }
+    }
+
+    @AfterAll
+    static void stopStub() {
+        DriverManager.quitDriver();
+        stub.close();
+        System.clearProperty("baseUrl");
+        System.clearProperty("timeout.adaptive");
+    }
+
+    @Test
+    @DisplayName("⏱️ findElement: XPath contains(@id) vs. CSS por id exacto cacheado")
+    void findElementBeforeAfter() throws IOException {
+        WebDriver driver = getWebDriver();
+        List<String> widgets = new ArrayList<>();
+        SELECT_ONE_MENUS.stream()
+                .filter(widget -> !driver.findElements(By.xpath(Locators.selectOneMenuTrigger(widget))).isEmpty())
+                .forEach(widgets::add);
+
+        // Ambas rutas deben llegar al mismo elemento
+        for (String widget : widgets) {
+            assertEquals(driver.findElement(By.xpath(Locators.selectOneMenuTrigger(widget))),
+                    driver.findElement(LocatorRegistry.selectOneMenuTrigger(widget)), widget);
+        }
+        for (String widget : AUTO_COMPLETES) {
+            assertEquals(driver.findElement(By.xpath(Locators.autoCompleteInput(widget))),
+                    driver.findElement(LocatorRegistry.autoCompleteInput(widget)), widget);
+        }
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format(Locale.ROOT, "%d selectOneMenu + %d autoComplete en la página, %d iteraciones",
+                widgets.size(), AUTO_COMPLETES.size(), ITERATIONS));
+        report.add(String.format(Locale.ROOT, "%-44s %9s %9s %9s", "búsqueda", "p50(ms)", "p95(ms)", "media"));
+        report.add(row("trigger [antes: XPath contains(@id)]",
+                measure(driver, widgets, widget -> By.xpath(Locators.selectOneMenuTrigger(widget)))));
+        report.add(row("trigger [ahora: CSS id exacto]",
+                measure(driver, widgets, LocatorRegistry::selectOneMenuTrigger)));
+        report.add(row("panel <ul> [antes: XPath @id]",
+                measure(driver, widgets, widget -> By.xpath(Locators.selectOneMenuItems(widget)))));
+        report.add(row("panel <ul> [ahora: CSS id exacto]",
+                measure(driver, widgets, LocatorRegistry::selectOneMenuItems)));
+        report.add(row("autoComplete input [antes: XPath contains]",
+                measure(driver, AUTO_COMPLETES, widget -> By.xpath(Locators.autoCompleteInput(widget)))));
+        report.add(row("autoComplete input [ahora: CSS id exacto]",
+                measure(driver, AUTO_COMPLETES, LocatorRegistry::autoCompleteInput)));
+        report.add(row("resolución inicial (1 por página)", measureResolution()));
+
+        String content = String.join(System.lineSeparator(), report);
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, content);
+        Allure.addAttachment("Latencia de findElement (stub local)", "text/plain", content);
+        log.info("⏱️ Latencia de findElement:{}{}", System.lineSeparator(), content);
+    }
+
+    /**
+     * Una muestra por búsqueda: construir el localizador y hacer el {@code findElement}.
+     */
+    private static List<Long> measure(WebDriver driver, List<String> widgets, Function<String, By> locator) {
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (String widget : widgets) {
+                long start = System.nanoTime();
+                driver.findElement(locator.apply(widget));
+                samples.add(System.nanoTime() - start);
+            }
+        }
+        return samples;
+    }
+
+    private static List<Long> measureResolution() {
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            LocatorRegistry.invalidate();
+            long start = System.nanoTime();
+            LocatorRegistry.selectOneMenuTrigger(SELECT_ONE_MENUS.get(0));
+            samples.add(System.nanoTime() - start);
+        }
+        return samples;
+    }
+
+    private static String row(String name, List<Long> samples) {
+        long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+        return String.format(Locale.ROOT, "%-44s %9.3f %9.3f %9.3f", name,
+                sorted[sorted.length / 2] / 1e6, sorted[(int) Math.ceil(sorted.length * 0.95) - 1] / 1e6,
+                samples.stream().mapToLong(Long::longValue).average().orElse(0) / 1e6);
+    }
+}
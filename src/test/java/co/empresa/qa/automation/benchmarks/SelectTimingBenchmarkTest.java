@@ -0,0 +1,139 @@
+package co.empresa.qa.automation.benchmarks;
+
+import co.empresa.qa.automation.infrastructure.DriverManager;
+import co.empresa.qa.automation.utils.AutoCompleteSelect;
+import co.empresa.qa.automation.utils.PrimeFacesSelect;
+import com.codeborne.selenide.SelenideElement;
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static com.codeborne.selenide.Condition.text;
+import static com.codeborne.selenide.Condition.visible;
+import static com.codeborne.selenide.Selenide.$x;
+import static com.codeborne.selenide.Selenide.open;
+import static com.codeborne.selenide.Selenide.sleep;
+
+/**
+ * Reporte de latencia por llamada de las utilidades de selección contra la página stub local
+ * {@code stub/primefaces-select.html} (no requiere Savia). Compara la ruta anterior con pausas fijas
+ * ({@code sleep(300)}/{@code sleep(200)}) contra la actual con espera de inactividad AJAX.
+ * Escribe el reporte en {@code target/benchmarks/select-timing.txt} y lo adjunta a Allure.
+ * <p>
+ * Excluido de la ejecución normal; se lanza con {@code mvn test -Dgroups=benchmark -Dtest.excludedGroups=}.
+ *
+ * @author David
+ */
+@Tag("benchmark")
+@Execution(ExecutionMode.SAME_THREAD) // el driver es por hilo: @BeforeAll y las pruebas deben compartir hilo
+public class SelectTimingBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(SelectTimingBenchmarkTest.class);
+
+    private static final int ITERATIONS = 20;
+    private static final Path REPORT = Path.of("target", "benchmarks", "select-timing.txt");
+
+    @BeforeAll
+    static void openStub() {
+        DriverManager.initDriver();
+        DriverManager.openUrl(stubUrl()); // sin visitar Savia
+    }
+
+    @AfterAll
+    static void closeStub() {
+        DriverManager.quitDriver();
+    }
+
+    @Test
+    @DisplayName("⏱️ Latencia por llamada: pausas fijas vs. espera AJAX")
+    void selectLatencyBeforeAfter() throws IOException {
+        List<String> report = new ArrayList<>();
+        report.add(String.format(Locale.ROOT, "%-42s %8s %8s %8s", "llamada", "p50(ms)", "p95(ms)", "media"));
+
+        report.add(row("selectOption [antes: sleep(300)]", measure(() -> legacySelectOption("frmCrear:genero", "Femenino"))));
+        report.add(row("selectOption [ahora: AJAX idle]", measure(() -> PrimeFacesSelect.selectOption("frmCrear:genero", "Femenino"))));
+        report.add(row("selectRandomOption 250 [antes: sleep(300)]", measure(() -> legacySelectRandom("frmCrear:paisNacimiento"))));
+        report.add(row("selectRandomOption 250 [ahora: AJAX idle]", measure(() -> PrimeFacesSelect.selectRandomOption("frmCrear:paisNacimiento"))));
+        report.add(row("autoComplete [antes: sleep(200)]", measure(() -> legacyAutoComplete("frmCrear:epsBDUA", "a"))));
+        report.add(row("autoComplete [ahora: AJAX idle]", measure(() -> AutoCompleteSelect.selectRandomOption("frmCrear:epsBDUA", "a"))));
+
+        String content = String.join(System.lineSeparator(), report);
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, content);
+        Allure.addAttachment("Latencia de selección (stub local)", "text/plain", content);
+        log.info("⏱️ Reporte de latencia de selección:{}{}", System.lineSeparator(), content);
+    }
+
+    private List<Long> measure(Runnable call) {
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            open(stubUrl());
+            long start = System.nanoTime();
+            call.run();
+            samples.add((System.nanoTime() - start) / 1_000_000);
+        }
+        return samples;
+    }
+
+    private static String row(String name, List<Long> samples) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        double mean = sorted.stream().mapToLong(Long::longValue).average().orElse(0);
+        return String.format(Locale.ROOT, "%-42s %8d %8d %8.1f", name,
+                sorted.get(sorted.size() / 2), sorted.get((int) Math.ceil(sorted.size() * 0.95) - 1), mean);
+    }
+
+    private static String stubUrl() {
+        return SelectTimingBenchmarkTest.class.getClassLoader().getResource("stub/primefaces-select.html").toExternalForm();
+    }
+
+    // --- Implementaciones anteriores (con pausas fijas), conservadas solo como línea base ---
+
+    private static void legacySelectOption(String widgetVar, String label) {
+        $x("//div[contains(@id, '" + widgetVar + "')]//div[contains(@class, 'ui-selectonemenu-trigger')]").shouldBe(visible).click();
+        SelenideElement items = $x("//ul[@id='" + widgetVar + "_items']").shouldBe(visible, Duration.ofSeconds(3));
+        SelenideElement option = items.$$("li").filterBy(text(label)).first();
+        option.scrollIntoView(true);
+        sleep(300);
+        option.click();
+    }
+
+    private static void legacySelectRandom(String widgetVar) {
+        $x("//div[contains(@id, '" + widgetVar + "')]//div[contains(@class, 'ui-selectonemenu-trigger')]").shouldBe(visible).click();
+        SelenideElement items = $x("//ul[@id='" + widgetVar + "_items']").shouldBe(visible, Duration.ofSeconds(3));
+        List<SelenideElement> valid = items.$$("li").stream()
+                .filter(li -> !li.text().trim().equals("--"))
+                .toList();
+        SelenideElement option = valid.get(valid.size() / 2);
+        option.scrollIntoView(true);
+        sleep(300);
+        option.click();
+    }
+
+    private static void legacyAutoComplete(String inputId, String triggerText) {
+        SelenideElement input = $x("//input[contains(@id, '" + inputId + "')]");
+        input.shouldBe(visible).click();
+        input.setValue(triggerText);
+        SelenideElement panel = $x("//ul[contains(@class, 'ui-autocomplete-items') and not(contains(@style, 'display: none'))]");
+        panel.shouldBe(visible, Duration.ofSeconds(5));
+        SelenideElement option = panel.$$("li").filterBy(visible).first();
+        option.scrollIntoView(true);
+        sleep(200);
+        option.click();
+    }
+}
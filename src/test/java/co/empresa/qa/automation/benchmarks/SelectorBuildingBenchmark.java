@@ -0,0 +1,50 @@
+package co.empresa.qa.automation.benchmarks;
+
+import co.empresa.qa.automation.utils.Locators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción de los XPaths de {@link Locators} que {@code PrimeFacesSelect} y {@code AutoCompleteSelect}
+ * concatenan en cada selección, con ids reales del formulario de creación de afiliados.
+ * <p>
+ * Ejecutar con el resto de benchmarks: {@code mvn -Pbenchmarks verify} (ver perfil en {@code pom.xml}).
+ *
+ * @author David
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SelectorBuildingBenchmark {
+
+    @Param({"frmCrear:tipoDocumento", "frmDireccion:j_idt864"})
+    public String widgetVar;
+
+    @Benchmark
+    public String selectOneMenuTrigger() {
+        return Locators.selectOneMenuTrigger(widgetVar);
+    }
+
+    @Benchmark
+    public String selectOneMenuItems() {
+        return Locators.selectOneMenuItems(widgetVar);
+    }
+
+    @Benchmark
+    public String autoCompleteInput() {
+        return Locators.autoCompleteInput(widgetVar);
+    }
+}
@@ -0,0 +1,149 @@
+package co.empresa.qa.automation.benchmarks;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import co.empresa.qa.automation.flows.AffiliateFlow;
+import co.empresa.qa.automation.flows.LoginFlow;
+import co.empresa.qa.automation.infrastructure.DriverManager;
+import co.empresa.qa.automation.infrastructure.stub.SaviaStubServer;
+import co.empresa.qa.automation.models.AffiliateData;
+import co.empresa.qa.automation.models.AffiliateDataGenerator;
+import co.empresa.qa.automation.models.Credentials;
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latencia de extremo a extremo de {@link LoginFlow} y {@link AffiliateFlow} con navegador real contra el stub local
+ * {@link SaviaStubServer} (sin acceso al servidor QA). El stub simula el retardo AJAX ({@code stub.ajaxDelayMs}) y la
+ * animación de paneles ({@code stub.animationMs}) con valores fijos, así que dos ejecuciones solo difieren por el
+ * framework: sirve para comparar un cambio de rendimiento antes y después (A/B), p. ej. con {@code -Dfill.fast=true}.
+ * <p>
+ * Cada flujo se repite {@code benchmark.ui.iterations} veces; el reporte (p50/p95/p99/max/media) se escribe en
+ * {@code target/benchmarks/ui-latency.txt} y se adjunta a Allure. Los tiempos por paso quedan además en
+ * {@code StepMetrics} y los round trips en {@code WebDriverProfiler}.
+ * <p>
+ * Excluido de la ejecución normal; se lanza con
+ * {@code mvn test -Dgroups=benchmark -Dtest.excludedGroups= -Dtest=UiLatencyBenchmarkTest}.
+ *
+ * @author David
+ */
+@Tag("benchmark")
+@Execution(ExecutionMode.SAME_THREAD) // el driver es por hilo: @BeforeAll y las pruebas deben compartir hilo
+public class UiLatencyBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(UiLatencyBenchmarkTest.class);
+
+    private static final Credentials CREDENTIALS = new Credentials("qa.stub", "clave.stub");
+    private static final Path REPORT = Path.of("target", "benchmarks", "ui-latency.txt");
+
+    private static final int ITERATIONS = ConfigManager.getUiBenchmarkIterations();
+    private static final List<String> ROWS = new ArrayList<>();
+
+    private static SaviaStubServer stub;
+
+    @BeforeAll
+    static void startStub() {
+        stub = new SaviaStubServer(CREDENTIALS.username(), CREDENTIALS.password())
+                .withLatency(Duration.ofMillis(ConfigManager.getStubAjaxDelayMs()),
+                        Duration.ofMillis(ConfigManager.getStubAnimationMs()))
+                .start();
+        // Los flujos toman la URL de ConfigManager, que da prioridad a las propiedades del sistema
+        System.setProperty("baseUrl", stub.baseUrl());
+        System.setProperty("timeout.adaptive", "false"); // la latencia del stub no debe entrar al historial de Savia
+        DriverManager.initDriver();
+        DriverManager.openBaseUrl();
+    }
+
+    @AfterAll
+    static void stopStub() throws IOException {
+        DriverManager.quitDriver();
+        stub.close();
+        System.clearProperty("baseUrl");
+        System.clearProperty("timeout.adaptive");
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format(Locale.ROOT, "stub: ajax=%d ms, animación=%d ms, fill.fast=%s, %d iteraciones",
+                ConfigManager.getStubAjaxDelayMs(), ConfigManager.getStubAnimationMs(),
+                ConfigManager.isFastFillEnabled(), ITERATIONS));
+        report.add(String.format(Locale.ROOT, "%-22s %8s %8s %8s %8s %8s",
+                "flujo", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)", "media"));
+        report.addAll(ROWS);
+        String content = String.join(System.lineSeparator(), report);
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, content);
+        log.info("⏱️ Latencia de UI contra el stub:{}{}", System.lineSeparator(), content);
+    }
+
+    @Test
+    @DisplayName("⏱️ Latencia de login por UI (stub local)")
+    void loginLatency() {
+        LoginFlow loginFlow = new LoginFlow();
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            getWebDriver().manage().deleteAllCookies();
+            DriverManager.openBaseUrl();
+
+            long start = System.nanoTime();
+            loginFlow.login(CREDENTIALS);
+            assertTrue(loginFlow.isLoginSuccessful(), "Login contra el stub debe ser exitoso");
+            samples.add((System.nanoTime() - start) / 1_000_000);
+        }
+        report("LoginFlow.login", samples);
+    }
+
+    @Test
+    @DisplayName("⏱️ Latencia de creación de afiliado por UI (stub local)")
+    void affiliateCreationLatency() {
+        DriverManager.openBaseUrl();
+        assertTrue(new LoginFlow().loginWithCachedSession(CREDENTIALS), "Login contra el stub debe ser exitoso");
+
+        AffiliateFlow affiliateFlow = new AffiliateFlow();
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            AffiliateData affiliate = AffiliateDataGenerator.generateRandomAffiliate();
+
+            long start = System.nanoTime();
+            affiliateFlow.createAffiliate(affiliate);
+            assertTrue(affiliateFlow.isSaveSuccessful(), "Guardar debe confirmar la creación en el stub");
+            samples.add((System.nanoTime() - start) / 1_000_000);
+        }
+        assertTrue(stub.createdDocuments().size() >= ITERATIONS, "El stub debe registrar cada afiliado creado");
+        report("AffiliateFlow.create", samples);
+    }
+
+    private static void report(String flow, List<Long> samples) {
+        long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+        String row = String.format(Locale.ROOT, "%-22s %8d %8d %8d %8d %8.1f", flow,
+                percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), sorted[sorted.length - 1],
+                samples.stream().mapToLong(Long::longValue).average().orElse(0));
+        synchronized (ROWS) {
+            ROWS.add(row);
+        }
+        Allure.addAttachment("Latencia " + flow + " (stub local)", "text/plain", row);
+    }
+
+    /**
+     * Percentil por rango más cercano.
+     */
+    private static long percentile(long[] sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,174 @@
+package co.empresa.qa.automation.benchmarks;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import co.empresa.qa.automation.flows.BulkAffiliateFlow;
+import co.empresa.qa.automation.infrastructure.stub.SaviaStubServer;
+import co.empresa.qa.automation.models.Credentials;
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Huella de hilos y memoria de {@link BulkAffiliateFlow} con {@code benchmark.threads.sessions} sesiones simultáneas
+ * contra el stub local {@link SaviaStubServer}, que hace de Savia/Grid remoto con un retardo fijo por petición AJAX
+ * ({@code stub.ajaxDelayMs}): pool fijo de hilos del sistema (uno por sesión) frente a un hilo virtual por sesión.
+ * Mide hilos del sistema en el pico, heap y RSS del proceso en el pico y throughput.
+ * <p>
+ * Cada sesión usa el backend HTTP ({@code AffiliateHttpFlow}): sus esperas bloquean al worker igual que las de un
+ * navegador remoto, sin necesitar cientos de navegadores. Cada sesión conserva su propio {@code HttpClient} (y su
+ * hilo selector) en ambos modos; la diferencia medida son los workers. Escribe
+ * {@code target/benchmarks/thread-footprint.txt} y lo adjunta a Allure.
+ * <p>
+ * Excluido de la ejecución normal; se lanza con
+ * {@code mvn test -Dgroups=benchmark -Dtest.excludedGroups= -Dtest=VirtualThreadFootprintBenchmarkTest}.
+ *
+ * @author David
+ */
+@Tag("benchmark")
+@Execution(ExecutionMode.SAME_THREAD) // mide los hilos de toda la JVM: nada más debe correr a la vez
+public class VirtualThreadFootprintBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadFootprintBenchmarkTest.class);
+
+    private static final Credentials CREDENTIALS = new Credentials("qa.stub", "clave.stub");
+    private static final Path REPORT = Path.of("target", "benchmarks", "thread-footprint.txt");
+    private static final int WARMUP_SESSIONS = 8;
+
+    @Test
+    @DisplayName("🧵 Creación masiva: hilos virtuales vs. pool fijo de hilos del sistema")
+    void virtualVersusPlatformThreads() throws IOException {
+        int sessions = ConfigManager.getThreadBenchmarkSessions();
+        long ajaxDelay = ConfigManager.getStubAjaxDelayMs();
+        Footprint platform;
+        Footprint virtual;
+        try (SaviaStubServer stub = new SaviaStubServer(CREDENTIALS.username(), CREDENTIALS.password())
+                .withLatency(Duration.ofMillis(ajaxDelay), Duration.ZERO)
+                .start()) {
+            measure(stub, WARMUP_SESSIONS, false); // calentamiento: JIT y carga de clases fuera de la medida
+            measure(stub, WARMUP_SESSIONS, true);
+            platform = measure(stub, sessions, false);
+            virtual = measure(stub, sessions, true);
+        }
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format(Locale.ROOT, "%d sesiones simultáneas, 1 afiliado por sesión, ajax=%d ms, %d núcleos",
+                sessions, ajaxDelay, Runtime.getRuntime().availableProcessors()));
+        report.add(String.format(Locale.ROOT, "%-24s %12s %12s %12s %10s %14s",
+                "workers", "hilos SO +", "heap +MB", "RSS +MB", "duración s", "afiliados/min"));
+        report.add(platform.row());
+        report.add(virtual.row());
+
+        String content = String.join(System.lineSeparator(), report);
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, content);
+        Allure.addAttachment("Huella de hilos: virtuales vs. sistema", "text/plain", content);
+        log.info("🧵 Huella de hilos:{}{}", System.lineSeparator(), content);
+
+        assertEquals(sessions, platform.report().created(), platform.report().summary());
+        assertEquals(sessions, virtual.report().created(), virtual.report().summary());
+        assertTrue(virtual.threads() < platform.threads(),
+                "Los hilos virtuales deben usar menos hilos del sistema que el pool fijo");
+    }
+
+    /**
+     * Una creación masiva de {@code sessions} afiliados con {@code sessions} workers. Los valores son el pico durante
+     * la ejecución menos lo que había al empezar.
+     */
+    private static Footprint measure(SaviaStubServer stub, int sessions, boolean virtualThreads) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        int baseThreads = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+        Sampler sampler = new Sampler();
+        sampler.start();
+        BulkAffiliateFlow.Report report = new BulkAffiliateFlow(CREDENTIALS, sessions, 1, true, stub.baseUrl(),
+                virtualThreads).createAffiliates(sessions);
+        sampler.finish();
+        // El muestreador ya terminó: el pico de hilos lo incluye, así que se descuenta
+        return new Footprint(virtualThreads ? "hilo virtual por sesión" : "pool fijo del sistema",
+                threads.getPeakThreadCount() - baseThreads - 1,
+                sampler.peakHeap - sampler.baseHeap, sampler.peakRss - sampler.baseRss, report);
+    }
+
+    private record Footprint(String mode, int threads, long heapBytes, long rssBytes, BulkAffiliateFlow.Report report) {
+
+        String row() {
+            return String.format(Locale.ROOT, "%-24s %12d %12.1f %12s %10.1f %14.1f", mode, threads, heapBytes / 1048576.0,
+                    rssBytes < 0 ? "n/d" : String.format(Locale.ROOT, "%.1f", rssBytes / 1048576.0),
+                    report.elapsed().toMillis() / 1000.0, report.affiliatesPerMinute());
+        }
+    }
+
+    /**
+     * Muestrea cada 20 ms el heap usado y la memoria residente del proceso ({@code /proc/self/status}, solo Linux).
+     */
+    private static final class Sampler extends Thread {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long baseHeap = memory.getHeapMemoryUsage().getUsed();
+        private final long baseRss = rss();
+        private volatile boolean running = true;
+        private long peakHeap = baseHeap;
+        private long peakRss = baseRss;
+
+        Sampler() {
+            super("thread-footprint-sampler");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+                peakRss = Math.max(peakRss, rss());
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        void finish() {
+            running = false;
+            try {
+                join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (baseRss < 0) {
+                peakRss = -1;
+            }
+        }
+
+        private static long rss() {
+            try {
+                for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                    if (line.startsWith("VmRSS:")) {
+                        return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // Fuera de Linux no hay /proc: se reporta n/d
+            }
+            return -1;
+        }
+    }
+}
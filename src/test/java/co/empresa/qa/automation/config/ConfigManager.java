@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Optional;
 import java.util.Properties;
 
 /**
@@ -33,26 +34,367 @@ public class ConfigManager {
     }
 
     public static String getBaseUrl() {
-        return properties.getProperty("baseUrl");
+        return property("baseUrl", null);
     }
 
     public static String getUsername() {
-        return properties.getProperty("username");
+        return property("username", null);
     }
 
     public static String getPassword() {
-        return properties.getProperty("password");
+        return property("password", null);
     }
 
     public static String getBrowser() {
-        return properties.getProperty("browser", "chrome");
+        return property("browser", "chrome");
     }
 
     public static long getElementTimeout() {
-        return Long.parseLong(properties.getProperty("timeout.element", "10"));
+        return Long.parseLong(property("timeout.element", "10"));
     }
 
     public static long getPageTimeout() {
-        return Long.parseLong(properties.getProperty("timeout.page", "30"));
+        return Long.parseLong(property("timeout.page", "30"));
+    }
+
+    /**
+     * Timeouts aprendidos de la latencia de cada locator ({@code AdaptiveTimeouts}) en lugar de los fijos.
+     */
+    public static boolean isAdaptiveTimeouts() {
+        return Boolean.parseBoolean(property("timeout.adaptive", "true"));
+    }
+
+    /**
+     * Historial de latencias por locator, compartido entre ejecuciones y JVMs de la máquina (fuera del proyecto,
+     * como los demás estados locales).
+     */
+    public static String getAdaptiveTimeoutFile() {
+        return property("timeout.adaptive.file",
+                System.getProperty("user.home") + "/.savia-qa/locator-latencies.properties");
+    }
+
+    /**
+     * Margen sobre el p99 observado: timeout = p99 × factor.
+     */
+    public static double getAdaptiveTimeoutFactor() {
+        return Double.parseDouble(property("timeout.adaptive.factor", "1.5"));
+    }
+
+    public static long getAdaptiveTimeoutFloorMs() {
+        return Long.parseLong(property("timeout.adaptive.floorMs", "1000"));
+    }
+
+    public static long getAdaptiveTimeoutCeilingMs() {
+        return Long.parseLong(property("timeout.adaptive.ceilingMs", "30000"));
+    }
+
+    /**
+     * Muestras de un locator necesarias antes de reemplazar su timeout fijo.
+     */
+    public static int getAdaptiveTimeoutMinSamples() {
+        return Integer.parseInt(property("timeout.adaptive.minSamples", "20"));
+    }
+
+    public static boolean isBrowserPoolEnabled() {
+        return Boolean.parseBoolean(property("browser.pool.enabled", "false"));
+    }
+
+    public static int getBrowserPoolSize() {
+        return Integer.parseInt(property("browser.pool.size", String.valueOf(getParallelism())));
+    }
+
+    public static int getBrowserPoolMaxReuse() {
+        return Integer.parseInt(property("browser.pool.maxReuse", "20"));
+    }
+
+    /**
+     * Hilos de ejecución paralela de JUnit (uno por navegador). {@code 0} usa todos los núcleos disponibles.
+     */
+    public static int getParallelism() {
+        int parallelism = Integer.parseInt(property("parallelism", "1"));
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    public static int getBulkCount() {
+        return Integer.parseInt(property("bulk.count", "100"));
+    }
+
+    /**
+     * Navegadores en paralelo para la creación masiva. Por defecto, el tamaño del pool de navegadores.
+     */
+    public static int getBulkWorkers() {
+        return Integer.parseInt(property("bulk.workers", String.valueOf(getBrowserPoolSize())));
+    }
+
+    /**
+     * Corpus pregenerado ({@code AffiliateCorpus}) del que leer los afiliados en la creación masiva.
+     * Vacío = generarlos al vuelo.
+     */
+    public static String getBulkCorpus() {
+        return property("bulk.corpus", "");
+    }
+
+    public static int getBulkMaxAttempts() {
+        return Integer.parseInt(property("bulk.maxAttempts", "3"));
+    }
+
+    /**
+     * Un hilo virtual por worker de la creación masiva en lugar de un pool fijo de hilos del sistema.
+     */
+    public static boolean isBulkVirtualThreads() {
+        return Boolean.parseBoolean(property("bulk.virtualThreads", "true"));
+    }
+
+    /**
+     * Verificación diferida de la creación masiva ({@code VerificationQueue}): los documentos creados se concilian por
+     * lotes con la lista de afiliados desde un navegador (o sesión HTTP) aparte.
+     */
+    public static boolean isBulkDeferredVerify() {
+        return Boolean.parseBoolean(property("bulk.deferredVerify", "true"));
+    }
+
+    /**
+     * Segundos entre conciliaciones de la verificación diferida.
+     */
+    public static int getVerifyIntervalSeconds() {
+        return Integer.parseInt(property("verify.intervalSeconds", "20"));
+    }
+
+    /**
+     * Segundos que un documento puede tardar en aparecer en la lista antes de reportarse como faltante.
+     */
+    public static int getVerifyGraceSeconds() {
+        return Integer.parseInt(property("verify.graceSeconds", "60"));
+    }
+
+    /**
+     * Filas por página al recorrer la lista de afiliados por HTTP (por UI se usa la paginación de la tabla).
+     */
+    public static int getVerifyPageSize() {
+        return Integer.parseInt(property("verify.pageSize", "100"));
+    }
+
+    /**
+     * Máximo de filas de la lista que recorre una consulta de conciliación, por UI y por HTTP.
+     */
+    public static int getVerifyMaxRows() {
+        return Integer.parseInt(property("verify.maxRows", "5000"));
+    }
+
+    /**
+     * Filtrar las consultas de conciliación por el prefijo común de los documentos pendientes. Requiere que el filtro
+     * de documento de la lista de afiliados busque por prefijo; si busca por igualdad, {@code false}.
+     */
+    public static boolean isVerifyPrefixSearch() {
+        return Boolean.parseBoolean(property("verify.prefixSearch", "true"));
+    }
+
+    /**
+     * Creación de afiliados por HTTP ({@code affiliate.backend=http}) en lugar de por UI ({@code ui}, por defecto).
+     */
+    public static boolean isHttpAffiliateBackend() {
+        return "http".equalsIgnoreCase(property("affiliate.backend", "ui"));
+    }
+
+    /**
+     * Llenado rápido de dropdowns y autocompletes mediante la API JavaScript de PrimeFaces, sin clics
+     * ni animaciones. Solo para preparación de datos; las pruebas de UI usan la ruta por clics (por defecto).
+     */
+    public static boolean isFastFillEnabled() {
+        return Boolean.parseBoolean(property("fill.fast", "false"));
+    }
+
+    /**
+     * Cuándo adjuntar screenshot a Allure: {@code always}, {@code on-failure} o {@code sampled}
+     * (ver {@code EvidencePipeline}). Las pruebas fallidas siempre llevan evidencia.
+     */
+    public static String getEvidencePolicy() {
+        return property("evidence.policy", "always");
+    }
+
+    /**
+     * Fracción de pruebas exitosas con screenshot en la política {@code sampled} (0.0 a 1.0).
+     */
+    public static double getEvidenceSampleRate() {
+        return Double.parseDouble(property("evidence.sampleRate", "0.1"));
+    }
+
+    public static float getEvidenceJpegQuality() {
+        return Float.parseFloat(property("evidence.jpegQuality", "0.75"));
+    }
+
+    /**
+     * Tamaño máximo de cada screenshot adjunto: un PNG que cabe se adjunta tal cual; si no, en JPEG, bajando la
+     * calidad y luego la resolución hasta que quepa.
+     */
+    public static int getEvidenceMaxKb() {
+        return Integer.parseInt(property("evidence.maxKb", "300"));
+    }
+
+    /**
+     * Perfilador de round trips WebDriver ({@code WebDriverProfiler}): ranking de comandos por punto de llamada
+     * en cada prueba de Allure y en {@code target/metrics/webdriver-profile.txt}.
+     */
+    public static boolean isWebDriverProfilerEnabled() {
+        return Boolean.parseBoolean(property("webdriver.profiler", "true"));
+    }
+
+    /**
+     * Directorio de las métricas de la ejecución ({@code StepMetrics}, {@code WebDriverProfiler}).
+     * El perfil {@code shard} de Maven lo separa por shard.
+     */
+    public static String getMetricsDir() {
+        return property("metrics.dir", "target/metrics");
+    }
+
+    /**
+     * Shard de esta ejecución, de {@code 0} a {@code shard.count - 1} ({@code ShardFilter}).
+     */
+    public static int getShardIndex() {
+        return Integer.parseInt(property("shard.index", "0"));
+    }
+
+    /**
+     * Número de shards (JVMs o agentes) entre los que se reparten las pruebas. {@code 1} = sin reparto.
+     */
+    public static int getShardCount() {
+        return Integer.parseInt(property("shard.count", "1"));
+    }
+
+    /**
+     * Historial de duración por prueba ({@code TestDurations}) con el que se equilibran los shards. Se versiona con
+     * el proyecto para que todos los agentes calculen el mismo reparto; solo lo actualiza {@code ShardMerger}
+     * ({@code mvn test -Dshard.count=1 && mvn -Pmerge-shards verify} lo refresca con una ejecución completa).
+     */
+    public static String getTestDurations() {
+        return property("test.durations", "test-durations.properties");
+    }
+
+    /**
+     * Estimación mínima en ms de una prueba sin historial ({@code TestDurations}): alta, para que las pruebas nuevas
+     * contra Savia no se lancen al final ni carguen de menos a un shard.
+     */
+    public static long getTestDurationUnknownMs() {
+        return Long.parseLong(property("test.durations.unknownMs", "30000"));
+    }
+
+    /**
+     * Si cada ejecución sin shards actualiza el historial de duraciones al terminar ({@code DurationRecorder}).
+     */
+    public static boolean isTestDurationRecording() {
+        return Boolean.parseBoolean(property("test.durations.record", "true"));
+    }
+
+    /**
+     * Semilla de toda la ejecución para {@code RunRandom}. Vacía = una semilla al azar, que se registra en el log
+     * y en Allure para poder repetir la ejecución con {@code -Drandom.seed=<semilla>}.
+     */
+    public static String getRandomSeed() {
+        return property("random.seed", "");
+    }
+
+    /**
+     * Archivo de estado de {@code DocumentNumberAllocator}: siguiente número libre por tipo de documento.
+     * Compartido por todas las JVMs de la máquina para que ninguna repita números, ni entre ejecuciones.
+     */
+    public static String getDocumentAllocatorState() {
+        return property("document.allocator.state",
+                System.getProperty("user.home") + "/.savia-qa/document-numbers.properties");
+    }
+
+    /**
+     * Carril fijo de {@code DocumentNumberAllocator} (0 a 15). Sin valor se deriva del hash de
+     * {@link #getDocumentAllocatorAgent()}; fijarlo por agente garantiza que dos agentes nunca compartan carril.
+     */
+    public static Optional<Integer> getDocumentAllocatorLane() {
+        String lane = property("document.allocator.lane", "");
+        return lane.isBlank() ? Optional.empty() : Optional.of(Integer.parseInt(lane.trim()));
+    }
+
+    /**
+     * Identidad del agente para elegir carril de documentos: el host y, con shards, el índice del shard.
+     */
+    public static String getDocumentAllocatorAgent() {
+        String host = Optional.ofNullable(System.getenv("HOSTNAME"))
+                .or(() -> Optional.ofNullable(System.getenv("COMPUTERNAME")))
+                .orElse("local");
+        String agent = property("document.allocator.agent", host);
+        return getShardCount() > 1 ? agent + "#" + getShardIndex() : agent;
+    }
+
+    /**
+     * Números que cada JVM reserva de una vez en el archivo de estado.
+     */
+    public static int getDocumentAllocatorBlock() {
+        return Integer.parseInt(property("document.allocator.block", "1000"));
+    }
+
+    /**
+     * Huella e id vigente de los ids JSF generados ({@code JsfIds}), para curar los que cambian al redesplegar Savia.
+     * Fuera de {@code target} para que sobreviva a {@code mvn clean}.
+     */
+    public static String getJsfIdCache() {
+        return property("jsf.ids.cache", System.getProperty("user.home") + "/.savia-qa/jsf-ids.properties");
+    }
+
+    /**
+     * Intervalo mínimo entre revisiones del estado de la página mientras Selenide repite una búsqueda ({@code CircuitBreaker}).
+     */
+    public static long getBreakerCheckIntervalMs() {
+        return Long.parseLong(property("breaker.checkIntervalMs", "1000"));
+    }
+
+    /**
+     * Si las pruebas contra Savia se omiten mientras el entorno no responde ({@code EnvironmentBreaker}).
+     */
+    public static boolean isSuiteBreakerEnabled() {
+        return Boolean.parseBoolean(property("breaker.suite.enabled", "true"));
+    }
+
+    public static long getBreakerProbeTimeoutSeconds() {
+        return Long.parseLong(property("breaker.probeTimeoutSeconds", "5"));
+    }
+
+    /**
+     * Segundos entre sondeos mientras el entorno se considera caído.
+     */
+    public static long getBreakerCooldownSeconds() {
+        return Long.parseLong(property("breaker.cooldownSeconds", "60"));
+    }
+
+    /**
+     * Repeticiones de cada flujo en {@code UiLatencyBenchmarkTest}.
+     */
+    public static int getUiBenchmarkIterations() {
+        return Integer.parseInt(property("benchmark.ui.iterations", "10"));
+    }
+
+    /**
+     * Retardo simulado de cada petición AJAX del stub de Savia ({@code SaviaStubServer}) en los benchmarks de UI.
+     */
+    public static long getStubAjaxDelayMs() {
+        return Long.parseLong(property("stub.ajaxDelayMs", "150"));
+    }
+
+    /**
+     * Duración de la animación de los paneles del stub de Savia en los benchmarks de UI.
+     */
+    public static long getStubAnimationMs() {
+        return Long.parseLong(property("stub.animationMs", "200"));
+    }
+
+    /**
+     * Sesiones simultáneas de {@code VirtualThreadFootprintBenchmarkTest}.
+     */
+    public static int getThreadBenchmarkSessions() {
+        return Integer.parseInt(property("benchmark.threads.sessions", "200"));
+    }
+
+    /**
+     * Permite sobreescribir cualquier clave desde la línea de comandos ({@code -Dclave=valor}),
+     * útil en CI sin tocar el archivo de configuración.
+     */
+    private static String property(String key, String defaultValue) {
+        return System.getProperty(key, properties.getProperty(key, defaultValue));
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package co.empresa.qa.automation.flows;
+
+import co.empresa.qa.automation.models.AffiliateData;
+
+import java.util.Collection;
+
+/**
+ * Forma de crear afiliados en Savia: por UI con el navegador ({@link AffiliateFlow}) o por HTTP sin navegador
+ * ({@link AffiliateHttpFlow}). Ambas reciben el mismo {@link AffiliateData} y recorren las mismas fases.
+ * Se elige con {@code affiliate.backend} ({@code ui} por defecto).
+ *
+ * @author David
+ */
+public interface AffiliateBackend {
+
+    void navigateToList();
+
+    void clickCreate();
+
+    void fillForm(AffiliateData affiliate);
+
+    void save();
+
+    boolean isSaveSuccessful();
+
+    /**
+     * Cuáles de los documentos aparecen en la lista de afiliados, con una sola consulta filtrada por
+     * {@code documentPrefix} (vacío: sin filtro) recorriendo sus páginas hasta {@code verify.maxRows} filas, en lugar
+     * de una búsqueda por documento. Lo usa {@link VerificationQueue} para conciliar por lotes.
+     */
+    VerificationQueue.Lookup findExisting(String documentPrefix, Collection<String> documentNumbers);
+
+    /**
+     * Flujo completo: navegar → crear → llenar → guardar.
+     */
+    void createAffiliate(AffiliateData affiliate);
+}
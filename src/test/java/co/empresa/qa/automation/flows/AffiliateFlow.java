@@ -8,6 +8,8 @@ import io.qameta.allure.Step;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+
 import static com.codeborne.selenide.Selenide.open;
 
 /**
@@ -18,7 +20,7 @@ import static com.codeborne.selenide.Selenide.open;
  * @author David
  */
 
-public class AffiliateFlow {
+public class AffiliateFlow implements AffiliateBackend {
     private static final Logger log = LoggerFactory.getLogger(AffiliateFlow.class);
     private static final String AFFILIATES_LIST_PATH = "/aseguramiento/afiliados.faces";
     private final String affiliatesListUrl = ConfigManager.getBaseUrl() + AFFILIATES_LIST_PATH;
@@ -26,22 +28,26 @@ public class AffiliateFlow {
     private final AffiliatesListPage listPage = new AffiliatesListPage();
     private final AffiliateFormPage formPage = new AffiliateFormPage();
 
+    @Override
     @Step("🌐 Navegar a lista de afiliados")
     public void navigateToList() {
         log.info("Abriendo: {}", affiliatesListUrl);
         open(affiliatesListUrl);
     }
 
+    @Override
     @Step("🖱️ Acceder al formulario de creación")
     public void clickCreate() {
         listPage.clickCreate();
     }
 
+    @Override
     @Step("📝 Llenar formulario para {affiliate.firstName} {affiliate.lastName} (Doc: {affiliate.documentNumber})")
     public void fillForm(AffiliateData affiliate) {
         formPage.fillForm(affiliate);
     }
 
+    @Override
     @Step("💾 Guardar afiliado")
     public void save() {
         formPage.clickSave();
@@ -50,6 +56,7 @@ public class AffiliateFlow {
     /**
      * Flujo completo: navegar → crear → llenar → guardar.
      */
+    @Override
     @Step("🔄 Ejecutar flujo completo de creación de afiliado")
     public void createAffiliate(AffiliateData affiliate) {
         navigateToList();
@@ -58,6 +65,22 @@ public class AffiliateFlow {
         save();
     }
 
+    /**
+     * Solo el mensaje de éxito tras Guardar, sin buscar en la lista (usado en la creación masiva).
+     */
+    @Override
+    @Step("✅ Verificar mensaje de guardado exitoso")
+    public boolean isSaveSuccessful() {
+        return formPage.isSuccessMessageVisible();
+    }
+
+    @Override
+    @Step("📋 Conciliar documentos creados con la lista de afiliados")
+    public VerificationQueue.Lookup findExisting(String documentPrefix, Collection<String> documentNumbers) {
+        navigateToList();
+        return listPage.findDocuments(documentPrefix, documentNumbers, ConfigManager.getVerifyMaxRows());
+    }
+
     /**
      * Valida que:
      * 1. Aparezca mensaje de éxito
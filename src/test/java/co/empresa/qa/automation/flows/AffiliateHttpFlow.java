@@ -0,0 +1,331 @@
+package co.empresa.qa.automation.flows;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import co.empresa.qa.automation.infrastructure.http.JsfHttpSession;
+import co.empresa.qa.automation.infrastructure.http.JsfHttpSession.Option;
+import co.empresa.qa.automation.models.AffiliateData;
+import co.empresa.qa.automation.models.Credentials;
+import co.empresa.qa.automation.utils.JsfIds;
+import co.empresa.qa.automation.utils.RunRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Creación de afiliados por HTTP, sin navegador: recorre los mismos endpoints de Savia que {@link AffiliateFlow}
+ * ({@code /aseguramiento/afiliados.faces}) con una {@link JsfHttpSession}. Rellena los mismos campos que
+ * {@code AffiliateFormPage} a partir del mismo {@link AffiliateData}, repitiendo las peticiones AJAX parciales
+ * que haría el formulario (cambios de dropdowns, autocompletes, diálogos de Dirección, Barrio y Contacto) y Guardar.
+ * <p>
+ * Los ids JSF generados ({@code j_idtNNN}) se toman de la caché de {@link JsfIds}, donde quedan curados por las
+ * ejecuciones de UI tras un redespliegue; si el id no está en la vista se falla de inmediato con un mensaje claro.
+ * <p>
+ * Pensado para poblar datos en volumen ({@code affiliate.backend=http}); las pruebas de UI siguen usando {@link AffiliateFlow}.
+ * Cada instancia mantiene su propia sesión: no compartir entre hilos.
+ *
+ * @author David
+ */
+public class AffiliateHttpFlow implements AffiliateBackend {
+    private static final Logger log = LoggerFactory.getLogger(AffiliateHttpFlow.class);
+    private static final String HOME_PATH = "/home.faces";
+    private static final String AFFILIATES_LIST_PATH = "/aseguramiento/afiliados.faces";
+    private static final String CREATE_BUTTON = "frmAfiliados:j_idt45";
+    private static final String SEARCH_DOCUMENT = "frmBuscar:numeroDocumento";
+    private static final String RESULTS_TABLE = "frmBuscar:tabla";
+
+    private final JsfHttpSession session;
+
+    public AffiliateHttpFlow() {
+        this(new JsfHttpSession());
+    }
+
+    public AffiliateHttpFlow(JsfHttpSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Inicia sesión con el formulario de login de Savia.
+     *
+     * @return true si Savia redirigió al home
+     */
+    public boolean login(Credentials credentials) {
+        log.info("🔐 Iniciando sesión HTTP en Savia con usuario: {}", credentials.username());
+        session.open("/");
+        session.set("login:usuario", credentials.username());
+        session.set("login:contrasena", credentials.password());
+        session.click("Ingresar");
+        String path = session.currentPath();
+        return path != null && path.endsWith(HOME_PATH);
+    }
+
+    @Override
+    public void navigateToList() {
+        session.open(AFFILIATES_LIST_PATH);
+    }
+
+    @Override
+    public void clickCreate() {
+        session.click(generated(CREATE_BUTTON));
+    }
+
+    /**
+     * Mismos campos y reglas que {@code AffiliateFormPage.fillForm}.
+     */
+    @Override
+    public void fillForm(AffiliateData affiliate) {
+        // === DATOS PERSONALES ===
+        setDate("frmCrear:fechaNacimiento", affiliate.birthDate());
+
+        selectOption("frmCrear:tipoDocumento", affiliate.documentTypeDisplay());
+        selectRandomOption("frmCrear:paisNacimiento");
+        selectRandomOption("frmCrear:paisNacionalidad");
+        selectRandomOption("frmCrear:genero");
+        selectRandomOption("frmCrear:generoIdentif");
+        selectRandomOption("frmCrear:estadoCivil");
+
+        String tipoAfi = selectRandomOptionExcluding("frmCrear:tipoAfiliado", "Beneficiario", "Adicional");
+        if (!tipoAfi.equalsIgnoreCase("Cabeza de Hogar")) {
+            selectRandomOption("frmCrear:parentesco");
+        }
+
+        selectRandomOption("frmCrear:origenAfiliado");
+
+        session.set("frmCrear:numeroDocumento", affiliate.documentNumber());
+        session.set("frmCrear:primerNombre", affiliate.firstName());
+        session.set("frmCrear:segundoNombre", "");
+        session.set("frmCrear:primerApellido", affiliate.lastName());
+        session.set("frmCrear:segundoApellido", "");
+        session.set("frmCrear:email", affiliate.email());
+
+        if ("CC".equals(affiliate.documentType())) {
+            setDate("frmCrear:fechaExpDoc", affiliate.expeditionDate());
+        }
+
+        // === BDUA ===
+        if ("Si".equals(session.text("frmCrear:registraBDUA"))) {
+            selectRandomOption("frmCrear:tipoDocumentoBDUA");
+            session.set("frmCrear:serialBDUA", affiliate.serialBDUA());
+            session.set("frmCrear:numeroDocumentoBDUA", affiliate.documentNumber());
+            session.set("frmCrear:primerApellidoBDUA", affiliate.lastName());
+            session.set("frmCrear:primerNombreBDUA", affiliate.firstName());
+            setDate("frmCrear:fechaNacimientoBDUA", affiliate.birthDate());
+        }
+
+        selectRandomSuggestion("frmCrear:epsBDUA", "a");
+
+        // === DATOS AFILIACION ===
+        setDate("frmCrear:fechaAfilEPS", affiliate.EPSSAfiliationDate());
+        setDate("frmCrear:fechaAfilSGSSS", affiliate.SGSSSAfiliationDate());
+
+        if (affiliate.lgbtiq()) {
+            check("frmCrear:poblacionLgtbiq");
+        }
+
+        // === MUNICIPIO AFILIACION ===
+        String municipio = selectRandomSuggestion("frmCrear:municipioAfiliacion", "a");
+
+        check("frmCrear:autorizoEmail");
+        check("frmCrear:autorizoSMS");
+
+        // === DIRECCIÓN ===
+        session.click("Dirección");
+
+        selectRandomOptionExcluding(generated("frmDireccion:j_idt864"), "Sin Dirección");
+        selectRandomOption(generated("frmDireccion:j_idt874"));
+        selectRandomOption(generated("frmDireccion:j_idt905"));
+        selectRandomOption(generated("frmDireccion:j_idt913"));
+        selectRandomOption(generated("frmDireccion:j_idt944"));
+
+        session.set("frmDireccion:numeroDirecion", affiliate.dirNumber());
+        session.set("frmDireccion:placa", affiliate.dirNumber());
+        session.set("frmDireccion:placa2", affiliate.dirNumber());
+        session.set(generated("frmDireccion:j_idt953"), affiliate.dirNumber());
+
+        session.click(generated("frmDireccion:j_idt965"));
+
+        // === BARRIO ===
+        session.click("Barrio");
+
+        if (municipio.equalsIgnoreCase("MEDELLÍN - ANTIOQUIA")) {
+            selectRandomOption("frmBarrio:selectBarrio");
+        } else {
+            session.set("frmBarrio:textBarrio", affiliate.barrio());
+        }
+
+        session.click(generated("frmBarrio:j_idt978"));
+
+        // === OTROS DATOS ===
+        selectRandomOption("frmCrear:zona");
+        session.set("frmCrear:email", affiliate.email());
+
+        // === CONTACTO ===
+        session.click("Agregar Contacto");
+
+        selectRandomOptionExcluding("frmCrearContacto:tipoContacto", "Telefono");
+        String celular = affiliate.celular();
+        String telefono = celular.startsWith("300") ? celular : "300" + celular;
+        session.set("frmCrearContacto:numeroContacto", telefono);
+
+        session.click(generated("frmCrearContacto:j_idt1063"));
+
+        // === IPS ATENCIÓN PRIMARIA ===
+        selectRandomOption("frmCrear:sedeIpsPrimaria");
+
+        // === DATOS SOCIOECONÓMICOS ===
+        String grupoPobla = selectRandomOptionExcluding("frmCrear:grupoPoblacional");
+        selectRandomOption("frmCrear:grupoEtnico");
+        if (grupoPobla.equalsIgnoreCase("Comunidades indígenas") || grupoPobla.equalsIgnoreCase("Rrom (Gitano)")) {
+            selectRandomOption("frmCrear:comunidadEtnica");
+        }
+        selectRandomOption("frmCrear:metodGrupoPoblacional");
+        selectRandomOption("frmCrear:nivelSisben");
+
+        // === DISCAPACIDAD ===
+        if (affiliate.hasDisability()) {
+            check("frmCrear:discapacidad");
+            selectRandomOption("frmCrear:tipoDiscapacidad");
+            selectRandomOption("frmCrear:condicionDiscapacidad");
+            setDate("frmCrear:fechaInicioDiscapacidad", affiliate.disabilityStartDate());
+            setDate("frmCrear:fechaFinDiscapacidad", affiliate.disabilityEndDate());
+        }
+
+        // === ESTADO AFILIACIÓN ===
+        selectRandomOption("frmCrear:causaNovedad");
+    }
+
+    @Override
+    public void save() {
+        session.click("Guardar");
+    }
+
+    /**
+     * Mensaje de éxito sin mensajes de error en la respuesta de Guardar.
+     */
+    @Override
+    public boolean isSaveSuccessful() {
+        String response = session.lastResponse();
+        return response.contains("ui-messages-success") && !response.contains("ui-messages-error");
+    }
+
+    /**
+     * Busca por el prefijo de documento y pide la tabla de resultados en páginas de {@code verify.pageSize} filas hasta
+     * encontrar todos los documentos, llegar a la última página o a {@code verify.maxRows} filas.
+     */
+    @Override
+    public VerificationQueue.Lookup findExisting(String documentPrefix, Collection<String> documentNumbers) {
+        Set<String> pending = new HashSet<>(documentNumbers);
+        Set<String> found = new HashSet<>();
+        navigateToList();
+        session.set(SEARCH_DOCUMENT, documentPrefix);
+        session.click("Buscar");
+        int pageSize = ConfigManager.getVerifyPageSize();
+        int maxRows = ConfigManager.getVerifyMaxRows();
+        int seen = 0;
+        while (!pending.isEmpty()) {
+            if (seen >= maxRows) {
+                return new VerificationQueue.Lookup(found, false, seen);
+            }
+            int requested = Math.min(pageSize, maxRows - seen);
+            List<List<String>> rows = session.tablePage(RESULTS_TABLE, seen, requested);
+            seen += rows.size();
+            rows.stream().flatMap(List::stream).filter(pending::remove).forEach(found::add);
+            if (rows.size() < requested) {
+                break; // última página
+            }
+        }
+        return new VerificationQueue.Lookup(found, true, seen);
+    }
+
+    /**
+     * Flujo completo: navegar → crear → llenar → guardar.
+     */
+    @Override
+    public void createAffiliate(AffiliateData affiliate) {
+        navigateToList();
+        clickCreate();
+        fillForm(affiliate);
+        save();
+    }
+
+    /**
+     * Id vigente de un id JSF generado: el curado en la caché de {@link JsfIds} o el original. Falla si no está en la
+     * vista, en lugar de enviar un id que JSF ignoraría.
+     */
+    private String generated(String generatedId) {
+        String id = JsfIds.cached(generatedId);
+        if (!session.contains(id)) {
+            throw new IllegalStateException("❌ Id JSF " + generatedId + (id.equals(generatedId) ? "" : " (curado: " + id + ")")
+                    + " no está en la vista " + session.currentPath() + ": si Savia se redesplegó, una ejecución de UI"
+                    + " lo cura en jsf.ids.cache");
+        }
+        return id;
+    }
+
+    private void setDate(String component, String date) {
+        if (date == null || date.trim().isEmpty()) {
+            return;
+        }
+        session.set(component + "_input", date);
+        if (!session.fire(component, "dateSelect")) {
+            session.fire(component, "change");
+        }
+    }
+
+    private void check(String component) {
+        session.set(component + "_input", "on");
+        session.fire(component, "change");
+    }
+
+    private void selectOption(String component, String label) {
+        List<Option> options = session.options(component);
+        String wanted = label.trim().toLowerCase(Locale.ROOT);
+        Option option = options.stream()
+                .filter(candidate -> candidate.label().equalsIgnoreCase(label.trim()))
+                .findFirst()
+                .or(() -> options.stream()
+                        .filter(candidate -> candidate.label().toLowerCase(Locale.ROOT).contains(wanted))
+                        .findFirst())
+                .orElseThrow(() -> new IllegalStateException("Opción no encontrada: '" + label + "' en dropdown '"
+                        + component + "'. Opciones disponibles: " + options.stream().map(Option::label).toList()));
+        select(component, option);
+    }
+
+    private void selectRandomOption(String component) {
+        selectRandomOptionExcluding(component);
+    }
+
+    private String selectRandomOptionExcluding(String component, String... excludedLabels) {
+        List<Option> valid = session.options(component).stream()
+                .filter(option -> !option.value().isEmpty() && !option.label().isEmpty() && !option.label().equals("--"))
+                .filter(option -> Arrays.stream(excludedLabels).noneMatch(option.label()::equalsIgnoreCase))
+                .toList();
+        if (valid.isEmpty()) {
+            throw new IllegalStateException("No hay opciones válidas en '" + component + "' tras excluir: "
+                    + Arrays.toString(excludedLabels));
+        }
+        Option selected = valid.get(RunRandom.random().nextInt(valid.size()));
+        select(component, selected);
+        return selected.label();
+    }
+
+    private void select(String component, Option option) {
+        session.set(component + "_input", option.value());
+        session.fire(component, "change");
+    }
+
+    private String selectRandomSuggestion(String component, String query) {
+        List<Option> suggestions = session.autoComplete(component, query);
+        if (suggestions.isEmpty()) {
+            throw new IllegalStateException("No se encontraron sugerencias para '" + query + "'");
+        }
+        Option selected = suggestions.get(RunRandom.random().nextInt(suggestions.size()));
+        session.selectSuggestion(component, selected);
+        return selected.label();
+    }
+}
@@ -0,0 +1,558 @@
+package co.empresa.qa.automation.flows;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import co.empresa.qa.automation.infrastructure.BrowserPool;
+import co.empresa.qa.automation.infrastructure.CircuitBreaker;
+import co.empresa.qa.automation.infrastructure.DriverManager;
+import co.empresa.qa.automation.infrastructure.http.JsfHttpSession;
+import co.empresa.qa.automation.models.AffiliateData;
+import co.empresa.qa.automation.models.AffiliateDataGenerator;
+import co.empresa.qa.automation.models.Credentials;
+import co.empresa.qa.automation.utils.RunRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Creación masiva de afiliados para poblar Savia QA. Reparte el trabajo entre varios hilos, cada uno con un
+ * navegador del {@link BrowserPool} y su propia sesión (reutilizada con {@link LoginFlow#loginWithCachedSession}),
+ * y ejecuta para cada afiliado el mismo flujo que {@link AffiliateFlow}. Con {@code affiliate.backend=http} cada hilo
+ * usa en su lugar una sesión HTTP propia ({@link AffiliateHttpFlow}), sin navegador.
+ * <p>
+ * Los fallos antes de Guardar se reintentan en un navegador nuevo (hasta {@code maxAttempts} intentos); los
+ * posteriores al clic en Guardar no, porque el afiliado pudo quedar creado y un reintento lo duplicaría.
+ * Al terminar devuelve un {@link Report} con throughput (afiliados/minuto), latencia por fase y fallos.
+ * Los datos y las selecciones de cada afiliado salen de {@link RunRandom} resembrado con su posición en el lote,
+ * así que con la misma {@code random.seed} se repiten sin importar qué worker lo tome. Cada fallo del reporte lleva
+ * esa posición, y el reporte el origen de los datos ({@link Report#origin()}: semilla de la ejecución o del corpus),
+ * para reproducir el afiliado (con un corpus, {@code AffiliateCorpus.generate(semilla, posición)}).
+ * <p>
+ * Con {@code bulk.virtualThreads=true} cada worker es un hilo virtual: las esperas largas del flujo (confirmación
+ * del guardado, búsqueda en la lista, AJAX) no retienen un hilo del sistema, y cientos de sesiones remotas o
+ * headless caben en unos pocos hilos portadores. Los workers no usan {@code synchronized} en sus esperas, para no
+ * fijar el hilo virtual a su portador.
+ * <p>
+ * Con {@code bulk.deferredVerify=true} la fase VERIFY solo comprueba el mensaje de guardado, y un verificador en
+ * paralelo, con su propio navegador (fuera del pool) o sesión HTTP, concilia por lotes los documentos creados con la
+ * lista de afiliados ({@link VerificationQueue}) en lugar de buscarlos uno a uno. El resultado va en
+ * {@link Report#verification()}.
+ *
+ * @author David
+ */
+public class BulkAffiliateFlow {
+    private static final Logger log = LoggerFactory.getLogger(BulkAffiliateFlow.class);
+
+    /**
+     * Fases medidas por afiliado, en orden de ejecución. RECONCILE es cada conciliación del verificador diferido,
+     * que cubre muchos afiliados a la vez.
+     */
+    public enum Phase {LOGIN, NAVIGATE, OPEN_FORM, FILL, SAVE, VERIFY, RECONCILE}
+
+    private final Credentials credentials;
+    private final int workers;
+    private final int maxAttempts;
+    private final boolean httpBackend;
+    private final String baseUrl;
+    private final boolean virtualThreads;
+    private final boolean deferredVerify = ConfigManager.isBulkDeferredVerify();
+
+    /**
+     * Creación masiva con el backend configurado en {@code affiliate.backend} contra la {@code baseUrl} configurada.
+     */
+    public BulkAffiliateFlow(Credentials credentials, int workers, int maxAttempts) {
+        this(credentials, workers, maxAttempts, ConfigManager.isHttpAffiliateBackend(), ConfigManager.getBaseUrl());
+    }
+
+    /**
+     * @param httpBackend true para crear por HTTP ({@link AffiliateHttpFlow}), false por UI con el pool de navegadores
+     * @param baseUrl     URL base de Savia (solo se usa en modo HTTP; la UI usa la de {@code DriverManager})
+     */
+    public BulkAffiliateFlow(Credentials credentials, int workers, int maxAttempts, boolean httpBackend, String baseUrl) {
+        this(credentials, workers, maxAttempts, httpBackend, baseUrl, ConfigManager.isBulkVirtualThreads());
+    }
+
+    /**
+     * @param virtualThreads true para un hilo virtual por worker, false para un pool fijo de hilos del sistema
+     */
+    public BulkAffiliateFlow(Credentials credentials, int workers, int maxAttempts, boolean httpBackend, String baseUrl,
+                             boolean virtualThreads) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("bulk.workers debe ser >= 1, dado=" + workers);
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("bulk.maxAttempts debe ser >= 1, dado=" + maxAttempts);
+        }
+        this.credentials = credentials;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.httpBackend = httpBackend;
+        this.baseUrl = baseUrl;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Crea {@code count} afiliados con datos aleatorios de {@link AffiliateDataGenerator}.
+     */
+    public Report createAffiliates(int count) {
+        return createAffiliates(LongStream.range(0, count).mapToObj(index -> {
+            RunRandom.reseed("bulk-data-" + index);
+            return AffiliateDataGenerator.generateRandomAffiliate();
+        }), "generador, random.seed=" + RunRandom.seed() + " (afiliado i: RunRandom.reseed(\"bulk-data-<i>\"))");
+    }
+
+    /**
+     * Crea todos los afiliados del stream. El stream se consume bajo demanda: no se materializa en memoria.
+     *
+     * @param origin origen de los datos para el reporte, con lo necesario para reproducir el afiliado de una posición
+     *               (ej: el corpus y su semilla)
+     */
+    public Report createAffiliates(Stream<AffiliateData> affiliates, String origin) {
+        Iterator<AffiliateData> source = affiliates.iterator();
+        Run run = new Run(deferredVerify
+                ? new VerificationQueue(Duration.ofSeconds(ConfigManager.getVerifyGraceSeconds()),
+                        ConfigManager.isVerifyPrefixSearch())
+                : null);
+        log.info("🚚 Creación masiva: backend={}, workers={} ({}), maxAttempts={}, verificación {}",
+                httpBackend ? "http" : "ui", workers, virtualThreads ? "hilos virtuales" : "hilos del sistema",
+                maxAttempts, deferredVerify ? "diferida por lotes" : "solo mensaje de guardado");
+
+        long start = System.nanoTime();
+        ExecutorService executor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bulk-worker-", 1).factory())
+                : Executors.newFixedThreadPool(workers, namedThreads());
+        ExecutorService verifierExecutor = Executors.newSingleThreadExecutor(
+                (virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform()).name("bulk-verifier").factory());
+        CountDownLatch creating = new CountDownLatch(1);
+        try {
+            Future<?> verifier = run.verification == null ? null
+                    : verifierExecutor.submit(() -> new Verifier(run).run(creating));
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> work(source, run)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            creating.countDown();
+            if (verifier != null) {
+                verifier.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Creación masiva interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Un worker de creación masiva terminó con error", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            verifierExecutor.shutdownNow();
+        }
+
+        Report report = run.toReport(origin, Duration.ofNanos(System.nanoTime() - start));
+        log.info("📦 {}", report.summary());
+        return report;
+    }
+
+    /**
+     * Bucle de un worker: mantiene su navegador (o sesión HTTP) mientras funcione y lo recicla tras cada fallo.
+     * No conseguir navegador del pool cuenta como un intento fallido del afiliado, no detiene la ejecución.
+     */
+    private void work(Iterator<AffiliateData> source, Run run) {
+        LoginFlow loginFlow = new LoginFlow();
+        AffiliateFlow affiliateFlow = new AffiliateFlow();
+        Lane lane = null;
+        try {
+            Item item;
+            while ((item = next(source, run)) != null) {
+                AffiliateData affiliate = item.affiliate();
+                for (int attempt = 1; ; attempt++) {
+                    RunRandom.reseed("bulk-fill-" + item.index() + "-" + attempt);
+                    boolean fresh = lane == null;
+                    Attempt result;
+                    try {
+                        if (fresh) {
+                            lane = httpBackend ? httpLane() : browserLane(loginFlow, affiliateFlow);
+                        }
+                        result = createOne(affiliate, fresh, lane, run);
+                    } catch (RuntimeException | AssertionError e) {
+                        // Sin navegador (espera del pool agotada, Chrome que no arranca): un intento fallido más
+                        result = Attempt.failed(false, "Sin navegador: " + e.getClass().getSimpleName() + ": "
+                                + firstLine(e.getMessage()));
+                    }
+                    if (result.ok()) {
+                        run.created.incrementAndGet();
+                        if (run.verification != null) {
+                            run.verification.record(affiliate.documentNumber());
+                        }
+                        break;
+                    }
+
+                    if (lane != null) {
+                        lane.release(true);
+                        lane = null;
+                    }
+                    if (result.saved() || attempt >= maxAttempts) {
+                        run.failures.add(new Failure(item.index(), affiliate.documentNumber(), attempt, result.error()));
+                        log.warn("❌ Afiliado {} no creado tras {} intento(s): {}",
+                                affiliate.documentNumber(), attempt, result.error());
+                        break;
+                    }
+                    run.retries.incrementAndGet();
+                    log.info("🔁 Reintentando afiliado {} (intento {} de {}): {}",
+                            affiliate.documentNumber(), attempt + 1, maxAttempts, result.error());
+                }
+            }
+        } finally {
+            if (lane != null) {
+                lane.release(false);
+            }
+        }
+    }
+
+    /**
+     * Un intento de creación. El login solo se hace al estrenar navegador o sesión: después la sesión sigue abierta.
+     */
+    private Attempt createOne(AffiliateData affiliate, boolean fresh, Lane lane, Run run) {
+        AffiliateBackend backend = lane.backend();
+        boolean saved = false;
+        try {
+            if (fresh && !run.timed(Phase.LOGIN, lane::login)) {
+                return Attempt.failed(false, "Login rechazado");
+            }
+            run.timed(Phase.NAVIGATE, backend::navigateToList);
+            run.timed(Phase.OPEN_FORM, backend::clickCreate);
+            run.timed(Phase.FILL, () -> backend.fillForm(affiliate));
+            saved = true; // a partir del clic el afiliado puede existir aunque falle la confirmación
+            run.timed(Phase.SAVE, backend::save);
+            if (!run.timed(Phase.VERIFY, backend::isSaveSuccessful)) {
+                return Attempt.failed(true, "Savia no confirmó el guardado");
+            }
+            return Attempt.success();
+        } catch (RuntimeException | AssertionError | CircuitBreaker.OpenError e) {
+            // las esperas de Selenide fallan con AssertionError; una página en error, con el cortocircuito
+            return Attempt.failed(saved, e.getClass().getSimpleName() + ": " + firstLine(e.getMessage()));
+        }
+    }
+
+    private Lane browserLane(LoginFlow loginFlow, AffiliateFlow affiliateFlow) {
+        BrowserPool.PooledBrowser browser = DriverManager.acquirePooledDriver();
+        return new Lane() {
+            @Override
+            public AffiliateBackend backend() {
+                return affiliateFlow;
+            }
+
+            @Override
+            public boolean login() {
+                return loginFlow.loginWithCachedSession(credentials);
+            }
+
+            @Override
+            public void release(boolean failed) {
+                DriverManager.releasePooledDriver(browser, failed);
+            }
+        };
+    }
+
+    /**
+     * Navegador propio del verificador, fuera del pool: no le quita uno a los workers.
+     */
+    private Lane ownBrowserLane() {
+        DriverManager.initDriver();
+        DriverManager.openBaseUrl();
+        LoginFlow loginFlow = new LoginFlow();
+        AffiliateFlow affiliateFlow = new AffiliateFlow();
+        return new Lane() {
+            @Override
+            public AffiliateBackend backend() {
+                return affiliateFlow;
+            }
+
+            @Override
+            public boolean login() {
+                return loginFlow.loginWithCachedSession(credentials);
+            }
+
+            @Override
+            public void release(boolean failed) {
+                DriverManager.quitDriver();
+            }
+        };
+    }
+
+    private Lane httpLane() {
+        AffiliateHttpFlow httpFlow = new AffiliateHttpFlow(new JsfHttpSession(baseUrl));
+        return new Lane() {
+            @Override
+            public AffiliateBackend backend() {
+                return httpFlow;
+            }
+
+            @Override
+            public boolean login() {
+                return httpFlow.login(credentials);
+            }
+
+            @Override
+            public void release(boolean failed) {
+                // La sesión HTTP no retiene recursos: basta con dejar de usarla
+            }
+        };
+    }
+
+    /**
+     * Medio de un worker para crear afiliados: un navegador del pool o una sesión HTTP propia.
+     */
+    private interface Lane {
+        AffiliateBackend backend();
+
+        boolean login();
+
+        void release(boolean failed);
+    }
+
+    /**
+     * Verificador diferido: mientras se crea, concilia cada {@code verify.intervalSeconds} los documentos registrados;
+     * al terminar la creación sigue hasta verificar o dar por faltantes todos. Una conciliación que falla recicla su
+     * navegador o sesión y se reintenta en la siguiente; tras {@code maxAttempts} fallos seguidos con la creación ya
+     * terminada, los pendientes se dan por faltantes.
+     */
+    private final class Verifier {
+        private final Run run;
+        private final VerificationQueue queue;
+        private Lane lane;
+        private int consecutiveFailures;
+
+        Verifier(Run run) {
+            this.run = run;
+            this.queue = run.verification;
+        }
+
+        Void run(CountDownLatch creating) throws InterruptedException {
+            long interval = ConfigManager.getVerifyIntervalSeconds();
+            try {
+                while (!creating.await(interval, TimeUnit.SECONDS)) {
+                    pass();
+                }
+                pass();
+                while (queue.hasPending()) {
+                    if (consecutiveFailures >= maxAttempts) {
+                        log.warn("❌ Verificación diferida abandonada tras {} conciliaciones fallidas", consecutiveFailures);
+                        queue.abandon();
+                        break;
+                    }
+                    if (queue.onlyUnreachableLeft()) {
+                        log.warn("⏳ La lista de afiliados no alcanza a cubrir los documentos pendientes: quedan sin verificar");
+                        queue.giveUpUnreachable();
+                        break;
+                    }
+                    TimeUnit.SECONDS.sleep(interval);
+                    pass();
+                }
+            } finally {
+                if (lane != null) {
+                    lane.release(false);
+                }
+            }
+            return null;
+        }
+
+        private void pass() {
+            if (!queue.hasPending()) {
+                return;
+            }
+            try {
+                if (lane == null) {
+                    lane = httpBackend ? httpLane() : ownBrowserLane();
+                    if (!lane.login()) {
+                        throw new IllegalStateException("Login rechazado");
+                    }
+                }
+                AffiliateBackend backend = lane.backend();
+                run.timed(Phase.RECONCILE, () -> queue.reconcile(backend::findExisting));
+                consecutiveFailures = 0;
+            } catch (RuntimeException | AssertionError | CircuitBreaker.OpenError e) {
+                consecutiveFailures++;
+                log.warn("⚠️ Conciliación fallida ({} seguidas), se reintenta en la siguiente: {}",
+                        consecutiveFailures, firstLine(e.getMessage()));
+                if (lane != null) {
+                    lane.release(true);
+                    lane = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Con un {@link ReentrantLock} y no {@code synchronized}: leer el corpus es E/S, y dentro de un bloque
+     * sincronizado fijaría el hilo virtual a su portador.
+     */
+    private static Item next(Iterator<AffiliateData> source, Run run) {
+        run.sourceLock.lock();
+        try {
+            return source.hasNext() ? new Item(run.taken++, source.next()) : null;
+        } finally {
+            run.sourceLock.unlock();
+        }
+    }
+
+    /**
+     * Afiliado del lote con su posición, que fija la semilla de su llenado.
+     */
+    private record Item(long index, AffiliateData affiliate) {
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+
+    private static ThreadFactory namedThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> new Thread(runnable, "bulk-worker-" + counter.incrementAndGet());
+    }
+
+    private record Attempt(boolean ok, boolean saved, String error) {
+        static Attempt success() {
+            return new Attempt(true, true, null);
+        }
+
+        static Attempt failed(boolean saved, String error) {
+            return new Attempt(false, saved, error);
+        }
+    }
+
+    /**
+     * Estado compartido entre los workers durante una ejecución.
+     */
+    private static final class Run {
+        private final VerificationQueue verification; // null sin verificación diferida
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger retries = new AtomicInteger();
+        private final ConcurrentLinkedQueue<Failure> failures = new ConcurrentLinkedQueue<>();
+        private final Map<Phase, ConcurrentLinkedQueue<Long>> samples = new ConcurrentHashMap<>();
+        private final ReentrantLock sourceLock = new ReentrantLock();
+        private long taken; // protegido por sourceLock
+
+        Run(VerificationQueue verification) {
+            this.verification = verification;
+        }
+
+        void timed(Phase phase, Runnable action) {
+            timed(phase, () -> {
+                action.run();
+                return null;
+            });
+        }
+
+        <T> T timed(Phase phase, Supplier<T> action) {
+            long start = System.nanoTime();
+            try {
+                return action.get();
+            } finally {
+                samples.computeIfAbsent(phase, p -> new ConcurrentLinkedQueue<>())
+                        .add((System.nanoTime() - start) / 1_000_000);
+            }
+        }
+
+        Report toReport(String origin, Duration elapsed) {
+            Map<Phase, PhaseStats> phases = new EnumMap<>(Phase.class);
+            samples.forEach((phase, millis) -> phases.put(phase, PhaseStats.of(new ArrayList<>(millis))));
+            Verification verified = verification == null ? null
+                    : new Verification(verification.verified(), verification.missing(),
+                    verification.unverified());
+            return new Report(origin, created.get(), retries.get(), List.copyOf(failures), verified, elapsed, phases);
+        }
+    }
+
+    /**
+     * Afiliado que no se pudo crear: su posición en el lote (con la semilla de {@link Report#origin()} lo reproduce),
+     * el número de documento asignado, el número de intentos y el último error.
+     */
+    public record Failure(long index, String documentNumber, int attempts, String error) {
+    }
+
+    /**
+     * Latencia de una fase en milisegundos.
+     */
+    public record PhaseStats(int count, long p50, long p95, long max, double mean) {
+        static PhaseStats of(List<Long> millis) {
+            Collections.sort(millis);
+            return new PhaseStats(
+                    millis.size(),
+                    millis.get(millis.size() / 2),
+                    millis.get((int) Math.ceil(millis.size() * 0.95) - 1),
+                    millis.get(millis.size() - 1),
+                    millis.stream().mapToLong(Long::longValue).average().orElse(0));
+        }
+    }
+
+    /**
+     * Resultado de la verificación diferida: afiliados encontrados en la lista, documentos que no aparecieron y
+     * documentos que la consulta no alcanzó a cubrir ({@code verify.maxRows} o filtro sin resultados).
+     */
+    public record Verification(int verified, List<String> missing, List<String> unverified) {
+    }
+
+    /**
+     * Resultado de una ejecución masiva. {@code source} describe el origen de los datos (semilla para reproducir cada
+     * posición); {@code verification} es {@code null} sin verificación diferida.
+     */
+    public record Report(String origin, int created, int retries, List<Failure> failures, Verification verification,
+                         Duration elapsed, Map<Phase, PhaseStats> phases) {
+
+        public double affiliatesPerMinute() {
+            double minutes = elapsed.toMillis() / 60_000.0;
+            return minutes > 0 ? created / minutes : 0;
+        }
+
+        public String summary() {
+            StringBuilder text = new StringBuilder(String.format(Locale.ROOT,
+                    "creados=%d, fallidos=%d, reintentos=%d, duración=%ds, throughput=%.1f afiliados/min",
+                    created, failures.size(), retries, elapsed.toSeconds(), affiliatesPerMinute()));
+            text.append(System.lineSeparator()).append("datos: ").append(origin);
+            if (verification != null) {
+                text.append(String.format(Locale.ROOT, ", verificados en lista=%d, faltantes=%d, sin verificar=%d",
+                        verification.verified(), verification.missing().size(), verification.unverified().size()));
+            }
+            text.append(System.lineSeparator()).append(String.format(Locale.ROOT,
+                    "%-10s %7s %8s %8s %8s %9s", "fase", "n", "p50(ms)", "p95(ms)", "max(ms)", "media"));
+            phases.forEach((phase, stats) -> text.append(System.lineSeparator()).append(String.format(Locale.ROOT,
+                    "%-10s %7d %8d %8d %8d %9.1f", phase, stats.count(), stats.p50(), stats.p95(), stats.max(), stats.mean())));
+            failures.forEach(failure -> text.append(System.lineSeparator()).append(String.format(Locale.ROOT,
+                    "❌ #%d %s (%d intento(s)): %s", failure.index(), failure.documentNumber(), failure.attempts(),
+                    failure.error())));
+            if (verification != null) {
+                verification.missing().forEach(document -> text.append(System.lineSeparator())
+                        .append("❓ ").append(document).append(" guardado pero no aparece en la lista de afiliados"));
+                verification.unverified().forEach(document -> text.append(System.lineSeparator())
+                        .append("⏳ ").append(document).append(" guardado, fuera del alcance de la consulta de la lista"));
+            }
+            return text.toString();
+        }
+    }
+}
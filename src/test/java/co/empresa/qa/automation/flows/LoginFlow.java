@@ -1,18 +1,31 @@
 package co.empresa.qa.automation.flows;
 
+import co.empresa.qa.automation.config.ConfigManager;
+import co.empresa.qa.automation.infrastructure.CircuitBreaker;
 import co.empresa.qa.automation.models.Credentials;
 import co.empresa.qa.automation.pages.login.LoginPage;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
+import java.util.Set;
+
+import static com.codeborne.selenide.Selenide.open;
+import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+
 /**
  * Flujo de inicio de sesión para la aplicación Conexiones.
  * Coordina la entrada de credenciales y delega las validaciones (éxito o fallo) a la página de login.
+ * Para pruebas que no validan la autenticación, {@link #loginWithCachedSession(Credentials)} reutiliza
+ * las cookies de una sesión previa en lugar de repetir el login por UI.
  *
  * @author David
  */
 public class LoginFlow {
     private static final Logger log = LoggerFactory.getLogger(LoginFlow.class);
+    private static final String HOME_PATH = "/home.faces";
     private final LoginPage loginPage = new LoginPage();
 
     public void login(Credentials credentials) {
@@ -22,11 +35,54 @@ public class LoginFlow {
                 .clickLogin();
     }
 
+    /**
+     * Deja el navegador autenticado en {@code /home.faces}. La primera vez por credenciales hace el login por UI
+     * y guarda las cookies de sesión; las siguientes las inyecta directamente. Si la sesión cacheada expiró
+     * (Savia redirige al login) se descarta y se vuelve a iniciar sesión.
+     * Requiere que el navegador ya esté en el dominio de Savia (lo garantiza {@code DriverHooks}).
+     *
+     * @return true si el navegador quedó en el home con sesión válida
+     */
+    public boolean loginWithCachedSession(Credentials credentials) {
+        Optional<Set<Cookie>> cached = SessionCache.get(credentials);
+        if (cached.isPresent()) {
+            if (restoreSession(cached.get())) {
+                log.info("♻️ Sesión reutilizada para usuario: {}", credentials.username());
+                CircuitBreaker.sessionEstablished();
+                return true;
+            }
+            log.info("⌛ Sesión cacheada expirada para {}, iniciando sesión de nuevo", credentials.username());
+            SessionCache.invalidate(credentials);
+        }
+
+        login(credentials);
+        if (!isLoginSuccessful()) {
+            return false;
+        }
+        SessionCache.put(credentials, getWebDriver().manage().getCookies());
+        return true;
+    }
+
+    /**
+     * Con login exitoso, volver a ver el login durante la prueba se trata como sesión expirada ({@link CircuitBreaker}).
+     */
     public boolean isLoginSuccessful() {
-        return loginPage.isLoginSuccessful();
+        boolean successful = loginPage.isLoginSuccessful();
+        if (successful) {
+            CircuitBreaker.sessionEstablished();
+        }
+        return successful;
     }
 
     public boolean isLoginFailed() {
         return loginPage.hasErrorMessage();
     }
-}
\ No newline at end of file
+
+    private boolean restoreSession(Set<Cookie> cookies) {
+        WebDriver.Options options = getWebDriver().manage();
+        options.deleteAllCookies();
+        cookies.forEach(options::addCookie);
+        open(ConfigManager.getBaseUrl() + HOME_PATH);
+        return loginPage.isHomeDisplayed();
+    }
+}
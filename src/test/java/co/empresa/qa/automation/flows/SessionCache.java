@@ -0,0 +1,37 @@
+package co.empresa.qa.automation.flows;
+
+import co.empresa.qa.automation.models.Credentials;
+import org.openqa.selenium.Cookie;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Caché de sesiones autenticadas (cookies JSESSIONID/JSF) por juego de credenciales.
+ * Cada hilo mantiene su propia sesión: en ejecución paralela dos navegadores nunca comparten
+ * la misma sesión JSF, cuyo estado (vistas, beans de sesión) no está pensado para uso concurrente.
+ *
+ * @author David
+ */
+final class SessionCache {
+
+    private static final ThreadLocal<Map<Credentials, Set<Cookie>>> SESSIONS = ThreadLocal.withInitial(HashMap::new);
+
+    private SessionCache() {
+        // Utilidad: no instanciable
+    }
+
+    static Optional<Set<Cookie>> get(Credentials credentials) {
+        return Optional.ofNullable(SESSIONS.get().get(credentials));
+    }
+
+    static void put(Credentials credentials, Set<Cookie> cookies) {
+        SESSIONS.get().put(credentials, Set.copyOf(cookies));
+    }
+
+    static void invalidate(Credentials credentials) {
+        SESSIONS.get().remove(credentials);
+    }
+}
@@ -0,0 +1,214 @@
+package co.empresa.qa.automation.flows;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiFunction;
+
+/**
+ * Cola de verificación diferida de afiliados creados. Los workers registran cada documento guardado con
+ * {@link #record} y siguen creando; un verificador, con su propio navegador o sesión HTTP, concilia periódicamente
+ * todos los pendientes con una consulta a la lista de afiliados ({@link AffiliateBackend#findExisting}) por grupo de
+ * documentos en lugar de buscar documento por documento. Los pendientes se agrupan por longitud y la consulta se filtra
+ * por su prefijo común (los números del {@code DocumentNumberAllocator} son consecutivos), para que las filas nuevas
+ * queden al alcance aunque la tabla completa tenga miles de afiliados y no esté ordenada por fecha de creación.
+ * <p>
+ * Un documento que no aparece sigue pendiente para la siguiente conciliación (la lista puede tardar en reflejarlo);
+ * pasado el plazo de gracia se reporta como faltante, pero solo si la consulta recorrió todas las filas del filtro.
+ * Si se cortó en {@code verify.maxRows}, o si la consulta filtrada no devolvió ninguna fila (el filtro de Savia podría
+ * no buscar por prefijo), el documento sigue pendiente; cuando solo quedan documentos así, terminada la creación, se
+ * reportan como sin verificar ({@link #unverified()}) y no como faltantes.
+ * {@link #record} se puede llamar desde cualquier hilo; {@link #reconcile} y los resultados, solo desde el
+ * verificador (o tras terminar este).
+ *
+ * @author David
+ */
+public class VerificationQueue {
+    private static final Logger log = LoggerFactory.getLogger(VerificationQueue.class);
+
+    /**
+     * Prefijo común mínimo para filtrar la consulta; con uno más corto se consulta la lista sin filtro.
+     */
+    private static final int MIN_PREFIX = 4;
+
+    private final Duration grace;
+    private final boolean prefixSearch;
+    private final ConcurrentLinkedQueue<Recorded> incoming = new ConcurrentLinkedQueue<>();
+    private final Map<String, Long> pending = new LinkedHashMap<>(); // documento → registro (nanoTime)
+    private final List<String> missing = new ArrayList<>();
+    private final List<String> unverified = new ArrayList<>();
+    private final Set<String> unreachable = new HashSet<>(); // vencidos que la última consulta no alcanzó a cubrir
+    private int verified;
+
+    /**
+     * @param grace        tiempo que un documento puede tardar en aparecer en la lista antes de darse por faltante
+     * @param prefixSearch filtrar cada consulta por el prefijo común de sus documentos ({@code verify.prefixSearch})
+     */
+    public VerificationQueue(Duration grace, boolean prefixSearch) {
+        this.grace = grace;
+        this.prefixSearch = prefixSearch;
+    }
+
+    /**
+     * Registra un documento guardado para verificarlo en la próxima conciliación.
+     */
+    public void record(String documentNumber) {
+        incoming.add(new Recorded(documentNumber, System.nanoTime()));
+    }
+
+    /**
+     * Una conciliación: consulta los pendientes con {@code lookup} (prefijo de búsqueda, documentos → resultado), una
+     * vez por grupo de prefijo. Los encontrados quedan verificados; los que superan el plazo de gracia sin aparecer en
+     * una consulta completa, faltantes. Si la consulta falla, los pendientes se conservan para la siguiente.
+     *
+     * @return documentos verificados en esta conciliación
+     */
+    public int reconcile(BiFunction<String, Collection<String>, Lookup> lookup) {
+        drainIncoming();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Map<String, Lookup> results = new LinkedHashMap<>();
+        Map<String, String> prefixes = new HashMap<>(); // documento → prefijo con el que se consultó
+        groups(pending.keySet()).forEach((prefix, documents) -> {
+            results.put(prefix, lookup.apply(prefix, documents));
+            documents.forEach(document -> prefixes.put(document, prefix));
+        });
+
+        long now = System.nanoTime();
+        int confirmed = 0;
+        unreachable.clear();
+        for (Iterator<Map.Entry<String, Long>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Long> entry = it.next();
+            String prefix = prefixes.get(entry.getKey());
+            Lookup result = results.get(prefix);
+            if (result.found().contains(entry.getKey())) {
+                confirmed++;
+                it.remove();
+            } else if (now - entry.getValue() >= grace.toNanos()) {
+                if (result.conclusive(prefix)) {
+                    missing.add(entry.getKey());
+                    it.remove();
+                    log.warn("❓ Documento {} no aparece en la lista de afiliados tras {}s", entry.getKey(), grace.toSeconds());
+                } else {
+                    unreachable.add(entry.getKey());
+                }
+            }
+        }
+        verified += confirmed;
+        if (!unreachable.isEmpty()) {
+            log.warn("⏳ {} documento(s) vencidos siguen pendientes: la consulta no cubrió todas las filas del filtro",
+                    unreachable.size());
+        }
+        log.info("📋 Conciliación: {} verificados, {} pendientes, {} faltantes", confirmed, pending.size(), missing.size());
+        return confirmed;
+    }
+
+    /**
+     * Todos los pendientes vencieron y la última conciliación no pudo cubrirlos: más consultas no los resolverán.
+     */
+    public boolean onlyUnreachableLeft() {
+        return incoming.isEmpty() && !pending.isEmpty() && unreachable.containsAll(pending.keySet());
+    }
+
+    /**
+     * Reporta como sin verificar (no como faltantes) los pendientes que la consulta no alcanza.
+     */
+    public void giveUpUnreachable() {
+        unverified.addAll(pending.keySet());
+        pending.clear();
+        unreachable.clear();
+    }
+
+    /**
+     * Hay documentos registrados sin verificar ni dar por faltantes.
+     */
+    public boolean hasPending() {
+        return !pending.isEmpty() || !incoming.isEmpty();
+    }
+
+    /**
+     * Da por faltantes los pendientes que ya no se podrán verificar (el verificador no pudo consultar la lista).
+     */
+    public void abandon() {
+        drainIncoming();
+        missing.addAll(pending.keySet());
+        pending.clear();
+    }
+
+    public int verified() {
+        return verified;
+    }
+
+    public List<String> missing() {
+        return List.copyOf(missing);
+    }
+
+    public List<String> unverified() {
+        return List.copyOf(unverified);
+    }
+
+    /**
+     * Agrupa los documentos por longitud y, con {@code prefixSearch}, por el prefijo común de cada longitud; un prefijo
+     * de menos de {@link #MIN_PREFIX} caracteres (o sin {@code prefixSearch}) se consulta sin filtro ({@code ""}).
+     */
+    private Map<String, List<String>> groups(Collection<String> documents) {
+        Map<Integer, List<String>> byLength = new TreeMap<>();
+        documents.forEach(document -> byLength.computeIfAbsent(document.length(), k -> new ArrayList<>()).add(document));
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        byLength.values().forEach(sameLength -> {
+            String prefix = prefixSearch ? commonPrefix(sameLength) : "";
+            groups.computeIfAbsent(prefix.length() >= MIN_PREFIX ? prefix : "", k -> new ArrayList<>()).addAll(sameLength);
+        });
+        return groups;
+    }
+
+    private static String commonPrefix(List<String> documents) {
+        String prefix = documents.get(0);
+        for (String document : documents) {
+            int length = 0;
+            while (length < Math.min(prefix.length(), document.length()) && prefix.charAt(length) == document.charAt(length)) {
+                length++;
+            }
+            prefix = prefix.substring(0, length);
+        }
+        return prefix;
+    }
+
+    private void drainIncoming() {
+        Recorded recorded;
+        while ((recorded = incoming.poll()) != null) {
+            pending.putIfAbsent(recorded.documentNumber(), recorded.nanoTime());
+        }
+    }
+
+    private record Recorded(String documentNumber, long nanoTime) {
+    }
+
+    /**
+     * Resultado de una consulta a la lista: documentos encontrados, si se llegó a la última fila del filtro (y no al
+     * límite {@code verify.maxRows}) y cuántas filas devolvió.
+     */
+    public record Lookup(Set<String> found, boolean reachedEnd, int rows) {
+
+        /**
+         * Un documento ausente de esta consulta falta de verdad: se recorrieron todas las filas y, si se filtró por
+         * prefijo, el filtro devolvió algo (sin ninguna fila, el filtro de Savia quizá no busca por prefijo).
+         */
+        boolean conclusive(String prefix) {
+            return reachedEnd && (prefix.isEmpty() || rows > 0);
+        }
+    }
+}
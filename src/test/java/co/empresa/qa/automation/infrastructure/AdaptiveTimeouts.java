@@ -0,0 +1,261 @@
+package co.empresa.qa.automation.infrastructure;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import com.codeborne.selenide.SelenideElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static com.codeborne.selenide.Condition.visible;
+
+/**
+ * Timeouts de espera aprendidos de la latencia observada de cada locator. Cada espera medida registra cuánto tardó
+ * el elemento en aparecer; con al menos {@code timeout.adaptive.minSamples} muestras el timeout del locator pasa a ser
+ * su p99 × {@code timeout.adaptive.factor}, acotado entre {@code timeout.adaptive.floorMs} y
+ * {@code timeout.adaptive.ceilingMs}. Sin historial suficiente se usa el timeout fijo de siempre. Así un elemento que
+ * nunca tarda más de 400 ms falla en ~1 s en lugar de agotar los 10 s fijos.
+ * <p>
+ * Las últimas muestras de cada locator se guardan en {@code timeout.adaptive.file} al terminar la JVM, mezcladas con
+ * las que haya escrito otra JVM entretanto, y el resumen (p50, p99 y timeout) en {@code timeouts.txt} dentro de
+ * {@code metrics.dir}. Una espera que vence se registra con el tiempo agotado: si el ambiente se vuelve más lento,
+ * el p99 sube y el timeout crece en las ejecuciones siguientes. {@code timeout.adaptive=false} vuelve a los timeouts
+ * fijos sin registrar nada (lo usan los benchmarks contra el stub, para no mezclar su latencia con la de Savia).
+ * <p>
+ * Solo afecta a las esperas que pasan por esta clase: el timeout global de Selenide sigue siendo
+ * {@code timeout.element}, porque las esperas sin medir nunca corregirían un valor aprendido de otros elementos.
+ *
+ * @author David
+ */
+public final class AdaptiveTimeouts {
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveTimeouts.class);
+    private static final String REPORT_FILE = "timeouts.txt";
+
+    /**
+     * Muestras más recientes que se conservan por locator.
+     */
+    private static final int WINDOW = 200;
+
+    private static final Map<String, Samples> SAMPLES = new ConcurrentHashMap<>();
+
+    static {
+        load(Path.of(ConfigManager.getAdaptiveTimeoutFile()))
+                .forEach((key, millis) -> SAMPLES.put(key, new Samples(millis)));
+        Runtime.getRuntime().addShutdownHook(new Thread(AdaptiveTimeouts::store, "adaptive-timeouts-store"));
+    }
+
+    private AdaptiveTimeouts() {
+        // Utilidad: no instanciable
+    }
+
+    /**
+     * Timeout del locator: p99 × factor acotado, o {@code fallback} si está desactivado o aún no hay muestras suficientes.
+     */
+    public static Duration timeout(String key, Duration fallback) {
+        if (!ConfigManager.isAdaptiveTimeouts()) {
+            return fallback;
+        }
+        Samples samples = SAMPLES.get(key);
+        long[] sorted = samples == null ? new long[0] : samples.sorted();
+        if (sorted.length == 0 || sorted.length < ConfigManager.getAdaptiveTimeoutMinSamples()) {
+            return fallback;
+        }
+        return Duration.ofMillis(bounded(percentile(sorted, 0.99) * ConfigManager.getAdaptiveTimeoutFactor()));
+    }
+
+    /**
+     * {@code shouldBe(visible)} con el timeout del locator. Registra lo que tardó, también si venció; una espera
+     * cortada por {@link CircuitBreaker.OpenError} no es una medida de latencia y no se registra.
+     */
+    public static SelenideElement shouldBeVisible(SelenideElement element, String key, Duration fallback) {
+        Duration timeout = timeout(key, fallback);
+        long start = System.nanoTime();
+        try {
+            SelenideElement shown = element.shouldBe(visible, timeout);
+            record(key, (System.nanoTime() - start) / 1_000_000);
+            return shown;
+        } catch (AssertionError e) {
+            if (!cutShort(e)) {
+                record(key, (System.nanoTime() - start) / 1_000_000); // venció la espera
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * {@code is(visible)} con el timeout del locator. Solo registra si el elemento apareció: un {@code false} es un
+     * resultado válido de la consulta, no una medida de latencia.
+     */
+    public static boolean isVisible(SelenideElement element, String key, Duration fallback) {
+        long start = System.nanoTime();
+        boolean shown = element.is(visible, timeout(key, fallback));
+        if (shown) {
+            record(key, (System.nanoTime() - start) / 1_000_000);
+        }
+        return shown;
+    }
+
+    /**
+     * Espera arbitraria (ej: {@code RaceWait.await}) con el timeout del locator. Registra lo que tardó, también si
+     * venció (resultado vacío); si la espera lanza (p. ej. {@link CircuitBreaker.OpenError}) no registra nada.
+     */
+    public static <T> Optional<T> await(String key, Duration fallback, Function<Duration, Optional<T>> wait) {
+        Duration timeout = timeout(key, fallback);
+        long start = System.nanoTime();
+        Optional<T> result = wait.apply(timeout);
+        record(key, (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Si la espera la cortó el cortocircuito (Selenide puede envolverlo como causa de su error de aserción).
+     */
+    private static boolean cutShort(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CircuitBreaker.OpenError) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void record(String key, long millis) {
+        if (ConfigManager.isAdaptiveTimeouts()) {
+            SAMPLES.computeIfAbsent(key, k -> new Samples(List.of())).add(millis);
+        }
+    }
+
+    /**
+     * Mezcla las muestras de esta JVM con las del archivo (por si otra JVM lo actualizó) y lo reescribe ordenado
+     * por locator.
+     */
+    static synchronized void store() {
+        Map<String, List<Long>> recorded = new TreeMap<>();
+        SAMPLES.forEach((key, samples) -> {
+            List<Long> fresh = samples.drainRecorded();
+            if (!fresh.isEmpty()) {
+                recorded.put(key, fresh);
+            }
+        });
+        if (recorded.isEmpty()) {
+            return;
+        }
+        Path file = Path.of(ConfigManager.getAdaptiveTimeoutFile());
+        Map<String, List<Long>> merged = new TreeMap<>(load(file));
+        recorded.forEach((key, fresh) -> {
+            List<Long> window = new ArrayList<>(merged.getOrDefault(key, List.of()));
+            window.addAll(fresh);
+            merged.put(key, window.subList(Math.max(0, window.size() - WINDOW), window.size()));
+        });
+
+        List<String> lines = new ArrayList<>();
+        lines.add("# Latencia observada por locator en ms (AdaptiveTimeouts), ultimas " + WINDOW + " muestras");
+        List<String> report = new ArrayList<>();
+        report.add(String.format(Locale.ROOT, "%-50s %5s %8s %8s %10s", "locator", "n", "p50(ms)", "p99(ms)", "timeout(ms)"));
+        merged.forEach((key, millis) -> {
+            if (millis.isEmpty()) {
+                return;
+            }
+            lines.add(key.replace(":", "\\:").replace("=", "\\=") + "="
+                    + String.join(",", millis.stream().map(String::valueOf).toList()));
+            long[] sorted = millis.stream().mapToLong(Long::longValue).sorted().toArray();
+            report.add(String.format(Locale.ROOT, "%-50s %5d %8d %8d %10s", key, sorted.length,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    sorted.length >= ConfigManager.getAdaptiveTimeoutMinSamples()
+                            ? String.valueOf(bounded(percentile(sorted, 0.99) * ConfigManager.getAdaptiveTimeoutFactor()))
+                            : "fijo"));
+        });
+        try {
+            Path absolute = file.toAbsolutePath();
+            Files.createDirectories(absolute.getParent());
+            Path temp = Files.createTempFile(absolute.getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(temp, lines, StandardCharsets.ISO_8859_1);
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Path reportFile = Path.of(ConfigManager.getMetricsDir(), REPORT_FILE);
+            Files.createDirectories(reportFile.getParent());
+            Files.writeString(reportFile, String.join(System.lineSeparator(), report));
+            log.info("⏱️ Latencias por locator actualizadas en {} ({} locators)", file, merged.size());
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudieron guardar las latencias por locator en {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Map<String, List<Long>> load(Path file) {
+        Map<String, List<Long>> samples = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return samples;
+        }
+        Properties history = new Properties();
+        try (var reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            history.load(reader);
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudo leer el historial de latencias {}: {}", file, e.getMessage());
+        }
+        history.stringPropertyNames().forEach(key -> samples.put(key, Arrays.stream(history.getProperty(key).split(","))
+                .filter(value -> !value.isBlank())
+                .map(value -> Long.parseLong(value.trim()))
+                .toList()));
+        return samples;
+    }
+
+    private static long bounded(double millis) {
+        return Math.max(ConfigManager.getAdaptiveTimeoutFloorMs(),
+                Math.min(ConfigManager.getAdaptiveTimeoutCeilingMs(), Math.round(millis)));
+    }
+
+    /**
+     * Percentil por rango más cercano de muestras ordenadas.
+     */
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.max(0, (int) Math.ceil(sorted.length * quantile) - 1)];
+    }
+
+    /**
+     * Ventana de muestras de un locator: las del historial más las de esta JVM, y aparte las de esta JVM
+     * para mezclarlas al guardar.
+     */
+    private static final class Samples {
+        private final Deque<Long> window;
+        private final List<Long> recorded = new ArrayList<>();
+
+        Samples(List<Long> history) {
+            this.window = new ArrayDeque<>(history);
+        }
+
+        synchronized void add(long millis) {
+            window.addLast(millis);
+            if (window.size() > WINDOW) {
+                window.removeFirst();
+            }
+            recorded.add(millis);
+        }
+
+        synchronized long[] sorted() {
+            return window.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+
+        synchronized List<Long> drainRecorded() {
+            List<Long> drained = List.copyOf(recorded);
+            recorded.clear();
+            return drained;
+        }
+    }
+}
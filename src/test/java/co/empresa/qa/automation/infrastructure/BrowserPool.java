@@ -0,0 +1,170 @@
+package co.empresa.qa.automation.infrastructure;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import com.codeborne.selenide.SelenideDriver;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de navegadores "calientes" que se reutilizan entre pruebas para evitar el arranque en frío de Chrome.
+ * Entrega instancias ya abiertas en la URL base, las limpia al devolverlas (cookies, storage y navegación a la URL base)
+ * y descarta las que fallaron o alcanzaron el máximo de reutilizaciones configurado.
+ * Tamaño y reutilización máxima se leen desde {@code ConfigManager}.
+ *
+ * @author David
+ */
+public final class BrowserPool {
+    private static final Logger log = LoggerFactory.getLogger(BrowserPool.class);
+    private static final long POLL_INTERVAL_MS = 200;
+
+    private static final BrowserPool INSTANCE = new BrowserPool(
+            ConfigManager.getBrowserPoolSize(),
+            ConfigManager.getBrowserPoolMaxReuse()
+    );
+
+    private final BlockingQueue<PooledBrowser> idle = new LinkedBlockingQueue<>();
+    private final Set<PooledBrowser> live = ConcurrentHashMap.newKeySet();
+    private final Semaphore capacity;
+    private final int maxReuse;
+
+    private BrowserPool(int size, int maxReuse) {
+        if (size < 1) {
+            throw new IllegalArgumentException("browser.pool.size debe ser >= 1, dado=" + size);
+        }
+        this.capacity = new Semaphore(size);
+        this.maxReuse = maxReuse;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "browser-pool-shutdown"));
+        log.info("🏊 Pool de navegadores: size={}, maxReuse={}", size, maxReuse);
+    }
+
+    public static BrowserPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Entrega un navegador libre; si no hay y queda capacidad, abre uno nuevo.
+     * Si el pool está lleno espera a que otro hilo devuelva uno (hasta {@code timeout.page}).
+     */
+    public PooledBrowser acquire() {
+        long deadline = System.currentTimeMillis() + ConfigManager.getPageTimeout() * 1000;
+        try {
+            while (true) {
+                PooledBrowser browser = idle.poll();
+                if (browser == null && capacity.tryAcquire()) {
+                    browser = create();
+                }
+                if (browser == null) {
+                    browser = idle.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                }
+                if (browser != null) {
+                    browser.uses++;
+                    return browser;
+                }
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IllegalStateException("❌ No hay navegadores libres en el pool tras "
+                            + ConfigManager.getPageTimeout() + "s");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando un navegador del pool", e);
+        }
+    }
+
+    /**
+     * Devuelve el navegador al pool. Se descarta (en lugar de reutilizarse) si la prueba falló,
+     * si superó {@code browser.pool.maxReuse} usos o si no se pudo limpiar.
+     */
+    public void release(PooledBrowser browser, boolean failed) {
+        if (failed) {
+            discard(browser, "la prueba falló");
+            return;
+        }
+        if (browser.uses >= maxReuse) {
+            discard(browser, "alcanzó " + maxReuse + " usos");
+            return;
+        }
+        try {
+            reset(browser.webDriver());
+            idle.offer(browser);
+        } catch (RuntimeException e) {
+            discard(browser, "no se pudo limpiar: " + e.getMessage());
+        }
+    }
+
+    private PooledBrowser create() {
+        try {
+            SelenideDriver driver = DriverManager.newDriver();
+            driver.open(ConfigManager.getBaseUrl());
+            PooledBrowser browser = new PooledBrowser(driver);
+            live.add(browser);
+            log.info("🆕 Navegador creado para el pool ({} activos)", live.size());
+            return browser;
+        } catch (RuntimeException e) {
+            capacity.release();
+            throw e;
+        }
+    }
+
+    private void reset(WebDriver webDriver) {
+        webDriver.manage().deleteAllCookies();
+        ((JavascriptExecutor) webDriver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+        webDriver.navigate().to(ConfigManager.getBaseUrl());
+    }
+
+    private void discard(PooledBrowser browser, String reason) {
+        log.info("♻️ Descartando navegador del pool: {}", reason);
+        try {
+            browser.driver.close();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Error cerrando navegador descartado: {}", e.getMessage());
+        } finally {
+            live.remove(browser);
+            capacity.release();
+        }
+    }
+
+    private void shutdown() {
+        for (PooledBrowser browser : live) {
+            try {
+                browser.driver.close();
+            } catch (RuntimeException ignored) {
+                // El proceso está terminando: no hay nada más que hacer
+            }
+        }
+        live.clear();
+    }
+
+    /**
+     * Navegador del pool. Solo expone el {@link WebDriver}; el ciclo de vida lo controla {@link BrowserPool}.
+     */
+    public static final class PooledBrowser {
+        private final SelenideDriver driver;
+        private int uses;
+
+        private PooledBrowser(SelenideDriver driver) {
+            this.driver = driver;
+        }
+
+        public WebDriver webDriver() {
+            return driver.getWebDriver();
+        }
+
+        SelenideDriver driver() {
+            return driver;
+        }
+
+        public int uses() {
+            return uses;
+        }
+    }
+}
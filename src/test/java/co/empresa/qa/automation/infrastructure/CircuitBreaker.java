@@ -0,0 +1,229 @@
+package co.empresa.qa.automation.infrastructure;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cortocircuito por prueba: en cuanto la página queda en un estado de error (página de error JSF/servidor,
+ * {@code ui-messages-error} visible o sesión expirada), todas las búsquedas de elementos pendientes de la prueba
+ * fallan de inmediato con el diagnóstico, en lugar de agotar {@code timeout.element} en cada {@code shouldBe}.
+ * <p>
+ * El estado de la página se revisa sin round trips extra en cada sondeo de {@code PrimeFacesAjax.waitForIdle}, y
+ * con uno propio tras cada navegación y, como mucho cada {@code breaker.checkIntervalMs}, mientras Selenide repite la
+ * búsqueda del mismo localizador (una espera en curso). La sesión solo cuenta como expirada si el login de Savia
+ * aparece después de {@link #sessionEstablished()}; borrar las cookies o abrir la URL base la da por cerrada a propósito.
+ * <p>
+ * {@code DriverManager} envuelve el navegador del hilo con {@link #guard(WebDriver)} y limpia el estado al asignar o
+ * cerrar un navegador.
+ *
+ * @author David
+ */
+public final class CircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * Función JS (argumento: si la sesión ya estaba iniciada) que devuelve {@code [motivo, detalle]} o {@code null}.
+     */
+    public static final String ERROR_STATE_FN =
+            "function (sessionEstablished) {"
+                    + "  var title = document.title || '';"
+                    // Solo se lee el texto de documentos pequeños (páginas de error): en una vista JSF sería costoso
+                    + "  var small = document.getElementsByTagName('*').length < 400;"
+                    + "  var text = small && document.body ? (document.body.textContent || '').slice(0, 3000) : '';"
+                    + "  if (/ViewExpiredException|vista ha expirado|sesi[oó]n (ha )?(expirado|caducado|expirada|caducada)/i"
+                    + "      .test(title + '\\n' + text)) return ['SESSION_EXPIRED', title || text.slice(0, 160)];"
+                    + "  if (sessionEstablished && document.getElementById('login:usuario'))"
+                    + "    return ['SESSION_EXPIRED', 'Savia redirigió al login (' + location.pathname + ')'];"
+                    + "  if (/HTTP Status 5\\d\\d|Error 5\\d\\d|Internal Server Error|Service Unavailable|Bad Gateway|Gateway Time-?out/i"
+                    + "      .test(title + '\\n' + text.slice(0, 500)) || /(javax|jakarta)\\.faces\\.|Exception/.test(title))"
+                    + "    return ['SERVER_ERROR', title || text.slice(0, 160)];"
+                    + "  var messages = document.querySelectorAll('.ui-messages-error');"
+                    + "  for (var i = 0; i < messages.length; i++) {"
+                    + "    var m = messages[i];"
+                    + "    if ((m.offsetWidth || m.offsetHeight) && (m.innerText || '').trim())"
+                    + "      return ['ERROR_MESSAGE', m.innerText.trim().slice(0, 300)];"
+                    + "  }"
+                    + "  return null;"
+                    + "}";
+
+    private static final String CHECK_JS = "return (" + ERROR_STATE_FN + ")(arguments[0]);";
+
+    private static final Set<String> NAVIGATION = Set.of("get", "to", "refresh", "back", "forward");
+    private static final Set<String> LOOKUPS = Set.of("findElement", "findElements");
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+    private static final ThreadLocal<Guarded> GUARDED = new ThreadLocal<>();
+
+    private CircuitBreaker() {
+        // Utilidad: no instanciable
+    }
+
+    public enum Reason {
+        SESSION_EXPIRED("⌛ sesión expirada"),
+        SERVER_ERROR("💥 página de error del servidor"),
+        ERROR_MESSAGE("❌ mensaje de error visible");
+
+        private final String description;
+
+        Reason(String description) {
+            this.description = description;
+        }
+    }
+
+    /**
+     * Es {@link Error} y no {@code Exception} a propósito: Selenide reintenta cualquier {@code Exception} (y
+     * {@code AssertionError}) hasta agotar su timeout; un {@code Error} corta la espera al primer intento.
+     */
+    public static final class OpenError extends Error {
+        private static final long serialVersionUID = 1L;
+
+        private final Reason reason;
+
+        OpenError(Reason reason, String detail) {
+            super("🔌 Cortocircuito: " + reason.description + ": " + detail
+                    + " (se abortan las esperas pendientes de la prueba)");
+            this.reason = reason;
+        }
+
+        public Reason reason() {
+            return reason;
+        }
+    }
+
+    /**
+     * Navegador que consulta el cortocircuito antes de cada búsqueda de elementos. Mientras el hilo siga con el mismo
+     * navegador se devuelve el mismo envoltorio.
+     */
+    public static WebDriver guard(WebDriver driver) {
+        Guarded guarded = GUARDED.get();
+        if (guarded == null || guarded.original() != driver) {
+            guarded = new Guarded(driver, new Guard().decorate(driver));
+            GUARDED.set(guarded);
+        }
+        return guarded.decorated();
+    }
+
+    /**
+     * Login completado: a partir de aquí ver el formulario de login significa que la sesión expiró.
+     */
+    public static void sessionEstablished() {
+        STATE.get().sessionEstablished = true;
+    }
+
+    public static boolean isSessionEstablished() {
+        return STATE.get().sessionEstablished;
+    }
+
+    /**
+     * Cierra el cortocircuito y olvida la sesión del hilo (nuevo navegador o nueva prueba).
+     */
+    public static void reset() {
+        STATE.remove();
+        GUARDED.remove();
+    }
+
+    public static Optional<OpenError> tripped() {
+        return Optional.ofNullable(STATE.get().tripped);
+    }
+
+    /**
+     * Abre el cortocircuito si {@code jsState} es el {@code [motivo, detalle]} devuelto por {@link #ERROR_STATE_FN}.
+     */
+    public static void tripOn(Object jsState) {
+        if (jsState instanceof List<?> error && error.size() == 2) {
+            trip(Reason.valueOf(String.valueOf(error.get(0))), String.valueOf(error.get(1)));
+        }
+    }
+
+    private static void trip(Reason reason, String detail) {
+        State state = STATE.get();
+        if (state.tripped == null) {
+            state.tripped = new OpenError(reason, detail);
+            log.error("🔌 Cortocircuito abierto: {}: {}", reason.description, detail);
+        }
+        throw state.tripped;
+    }
+
+    private static void ensureClosed() {
+        OpenError tripped = STATE.get().tripped;
+        if (tripped != null) {
+            throw tripped;
+        }
+    }
+
+    private static void check(WebDriver driver) {
+        State state = STATE.get();
+        state.lastCheck = System.nanoTime();
+        try {
+            tripOn(((JavascriptExecutor) driver).executeScript(CHECK_JS, state.sessionEstablished));
+        } catch (WebDriverException e) {
+            // Documento en reemplazo o sin JS (descargas, about:blank): se revisa en la siguiente ocasión
+        }
+    }
+
+    /**
+     * Decorador del navegador del hilo. Las excepciones de un {@code WebDriverListener} se registran y se descartan,
+     * por eso el corte necesita un decorador propio.
+     */
+    private static final class Guard extends WebDriverDecorator<WebDriver> {
+
+        @Override
+        public void beforeCall(Decorated<?> target, Method method, Object[] args) {
+            String name = method.getName();
+            State state = STATE.get();
+            if (NAVIGATION.contains(name)) {
+                // get(url) / navigate().to(url): abrir la URL base (login) cierra la sesión a propósito
+                if (args != null && args.length == 1 && isBaseUrl(String.valueOf(args[0]))) {
+                    state.sessionEstablished = false;
+                }
+            } else if ("deleteAllCookies".equals(name)) {
+                state.sessionEstablished = false;
+            } else if (LOOKUPS.contains(name)) {
+                ensureClosed();
+                String lookup = args == null || args.length == 0 ? "" : String.valueOf(args[0]);
+                boolean waiting = lookup.equals(state.lastLookup);
+                state.lastLookup = lookup;
+                if (waiting && System.nanoTime() - state.lastCheck >= ConfigManager.getBreakerCheckIntervalMs() * 1_000_000) {
+                    check(getDecoratedDriver().getOriginal());
+                }
+            }
+        }
+
+        @Override
+        public void afterCall(Decorated<?> target, Method method, Object[] args, Object result) {
+            if (NAVIGATION.contains(method.getName())) {
+                STATE.get().lastLookup = null;
+                check(getDecoratedDriver().getOriginal());
+            }
+        }
+    }
+
+    private static boolean isBaseUrl(String url) {
+        return stripSlash(url).equals(stripSlash(ConfigManager.getBaseUrl()));
+    }
+
+    private static String stripSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private record Guarded(WebDriver original, WebDriver decorated) {
+    }
+
+    private static final class State {
+        private boolean sessionEstablished;
+        private OpenError tripped;
+        private String lastLookup;
+        private long lastCheck;
+    }
+}
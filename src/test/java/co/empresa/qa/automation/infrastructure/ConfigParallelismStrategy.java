@@ -0,0 +1,58 @@
+package co.empresa.qa.automation.infrastructure;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/**
+ * Estrategia de paralelismo de JUnit 5 basada en {@code ConfigManager.getParallelism()}.
+ * Fija el número de hilos (y por tanto de navegadores simultáneos) sin hilos de compensación,
+ * para no abrir más navegadores de los que el agente soporta.
+ * Se registra en {@code junit-platform.properties}.
+ *
+ * @author David
+ */
+public class ConfigParallelismStrategy implements ParallelExecutionConfigurationStrategy {
+
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+        return new FixedParallelism(ConfigManager.getParallelism());
+    }
+
+    private record FixedParallelism(int parallelism) implements ParallelExecutionConfiguration {
+
+        @Override
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        @Override
+        public int getMinimumRunnable() {
+            return parallelism;
+        }
+
+        @Override
+        public int getMaxPoolSize() {
+            return parallelism;
+        }
+
+        @Override
+        public int getCorePoolSize() {
+            return parallelism;
+        }
+
+        @Override
+        public int getKeepAliveSeconds() {
+            return 30;
+        }
+
+        @Override
+        public Predicate<? super ForkJoinPool> getSaturatePredicate() {
+            return pool -> true;
+        }
+    }
+}
@@ -1,55 +1,152 @@
 package co.empresa.qa.automation.infrastructure;
 
 import co.empresa.qa.automation.config.ConfigManager;
+import co.empresa.qa.automation.utils.LocatorRegistry;
 import com.codeborne.selenide.Configuration;
-import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.SelenideConfig;
+import com.codeborne.selenide.SelenideDriver;
+import com.codeborne.selenide.WebDriverRunner;
+import org.openqa.selenium.support.events.WebDriverListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Gestor centralizado de la configuración e inicialización del navegador mediante Selenide.
  * Aplica ajustes desde {@code ConfigManager} (tiempos, navegador, modo headless, etc.)
  * y expone métodos estáticos para abrir y cerrar el driver sin exponer el WebDriver directamente.
+ * En modo pool ({@code browser.pool.enabled}) toma los navegadores de {@link BrowserPool} en lugar de abrir uno por prueba.
+ * <p>
+ * Es seguro para ejecución en paralelo: cada hilo tiene su propio {@link SelenideDriver}, asociado además a la
+ * API estática de Selenide ({@code $()}, {@code open()}) del mismo hilo, envuelto por {@link CircuitBreaker}.
+ * La {@link Configuration} global solo se escribe una vez, al cargar la clase, y a partir de ahí es de solo lectura.
  *
  * @author David
  */
 
 public class DriverManager {
     private static final Logger log = LoggerFactory.getLogger(DriverManager.class);
+    private static final ThreadLocal<SelenideDriver> CURRENT = new ThreadLocal<>();
 
-    private DriverManager() {
-        // Utilidad: no instanciable
-    }
-
-    public static void initDriver() {
+    static {
         Configuration.browser = ConfigManager.getBrowser();
         Configuration.browserSize = "maximize";
         Configuration.timeout = ConfigManager.getElementTimeout() * 1000;
         Configuration.pageLoadTimeout = ConfigManager.getPageTimeout() * 1000;
         Configuration.savePageSource = false; // Reduce ruido en allure
         Configuration.screenshots = true;
-        Configuration.savePageSource = false;
         Configuration.reportsFolder = "target/allure-results";
         Configuration.baseUrl = ConfigManager.getBaseUrl(); // para usar Selenide.open() sin URL
-        Configuration.reportsFolder = "target/allure-results";
         Configuration.fastSetValue = true; // mejora velocidad en inputs
 
         // Headless si se configura así (CI)
         if ("headless".equalsIgnoreCase(ConfigManager.getBrowser())) {
             Configuration.headless = true;
         }
+    }
 
+    private DriverManager() {
+        // Utilidad: no instanciable
+    }
+
+    /**
+     * Prepara un driver exclusivo para el hilo actual. El navegador se abre en {@link #openBaseUrl()}.
+     */
+    public static void initDriver() {
+        CircuitBreaker.reset();
+        CURRENT.set(newDriver());
         log.info("🔧 WebDriver inicializado: browser={}, headless={}",
                 ConfigManager.getBrowser(), Configuration.headless);
     }
 
+    /**
+     * Driver del hilo actual (el propio o el tomado del pool).
+     */
+    public static SelenideDriver current() {
+        SelenideDriver driver = CURRENT.get();
+        if (driver == null) {
+            throw new IllegalStateException("No hay driver inicializado en el hilo " + Thread.currentThread().getName());
+        }
+        return driver;
+    }
+
+    /**
+     * Toma un navegador caliente del pool y lo asocia al hilo actual, de modo que
+     * {@code $()}, {@code open()} y demás API estática de Selenide operen sobre él.
+     */
+    public static BrowserPool.PooledBrowser acquirePooledDriver() {
+        BrowserPool.PooledBrowser browser = BrowserPool.getInstance().acquire();
+        CircuitBreaker.reset();
+        bind(browser.driver());
+        log.info("♨️ Navegador del pool asignado (uso #{})", browser.uses());
+        return browser;
+    }
+
+    public static void releasePooledDriver(BrowserPool.PooledBrowser browser, boolean failed) {
+        CURRENT.remove();
+        CircuitBreaker.reset();
+        BrowserPool.getInstance().release(browser, failed);
+    }
+
+    /**
+     * Driver nuevo (sin abrir aún el navegador) con el contador de comandos de {@link StepMetrics}, la invalidación
+     * de {@link LocatorRegistry} al navegar y, si está activo, el {@link WebDriverProfiler}.
+     */
+    static SelenideDriver newDriver() {
+        List<WebDriverListener> listeners = new ArrayList<>();
+        listeners.add(StepMetrics.commandListener());
+        listeners.add(LocatorRegistry.navigationListener());
+        if (WebDriverProfiler.isEnabled()) {
+            listeners.add(WebDriverProfiler.listener());
+        }
+        return new SelenideDriver(browserConfig(), listeners);
+    }
+
+    /**
+     * Configuración por navegador, equivalente a la {@link Configuration} global.
+     */
+    static SelenideConfig browserConfig() {
+        return new SelenideConfig()
+                .browser(ConfigManager.getBrowser())
+                .browserSize("maximize")
+                .timeout(ConfigManager.getElementTimeout() * 1000)
+                .pageLoadTimeout(ConfigManager.getPageTimeout() * 1000)
+                .savePageSource(false)
+                .screenshots(true)
+                .reportsFolder("target/allure-results")
+                .baseUrl(ConfigManager.getBaseUrl())
+                .fastSetValue(true)
+                .headless("headless".equalsIgnoreCase(ConfigManager.getBrowser()));
+    }
+
     public static void openBaseUrl() {
-        log.info("🌐 Abriendo URL: {}", ConfigManager.getBaseUrl());
-        Selenide.open(ConfigManager.getBaseUrl());
+        openUrl(ConfigManager.getBaseUrl());
+    }
+
+    /**
+     * Abre la URL en el driver del hilo actual (iniciando el navegador si hace falta).
+     */
+    public static void openUrl(String url) {
+        log.info("🌐 Abriendo URL: {}", url);
+        SelenideDriver driver = current();
+        driver.open(url);
+        bind(driver);
     }
 
     public static void quitDriver() {
         log.info("🛑 Cerrando navegador");
-        Selenide.closeWebDriver();
+        SelenideDriver driver = CURRENT.get();
+        CURRENT.remove();
+        CircuitBreaker.reset();
+        if (driver != null) {
+            driver.close();
+        }
+    }
+
+    private static void bind(SelenideDriver driver) {
+        CURRENT.set(driver);
+        WebDriverRunner.setWebDriver(CircuitBreaker.guard(driver.getWebDriver()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package co.empresa.qa.automation.infrastructure;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * Orden de ejecución por duración histórica ({@link TestDurations}), de la más larga a la más corta, para clases y
+ * métodos. Con varios hilos el trabajo largo arranca primero y los hilos que quedan libres al final toman las pruebas
+ * cortas (LPT): la ejecución no termina esperando a un {@code AffiliateCreationTest} que empezó el último.
+ * Las pruebas sin historial se estiman por lo alto (ver {@link TestDurations#estimate}) y arrancan entre las primeras.
+ * <p>
+ * Se registra como orden por defecto en {@code junit-platform.properties}; una clase con {@code @TestMethodOrder}
+ * propio lo sigue respetando. {@link DurationRecorder} escribe lo medido en {@code metrics.dir} y compara el makespan
+ * previsto con el real.
+ * <p>
+ * El orden solo decide qué método se lanza primero: los métodos de una clase siguen corriendo en paralelo
+ * ({@link #getDefaultExecutionMode()}).
+ *
+ * @author David
+ */
+public class DurationOrderer implements ClassOrderer, MethodOrderer {
+
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        TestDurations durations = TestDurations.load();
+        context.getClassDescriptors().sort(Comparator.comparingLong(
+                (ClassDescriptor descriptor) -> durations.estimateClass(descriptor.getTestClass().getName())).reversed());
+    }
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        TestDurations durations = TestDurations.load();
+        String className = context.getTestClass().getName();
+        context.getMethodDescriptors().sort(Comparator.comparingLong((MethodDescriptor descriptor) ->
+                durations.estimate(TestDurations.id(className, descriptor.getMethod().getName()))).reversed());
+    }
+
+    /**
+     * Sin modo propio: por defecto un {@code MethodOrderer} fuerza {@code SAME_THREAD} y serializaría los métodos de
+     * cada clase, anulando {@code parallel.mode.default=concurrent}.
+     */
+    @Override
+    public Optional<ExecutionMode> getDefaultExecutionMode() {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,125 @@
+package co.empresa.qa.automation.infrastructure;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mide cada prueba ejecutada y, al terminar la ejecución, compara el makespan previsto por el historial
+ * ({@link TestDurations}, el que usó {@link DurationOrderer}) con el real, y deja el historial con lo medido en {@code metrics.dir}.
+ * El reporte queda en el log y en {@code makespan.txt} dentro de {@code metrics.dir}.
+ * <p>
+ * Es un {@code TestExecutionListener} del launcher (ver {@code META-INF/services}) y no un hook de
+ * {@code DriverHooks}, para medir también las pruebas sin navegador. Las invocaciones de un método parametrizado se
+ * suman; las pruebas omitidas o abortadas no se registran. El historial con lo medido se escribe en
+ * {@code test-durations.properties} dentro de {@code metrics.dir}, nunca sobre el versionado: ese solo lo actualiza
+ * {@code ShardMerger}, para que todos los shards lean el mismo. Con shards no escribe nada: lo hace
+ * {@code ShardMerger} con los resultados de todos.
+ *
+ * @author David
+ */
+public class DurationRecorder implements TestExecutionListener {
+    private static final Logger log = LoggerFactory.getLogger(DurationRecorder.class);
+    private static final String REPORT_FILE = "makespan.txt";
+    private static final String HISTORY_FILE = "test-durations.properties";
+
+    private final Map<String, Long> starts = new ConcurrentHashMap<>();
+    private final Map<String, Long> measured = new ConcurrentHashMap<>();
+    private TestDurations history;
+    private long planStart;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        history = TestDurations.load();
+        starts.clear();
+        measured.clear();
+        planStart = System.nanoTime();
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier test) {
+        if (test.isTest()) {
+            starts.put(test.getUniqueId(), System.nanoTime());
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier test, TestExecutionResult result) {
+        Long start = starts.remove(test.getUniqueId());
+        if (start == null || result.getStatus() == TestExecutionResult.Status.ABORTED
+                || !(test.getSource().orElse(null) instanceof MethodSource method)) {
+            return;
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        measured.merge(TestDurations.id(method.getClassName(), method.getMethodName()), millis, Long::sum);
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (measured.isEmpty()) {
+            return;
+        }
+        long actual = (System.nanoTime() - planStart) / 1_000_000;
+        int workers = ConfigManager.getParallelism();
+        Map<String, Long> predicted = new ConcurrentHashMap<>();
+        measured.keySet().forEach(id -> predicted.put(id, history.estimate(id)));
+
+        String report = String.join(System.lineSeparator(),
+                String.format(Locale.ROOT, "%d pruebas en %d hilos", measured.size(), workers),
+                String.format(Locale.ROOT, "makespan previsto (historial, LPT): %8.1f s", makespan(predicted.values(), workers) / 1000.0),
+                String.format(Locale.ROOT, "makespan real:                      %8.1f s", actual / 1000.0),
+                String.format(Locale.ROOT, "óptimo con lo medido (LPT):         %8.1f s", makespan(measured.values(), workers) / 1000.0),
+                String.format(Locale.ROOT, "suma de pruebas:                    %8.1f s",
+                        measured.values().stream().mapToLong(Long::longValue).sum() / 1000.0));
+        log.info("⏱️ Makespan de la ejecución:{}{}", System.lineSeparator(), report);
+        Path reportFile = Path.of(ConfigManager.getMetricsDir(), REPORT_FILE);
+        try {
+            Files.createDirectories(reportFile.getParent());
+            Files.writeString(reportFile, report);
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudo escribir {}: {}", reportFile, e.getMessage());
+        }
+
+        if (ConfigManager.isTestDurationRecording() && ConfigManager.getShardCount() <= 1) {
+            measured.forEach(history::record);
+            history.store(Path.of(ConfigManager.getMetricsDir(), HISTORY_FILE));
+        }
+    }
+
+    /**
+     * Fin del último hilo si las pruebas se lanzan de la más larga a la más corta y cada una la toma el primer hilo libre.
+     */
+    private static long makespan(Collection<Long> durations, int workers) {
+        List<Long> ordered = durations.stream().sorted(Comparator.reverseOrder()).toList();
+        long[] loads = new long[Math.max(1, workers)];
+        for (long duration : ordered) {
+            int lightest = 0;
+            for (int worker = 1; worker < loads.length; worker++) {
+                if (loads[worker] < loads[lightest]) {
+                    lightest = worker;
+                }
+            }
+            loads[lightest] += duration;
+        }
+        long max = 0;
+        for (long load : loads) {
+            max = Math.max(max, load);
+        }
+        return max;
+    }
+}
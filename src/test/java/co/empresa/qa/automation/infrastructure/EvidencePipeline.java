@@ -0,0 +1,273 @@
+package co.empresa.qa.automation.infrastructure;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.codeborne.selenide.Selenide.webdriver;
+
+/**
+ * Evidencia de Allure fuera del hilo de la prueba. En el hilo de la prueba solo se toman los bytes crudos
+ * (screenshot PNG y, si falló, el page source) y se registra el adjunto en la prueba actual; la conversión a JPEG
+ * con tamaño máximo y la escritura en {@code allure-results} se hacen en segundo plano. El formato se decide antes de
+ * registrar el adjunto, para que su tipo y extensión coincidan con los bytes: un PNG que ya cabe en
+ * {@code evidence.maxKb} se adjunta tal cual (sin pérdida y sin coste de conversión), el resto en JPEG.
+ * <p>
+ * Política ({@code evidence.policy}): {@code always} (screenshot en todas las pruebas), {@code on-failure}
+ * (solo en las fallidas) o {@code sampled} (fallidas y una fracción {@code evidence.sampleRate} de las exitosas,
+ * elegida por el id de la prueba para que sea estable entre ejecuciones). Las fallidas siempre llevan evidencia.
+ * Al terminar la JVM se espera a que se escriba toda la evidencia pendiente y se registra cuánto tiempo por prueba
+ * se sacó del hilo de la prueba.
+ *
+ * @author David
+ */
+public final class EvidencePipeline {
+    private static final Logger log = LoggerFactory.getLogger(EvidencePipeline.class);
+    private static final long FLUSH_TIMEOUT_SECONDS = 60;
+    private static final int MAX_PENDING = 64;
+    private static final float MIN_QUALITY = 0.4f;
+
+    private static final EvidencePipeline INSTANCE = new EvidencePipeline(
+            ConfigManager.getEvidencePolicy(),
+            ConfigManager.getEvidenceSampleRate(),
+            ConfigManager.getEvidenceJpegQuality(),
+            ConfigManager.getEvidenceMaxKb() * 1024
+    );
+
+    public enum Policy {ALWAYS, ON_FAILURE, SAMPLED}
+
+    private final Policy policy;
+    private final double sampleRate;
+    private final float jpegQuality;
+    private final int maxBytes;
+    private final ThreadPoolExecutor writer;
+
+    private final AtomicInteger tests = new AtomicInteger();
+    private final AtomicInteger captured = new AtomicInteger();
+    private final AtomicLong testThreadNanos = new AtomicLong();
+    private final AtomicLong deferredNanos = new AtomicLong();
+    private final AtomicLong rawBytes = new AtomicLong();
+    private final AtomicLong writtenBytes = new AtomicLong();
+
+    private EvidencePipeline(String policy, double sampleRate, float jpegQuality, int maxBytes) {
+        this.policy = Policy.valueOf(policy.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        this.sampleRate = sampleRate;
+        this.jpegQuality = jpegQuality;
+        this.maxBytes = maxBytes;
+        AtomicInteger counter = new AtomicInteger();
+        // Cola acotada: si la escritura se atrasa, el hilo de la prueba la hace él mismo en lugar de acumular memoria
+        this.writer = new ThreadPoolExecutor(
+                1, Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(MAX_PENDING),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "evidence-writer-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "evidence-flush"));
+        log.info("🖼️ Evidencia: policy={}, sampleRate={}, jpegQuality={}, maxKb={}",
+                this.policy, sampleRate, jpegQuality, maxBytes / 1024);
+    }
+
+    public static EvidencePipeline getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Captura la evidencia de la prueba actual según la política. Debe llamarse en el hilo de la prueba y antes de
+     * liberar el navegador.
+     */
+    public void capture(String testId, boolean failed) {
+        tests.incrementAndGet();
+        if (!shouldCapture(testId, failed)) {
+            return;
+        }
+        long start = System.nanoTime();
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+
+        byte[] png = screenshot();
+        if (png.length > 0) {
+            String name = failed ? "Fallo detectado" : "Resultado exitoso";
+            if (png.length <= maxBytes) {
+                String source = lifecycle.prepareAttachment(name, "image/png", ".png");
+                submit(() -> write(lifecycle, source, png), png.length);
+            } else {
+                String source = lifecycle.prepareAttachment(name, "image/jpeg", ".jpg");
+                submit(() -> write(lifecycle, source, toJpeg(png)), png.length);
+            }
+        }
+        if (failed) {
+            byte[] html = pageSource();
+            if (html.length > 0) {
+                String source = lifecycle.prepareAttachment("Page source", "text/html", ".html");
+                submit(() -> write(lifecycle, source, html), html.length);
+            }
+        }
+        captured.incrementAndGet();
+        testThreadNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    private boolean shouldCapture(String testId, boolean failed) {
+        return switch (policy) {
+            case ALWAYS -> true;
+            case ON_FAILURE -> failed;
+            case SAMPLED -> failed || Math.floorMod(testId.hashCode(), 10_000) < sampleRate * 10_000;
+        };
+    }
+
+    private void submit(Runnable task, int size) {
+        rawBytes.addAndGet(size);
+        writer.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warn("⚠️ No se pudo escribir evidencia: {}", e.getMessage());
+            } finally {
+                deferredNanos.addAndGet(System.nanoTime() - start);
+            }
+        });
+    }
+
+    private void write(AllureLifecycle lifecycle, String source, byte[] content) {
+        lifecycle.writeAttachment(source, new ByteArrayInputStream(content));
+        writtenBytes.addAndGet(content.length);
+    }
+
+    /**
+     * PNG a JPEG: baja la calidad hasta {@link #MIN_QUALITY} y, si aún supera {@code evidence.maxKb}, reduce la
+     * resolución. El adjunto ya está registrado como JPEG: si la conversión falla no se escriben los bytes PNG
+     * bajo ese tipo, se registra el error.
+     */
+    private byte[] toJpeg(byte[] png) {
+        try {
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(png));
+            if (decoded == null) {
+                throw new IllegalStateException("El screenshot no es una imagen legible");
+            }
+            BufferedImage image = toRgb(decoded);
+            float quality = jpegQuality;
+            byte[] jpeg = encodeJpeg(image, quality);
+            while (jpeg.length > maxBytes && image.getWidth() > 320) {
+                if (quality > MIN_QUALITY) {
+                    quality = Math.max(MIN_QUALITY, quality - 0.15f);
+                } else {
+                    image = scale(image, 0.75);
+                }
+                jpeg = encodeJpeg(image, quality);
+            }
+            return jpeg;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo comprimir el screenshot", e);
+        }
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter jpegWriter = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = jpegWriter.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            jpegWriter.setOutput(stream);
+            jpegWriter.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            jpegWriter.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * JPEG no admite canal alfa: los screenshots de Chrome vienen en ARGB.
+     */
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        graphics.drawImage(image, 0, 0, Color.WHITE, null);
+        graphics.dispose();
+        return rgb;
+    }
+
+    private static BufferedImage scale(BufferedImage image, double factor) {
+        int width = (int) (image.getWidth() * factor);
+        int height = (int) (image.getHeight() * factor);
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+        return scaled;
+    }
+
+    private static byte[] screenshot() {
+        try {
+            return ((TakesScreenshot) webdriver().object()).getScreenshotAs(OutputType.BYTES);
+        } catch (Exception e) {
+            log.warn("⚠️ No se pudo tomar screenshot: {}", e.getMessage());
+            return new byte[0];
+        }
+    }
+
+    private static byte[] pageSource() {
+        try {
+            return webdriver().object().getPageSource().getBytes(StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            log.warn("⚠️ No se pudo obtener page source: {}", e.getMessage());
+            return new byte[0];
+        }
+    }
+
+    /**
+     * Espera la evidencia pendiente (gancho de cierre de la JVM) y registra el resumen de la ejecución.
+     */
+    private void flush() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("⚠️ Evidencia sin escribir tras {}s: {} pendientes", FLUSH_TIMEOUT_SECONDS, writer.getQueue().size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int total = tests.get();
+        if (total == 0) {
+            return;
+        }
+        log.info("🖼️ Evidencia: {} de {} pruebas capturadas, {} ms/prueba en el hilo de prueba, "
+                        + "{} ms/prueba diferidos a segundo plano, {} KB crudos -> {} KB escritos",
+                captured.get(), total,
+                String.format(Locale.ROOT, "%.1f", testThreadNanos.get() / 1e6 / total),
+                String.format(Locale.ROOT, "%.1f", deferredNanos.get() / 1e6 / total),
+                rawBytes.get() / 1024, writtenBytes.get() / 1024);
+    }
+}
@@ -0,0 +1,170 @@
+package co.empresa.qa.automation.infrastructure;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.commons.support.HierarchyTraversalMode;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reparte las pruebas entre {@code shard.count} JVMs o agentes y deja en esta ejecución solo las del shard
+ * {@code shard.index}. Todos los shards leen el mismo historial ({@link TestDurations}) y asignan cada unidad, de la
+ * más larga a la más corta, al shard con menos carga estimada (LPT): así terminan a la par aunque las clases duren muy
+ * distinto. Las pruebas que aún no están en el historial van a un shard fijo según el hash de su nombre.
+ * <p>
+ * El reparto sale del historial y no del árbol descubierto porque Surefire descubre las clases de una en una: cada
+ * llamada al filtro solo ve una clase, y el resultado debe ser el mismo en todos los shards.
+ * <p>
+ * La unidad de reparto es el método de prueba; un {@code @ParameterizedTest} va completo a un shard. Las clases con
+ * {@code @BeforeAll}/{@code @AfterAll}, {@code PER_CLASS} o {@code @TestMethodOrder} van completas, para no repetir
+ * su preparación en cada shard ni romper su orden.
+ * <p>
+ * Cada shard registra la huella del historial que usó ({@link TestDurations#fingerprint()}) en el log y en
+ * {@code history-fingerprint.txt} dentro de {@code metrics.dir}; {@code ShardMerger} falla si no coinciden.
+ * <p>
+ * JUnit lo carga por {@code META-INF/services}; con {@code shard.count=1} no filtra nada.
+ *
+ * @author David
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+    private static final Logger log = LoggerFactory.getLogger(ShardFilter.class);
+    static final String FINGERPRINT_FILE = "history-fingerprint.txt";
+
+    private final Map<Class<?>, Boolean> splittable = new ConcurrentHashMap<>();
+    private Map<String, Integer> assignment;
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        int count = ConfigManager.getShardCount();
+        if (count <= 1) {
+            return FilterResult.included("Sin shards");
+        }
+        int index = ConfigManager.getShardIndex();
+        if (index < 0 || index >= count) {
+            throw new IllegalStateException("❌ shard.index=" + index + " fuera de rango para shard.count=" + count);
+        }
+
+        Optional<String> unit = unitOf(descriptor);
+        if (unit.isEmpty()) {
+            return FilterResult.included("Contenedor");
+        }
+        int shard = shardOf(unit.get(), count, index);
+        return shard == index
+                ? FilterResult.included("Shard " + index)
+                : FilterResult.excluded("Asignada al shard " + shard);
+    }
+
+    /**
+     * Unidad a la que pertenece el descriptor: la clase si va completa, {@code clase#método} si se reparte por método.
+     */
+    private Optional<String> unitOf(TestDescriptor descriptor) {
+        Object source = descriptor.getSource().orElse(null);
+        if (source instanceof MethodSource method) {
+            return Optional.of(isSplittable(method.getJavaClass())
+                    ? TestDurations.id(method.getClassName(), method.getMethodName())
+                    : method.getClassName());
+        }
+        if (source instanceof ClassSource type && !isSplittable(type.getJavaClass())) {
+            return Optional.of(type.getClassName());
+        }
+        return Optional.empty();
+    }
+
+    private synchronized int shardOf(String unit, int count, int index) {
+        if (assignment == null) {
+            assignment = partition(count, index);
+        }
+        Integer shard = assignment.get(unit);
+        return shard != null ? shard : Math.floorMod(unit.hashCode(), count);
+    }
+
+    /**
+     * LPT sobre las unidades del historial, en orden determinista (duración descendente y luego nombre).
+     */
+    private Map<String, Integer> partition(int count, int index) {
+        TestDurations durations = TestDurations.load();
+        Map<String, Long> units = new TreeMap<>();
+        for (String id : durations.ids()) {
+            String className = id.substring(0, id.indexOf('#'));
+            Class<?> testClass;
+            try {
+                testClass = Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+            } catch (ClassNotFoundException e) {
+                continue; // prueba eliminada: sigue en el historial hasta que se limpie
+            }
+            units.merge(isSplittable(testClass) ? id : className, durations.estimate(id), Long::sum);
+        }
+        List<Map.Entry<String, Long>> ordered = new ArrayList<>(units.entrySet());
+        ordered.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, Integer> assigned = new HashMap<>();
+        long[] loads = new long[count];
+        for (Map.Entry<String, Long> unit : ordered) {
+            int lightest = 0;
+            for (int shard = 1; shard < count; shard++) {
+                if (loads[shard] < loads[lightest]) {
+                    lightest = shard;
+                }
+            }
+            loads[lightest] += unit.getValue();
+            assigned.put(unit.getKey(), lightest);
+        }
+
+        StringBuilder all = new StringBuilder();
+        for (int shard = 0; shard < count; shard++) {
+            all.append(shard == 0 ? "" : " / ").append(minutes(loads[shard]));
+        }
+        long mine = assigned.values().stream().filter(shard -> shard == index).count();
+        String fingerprint = durations.fingerprint();
+        log.info("🧩 Shard {}/{}: {} de {} unidades del historial {}, {} min estimados (todos: {} min)",
+                index + 1, count, mine, ordered.size(), fingerprint, minutes(loads[index]), all);
+        Path fingerprintFile = Path.of(ConfigManager.getMetricsDir(), FINGERPRINT_FILE);
+        try {
+            Files.createDirectories(fingerprintFile.getParent());
+            Files.writeString(fingerprintFile, fingerprint);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo registrar la huella del historial en " + fingerprintFile, e);
+        }
+        return assigned;
+    }
+
+    /**
+     * Sin estado compartido entre sus métodos: se puede repartir por método.
+     */
+    private boolean isSplittable(Class<?> testClass) {
+        return splittable.computeIfAbsent(testClass, type ->
+                AnnotationSupport.findAnnotatedMethods(type, BeforeAll.class, HierarchyTraversalMode.TOP_DOWN).isEmpty()
+                        && AnnotationSupport.findAnnotatedMethods(type, AfterAll.class, HierarchyTraversalMode.TOP_DOWN).isEmpty()
+                        && !AnnotationSupport.isAnnotated(type, TestMethodOrder.class)
+                        && AnnotationSupport.findAnnotation(type, TestInstance.class)
+                        .map(instance -> instance.value() != TestInstance.Lifecycle.PER_CLASS)
+                        .orElse(true));
+    }
+
+    private static String minutes(long millis) {
+        return String.format(Locale.ROOT, "%.1f", millis / 60_000.0);
+    }
+}
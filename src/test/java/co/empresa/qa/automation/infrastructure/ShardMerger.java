@@ -0,0 +1,167 @@
+package co.empresa.qa.automation.infrastructure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Une los resultados de una ejecución repartida en shards ({@link ShardFilter}). Cada shard deja su salida en
+ * {@code target/shards/<índice>/} ({@code allure-results}, {@code metrics} y {@code surefire-reports}, ver el perfil
+ * {@code shard} del pom); con los directorios de todos los agentes copiados ahí, este paso:
+ * <ul>
+ *   <li>copia los resultados de Allure de todos los shards a {@code target/allure-results} (un solo reporte),</li>
+ *   <li>combina las muestras de {@link StepMetrics} en {@code target/metrics/step-metrics.json} y concatena los
+ *       perfiles de {@link WebDriverProfiler},</li>
+ *   <li>comprueba que todos los shards se repartieron con el mismo historial (la huella que registró
+ *       {@link ShardFilter}) y falla si no,</li>
+ *   <li>actualiza {@link TestDurations} con la duración de cada prueba según Surefire, para el próximo reparto: es el
+ *       único paso que modifica el historial versionado,</li>
+ *   <li>escribe en {@code target/metrics/shards.txt} la carga real de cada shard.</li>
+ * </ul>
+ * Se ejecuta con {@code mvn -Pmerge-shards verify}.
+ *
+ * @author David
+ */
+public final class ShardMerger {
+    private static final Logger log = LoggerFactory.getLogger(ShardMerger.class);
+
+    private ShardMerger() {
+        // Utilidad: no instanciable
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path shardsDir = Path.of(args.length > 0 ? args[0] : "target/shards");
+        Path target = shardsDir.toAbsolutePath().getParent();
+        List<Path> shards;
+        try (Stream<Path> children = Files.list(shardsDir)) {
+            shards = children.filter(Files::isDirectory).sorted().toList();
+        }
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("❌ No hay shards que unir en " + shardsDir);
+        }
+        checkFingerprints(shards);
+
+        int copied = 0;
+        for (Path shard : shards) {
+            copied += copyFiles(shard.resolve("allure-results"), target.resolve("allure-results"));
+        }
+        log.info("🧩 {} archivos de Allure de {} shards copiados a {}", copied, shards.size(), target.resolve("allure-results"));
+
+        Path metrics = target.resolve("metrics");
+        StepMetrics.merge(shards.stream().map(shard -> shard.resolve("metrics")).toList(), metrics);
+        mergeProfiles(shards, metrics.resolve(WebDriverProfiler.REPORT_FILE));
+
+        TestDurations durations = TestDurations.load();
+        List<String> summary = new ArrayList<>();
+        summary.add(String.format(Locale.ROOT, "%-10s %8s %12s", "shard", "pruebas", "suma (min)"));
+        for (Path shard : shards) {
+            Map<String, Long> tests = surefireDurations(shard.resolve("surefire-reports"));
+            tests.forEach(durations::record);
+            long total = tests.values().stream().mapToLong(Long::longValue).sum();
+            summary.add(String.format(Locale.ROOT, "%-10s %8d %12.1f", shard.getFileName(), tests.size(), total / 60_000.0));
+        }
+        durations.store();
+
+        String content = String.join(System.lineSeparator(), summary);
+        Files.createDirectories(metrics);
+        Files.writeString(metrics.resolve("shards.txt"), content);
+        log.info("🧩 Carga por shard:{}{}", System.lineSeparator(), content);
+    }
+
+    /**
+     * Todos los shards deben haber leído el mismo historial: con historiales distintos el reparto no coincide y hay
+     * pruebas omitidas o repetidas.
+     */
+    private static void checkFingerprints(List<Path> shards) throws IOException {
+        Map<String, String> fingerprints = new LinkedHashMap<>();
+        for (Path shard : shards) {
+            Path file = shard.resolve("metrics").resolve(ShardFilter.FINGERPRINT_FILE);
+            fingerprints.put(shard.getFileName().toString(), Files.exists(file) ? Files.readString(file).trim() : "?");
+        }
+        if (fingerprints.values().stream().distinct().count() > 1) {
+            throw new IllegalStateException("❌ Los shards se repartieron con historiales de duración distintos "
+                    + fingerprints + ": hay pruebas omitidas o repetidas. Ejecutar todos con el mismo "
+                    + "test-durations.properties versionado");
+        }
+        log.info("🧩 Historial de duraciones común a los {} shards: {}", shards.size(), fingerprints.values().iterator().next());
+    }
+
+    private static int copyFiles(Path from, Path to) throws IOException {
+        if (!Files.isDirectory(from)) {
+            return 0;
+        }
+        Files.createDirectories(to);
+        int copied = 0;
+        try (Stream<Path> files = Files.list(from)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.copy(file, to.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                copied++;
+            }
+        }
+        return copied;
+    }
+
+    private static void mergeProfiles(List<Path> shards, Path merged) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (Path shard : shards) {
+            Path profile = shard.resolve("metrics").resolve(WebDriverProfiler.REPORT_FILE);
+            if (Files.exists(profile)) {
+                text.append("===== Shard ").append(shard.getFileName()).append(" =====").append(System.lineSeparator())
+                        .append(Files.readString(profile)).append(System.lineSeparator());
+            }
+        }
+        if (!text.isEmpty()) {
+            Files.createDirectories(merged.getParent());
+            Files.writeString(merged, text);
+        }
+    }
+
+    /**
+     * Duración en ms por {@code clase#método} de las pruebas ejecutadas (no omitidas) de un shard. Las invocaciones
+     * de un mismo método parametrizado se suman: el método es la unidad de reparto.
+     */
+    private static Map<String, Long> surefireDurations(Path reports) throws IOException {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        if (!Files.isDirectory(reports)) {
+            return durations;
+        }
+        List<Path> files;
+        try (Stream<Path> children = Files.list(reports)) {
+            files = children.filter(file -> file.getFileName().toString().matches("TEST-.*\\.xml")).sorted().toList();
+        }
+        try {
+            DocumentBuilder parser = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            for (Path file : files) {
+                NodeList cases = parser.parse(file.toFile()).getElementsByTagName("testcase");
+                for (int i = 0; i < cases.getLength(); i++) {
+                    Element testCase = (Element) cases.item(i);
+                    if (testCase.getElementsByTagName("skipped").getLength() > 0) {
+                        continue;
+                    }
+                    String method = testCase.getAttribute("name").replaceAll("[(\\[].*$", "");
+                    long millis = Math.round(Double.parseDouble(testCase.getAttribute("time")) * 1000);
+                    durations.merge(TestDurations.id(testCase.getAttribute("classname"), method), millis, Long::sum);
+                }
+            }
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IllegalStateException("❌ Reporte de Surefire ilegible en " + reports, e);
+        }
+        return durations;
+    }
+}
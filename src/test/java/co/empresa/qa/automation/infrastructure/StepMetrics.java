@@ -0,0 +1,347 @@
+package co.empresa.qa.automation.infrastructure;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.LogEventListener;
+import com.codeborne.selenide.logevents.SelenideLogger;
+import io.qameta.allure.Allure;
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.listener.TestLifecycleListener;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Instrumentación por paso de Allure ({@code @Step}): para cada paso mide tiempo de pared, comandos WebDriver
+ * enviados y tiempo en esperas (esperas {@code should*}/{@code wait*} de Selenide y {@code PrimeFacesAjax}).
+ * Adjunta a cada prueba de Allure una tabla con sus pasos y, al terminar la JVM, escribe
+ * {@code step-metrics.json} con p50/p95/p99 por paso de toda la ejecución en {@code metrics.dir}, junto con las
+ * muestras crudas ({@code step-samples.tsv}) con las que {@code ShardMerger} combina los shards.
+ * <p>
+ * Allure lo carga como {@code LifecycleListener} (ver {@code META-INF/services}); los comandos se cuentan con el
+ * {@link WebDriverListener} de {@link #commandListener()}, que {@code DriverManager} registra en cada navegador.
+ * Los valores de un paso incluyen los de sus subpasos. Requiere el weaver de AspectJ (configurado en Surefire).
+ *
+ * @author David
+ */
+public class StepMetrics implements StepLifecycleListener, TestLifecycleListener {
+    private static final Logger log = LoggerFactory.getLogger(StepMetrics.class);
+    private static final String METRICS_FILE = "step-metrics.json";
+    private static final String SAMPLES_FILE = "step-samples.tsv";
+    private static final String SELENIDE_LISTENER = "step-metrics";
+
+    private static final ThreadLocal<Counters> COUNTERS = ThreadLocal.withInitial(Counters::new);
+    private static final Map<String, TestSteps> TESTS = new ConcurrentHashMap<>();
+    private static final Map<String, Series> SERIES = new ConcurrentHashMap<>();
+    private static final AtomicInteger TESTS_MEASURED = new AtomicInteger();
+
+    private static final WebDriverListener COMMAND_COUNTER = new WebDriverListener() {
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            COUNTERS.get().commands++;
+        }
+    };
+
+    private static final LogEventListener WAIT_LISTENER = new LogEventListener() {
+        @Override
+        public void afterEvent(LogEvent event) {
+            String subject = event.getSubject();
+            if (subject != null && (subject.startsWith("should") || subject.startsWith("wait"))) {
+                COUNTERS.get().waitNanos += event.getDuration() * 1_000_000;
+            }
+        }
+
+        @Override
+        public void beforeEvent(LogEvent event) {
+        }
+    };
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(StepMetrics::writeMetricsFile, "step-metrics-writer"));
+    }
+
+    /**
+     * Listener que cuenta los comandos WebDriver del hilo que los envía.
+     */
+    public static WebDriverListener commandListener() {
+        return COMMAND_COUNTER;
+    }
+
+    /**
+     * Suma a los pasos en curso del hilo actual una espera explícita (p. ej. {@code PrimeFacesAjax.waitForIdle}).
+     */
+    public static void recordWait(long nanos) {
+        COUNTERS.get().waitNanos += nanos;
+    }
+
+    @Override
+    public void beforeTestStart(TestResult result) {
+        // Los listeners de SelenideLogger son por hilo: se registra en el hilo que ejecuta la prueba
+        if (!SelenideLogger.hasListener(SELENIDE_LISTENER)) {
+            SelenideLogger.addListener(SELENIDE_LISTENER, WAIT_LISTENER);
+        }
+        Counters counters = COUNTERS.get();
+        counters.open.clear();
+        counters.test = new TestSteps(counters.snapshot());
+        TESTS.put(result.getUuid(), counters.test);
+    }
+
+    @Override
+    public void beforeStepStart(StepResult result) {
+        Counters counters = COUNTERS.get();
+        if (counters.test != null) {
+            counters.open.push(new OpenStep(stepKey(), result.getName(), counters.open.size(), counters.snapshot()));
+        }
+    }
+
+    @Override
+    public void afterStepStop(StepResult result) {
+        Counters counters = COUNTERS.get();
+        OpenStep step = counters.open.poll();
+        if (step == null || counters.test == null) {
+            return;
+        }
+        Sample sample = step.start.until(counters.snapshot());
+        counters.test.steps.add(new MeasuredStep(step, sample));
+        SERIES.computeIfAbsent(step.key, key -> new Series()).add(sample);
+    }
+
+    @Override
+    public void beforeTestStop(TestResult result) {
+        TestSteps test = TESTS.remove(result.getUuid());
+        if (test == null) {
+            return;
+        }
+        Counters counters = COUNTERS.get();
+        Sample total = test.start.until(counters.snapshot());
+        if (counters.test == test) {
+            counters.test = null;
+        }
+        TESTS_MEASURED.incrementAndGet();
+
+        String source = UUID.randomUUID() + "-attachment.txt";
+        Allure.getLifecycle().writeAttachment(source,
+                new ByteArrayInputStream(test.summary(total).getBytes(StandardCharsets.UTF_8)));
+        result.getAttachments().add(new Attachment()
+                .setName("⏱️ Tiempos por paso")
+                .setType("text/plain")
+                .setSource(source));
+    }
+
+    /**
+     * Método anotado con {@code @Step}: el primer marco de la pila que no es de Allure, AspectJ ni de esta clase
+     * (el aspecto se teje dentro del propio método). Agrupa los pasos por método y no por nombre, que lleva
+     * los valores de los parámetros.
+     */
+    private static String stepKey() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> {
+                    String type = frame.getClassName();
+                    return !type.startsWith("io.qameta.allure") && !type.startsWith("org.aspectj")
+                            && !type.equals(StepMetrics.class.getName()) && !type.startsWith("java.");
+                })
+                .findFirst()
+                .map(frame -> {
+                    String type = frame.getClassName();
+                    String method = frame.getMethodName().replaceAll("_aroundBody\\d+.*$", "");
+                    return type.substring(type.lastIndexOf('.') + 1) + "." + method;
+                })
+                .orElse("desconocido"));
+    }
+
+    private static void writeMetricsFile() {
+        if (SERIES.isEmpty()) {
+            return;
+        }
+        write(Path.of(ConfigManager.getMetricsDir()), SERIES, TESTS_MEASURED.get());
+    }
+
+    /**
+     * Combina las muestras crudas de varios shards ({@code step-samples.tsv} de cada directorio de métricas) y
+     * escribe en {@code target} el {@code step-metrics.json} de toda la ejecución.
+     */
+    public static void merge(List<Path> shardDirs, Path target) {
+        Map<String, Series> series = new TreeMap<>();
+        int tests = 0;
+        for (Path dir : shardDirs) {
+            Path samples = dir.resolve(SAMPLES_FILE);
+            if (!Files.exists(samples)) {
+                continue;
+            }
+            try {
+                for (String line : Files.readAllLines(samples, StandardCharsets.UTF_8)) {
+                    String[] fields = line.split("\t");
+                    if (line.startsWith("#")) {
+                        tests += Integer.parseInt(fields[1]);
+                    } else {
+                        series.computeIfAbsent(fields[0], key -> new Series()).add(new Sample(
+                                Long.parseLong(fields[1]), Long.parseLong(fields[2]), Long.parseLong(fields[3])));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo leer " + samples, e);
+            }
+        }
+        if (!series.isEmpty()) {
+            write(target, series, tests);
+        }
+    }
+
+    private static void write(Path dir, Map<String, Series> series, int tests) {
+        StringBuilder json = new StringBuilder(4096);
+        json.append("{\n  \"generatedAt\": \"").append(Instant.now()).append("\",\n")
+                .append("  \"tests\": ").append(tests).append(",\n")
+                .append("  \"steps\": [");
+        StringBuilder samples = new StringBuilder(4096).append("#tests\t").append(tests).append('\n');
+        String separator = "\n";
+        for (Map.Entry<String, Series> entry : new TreeMap<>(series).entrySet()) {
+            json.append(separator);
+            entry.getValue().appendJson(entry.getKey(), json);
+            entry.getValue().appendTsv(entry.getKey(), samples);
+            separator = ",\n";
+        }
+        json.append("\n  ]\n}\n");
+        Path metricsFile = dir.resolve(METRICS_FILE);
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(metricsFile, json);
+            Files.writeString(dir.resolve(SAMPLES_FILE), samples);
+            log.info("⏱️ Métricas por paso escritas en {} ({} pasos)", metricsFile, series.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir " + metricsFile, e);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+    }
+
+    /**
+     * Contadores acumulados del hilo. Solo los modifica el propio hilo, así que no necesitan sincronización.
+     */
+    private static final class Counters {
+        private long commands;
+        private long waitNanos;
+        private final Deque<OpenStep> open = new ArrayDeque<>();
+        private TestSteps test;
+
+        Snapshot snapshot() {
+            return new Snapshot(System.nanoTime(), commands, waitNanos);
+        }
+    }
+
+    private record Snapshot(long nanos, long commands, long waitNanos) {
+        Sample until(Snapshot end) {
+            return new Sample(end.nanos - nanos, end.commands - commands, end.waitNanos - waitNanos);
+        }
+    }
+
+    private record Sample(long wallNanos, long commands, long waitNanos) {
+    }
+
+    private record OpenStep(String key, String name, int depth, Snapshot start) {
+    }
+
+    private record MeasuredStep(OpenStep step, Sample sample) {
+    }
+
+    private static final class TestSteps {
+        private final Snapshot start;
+        private final List<MeasuredStep> steps = Collections.synchronizedList(new ArrayList<>());
+
+        TestSteps(Snapshot start) {
+            this.start = start;
+        }
+
+        /**
+         * Tabla de pasos en orden de inicio, con sangría por nivel de anidamiento.
+         */
+        String summary(Sample total) {
+            List<MeasuredStep> ordered = new ArrayList<>(steps);
+            ordered.sort((a, b) -> Long.compare(a.step().start().nanos(), b.step().start().nanos()));
+            StringBuilder text = new StringBuilder();
+            text.append(String.format(Locale.ROOT, "%10s %9s %10s  %s%n", "pared ms", "comandos", "espera ms", "paso"));
+            for (MeasuredStep measured : ordered) {
+                Sample sample = measured.sample();
+                text.append(String.format(Locale.ROOT, "%10s %9d %10s  %s%s%n",
+                        millis(sample.wallNanos()), sample.commands(), millis(sample.waitNanos()),
+                        "  ".repeat(measured.step().depth()), measured.step().name()));
+            }
+            text.append(String.format(Locale.ROOT, "%10s %9d %10s  %s%n",
+                    millis(total.wallNanos()), total.commands(), millis(total.waitNanos()), "TOTAL prueba"));
+            return text.toString();
+        }
+    }
+
+    /**
+     * Muestras de un paso en toda la ejecución.
+     */
+    private static final class Series {
+        private final List<Sample> samples = new ArrayList<>();
+
+        synchronized void add(Sample sample) {
+            samples.add(sample);
+        }
+
+        synchronized void appendJson(String key, StringBuilder json) {
+            long[] wall = samples.stream().mapToLong(Sample::wallNanos).sorted().toArray();
+            long[] commands = samples.stream().mapToLong(Sample::commands).sorted().toArray();
+            long[] wait = samples.stream().mapToLong(Sample::waitNanos).sorted().toArray();
+            json.append("    {\"step\": \"").append(key.replace("\"", "\\\"")).append("\", \"count\": ")
+                    .append(samples.size())
+                    .append(", \"wallMs\": ").append(histogram(wall, 1e6))
+                    .append(", \"commands\": ").append(histogram(commands, 1))
+                    .append(", \"waitMs\": ").append(histogram(wait, 1e6))
+                    .append('}');
+        }
+
+        /**
+         * Una línea por muestra: paso, pared (ns), comandos y espera (ns), separados por tabuladores.
+         */
+        synchronized void appendTsv(String key, StringBuilder tsv) {
+            for (Sample sample : samples) {
+                tsv.append(key).append('\t').append(sample.wallNanos()).append('\t').append(sample.commands())
+                        .append('\t').append(sample.waitNanos()).append('\n');
+            }
+        }
+
+        private static String histogram(long[] sorted, double scale) {
+            return String.format(Locale.ROOT,
+                    "{\"p50\": %.1f, \"p95\": %.1f, \"p99\": %.1f, \"max\": %.1f, \"mean\": %.1f}",
+                    percentile(sorted, 50) / scale, percentile(sorted, 95) / scale, percentile(sorted, 99) / scale,
+                    sorted[sorted.length - 1] / scale, Arrays.stream(sorted).average().orElse(0) / scale);
+        }
+
+        /**
+         * Percentil por rango más cercano.
+         */
+        private static long percentile(long[] sorted, int percentile) {
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package co.empresa.qa.automation.infrastructure;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Historial de duración por método de prueba ({@code clase#método}, en ms), guardado en {@code test.durations}.
+ * Cada ejecución medida se mezcla con la anterior por media móvil exponencial, para que una ejecución anómala
+ * no desequilibre el reparto siguiente. Las pruebas sin historial se estiman por lo alto, con la mayor de las
+ * conocidas y al menos {@code test.durations.unknownMs}: suelen ser pruebas contra Savia que aún no se midieron, y
+ * lanzarlas al final es lo que el orden por duración quiere evitar.
+ * <p>
+ * Lo usan {@code ShardFilter} para repartir las pruebas entre shards y {@code DurationOrderer} para lanzar primero
+ * las más largas. El archivo se versiona con el proyecto y solo lo actualiza {@code ShardMerger} con los reportes de
+ * Surefire de todos los shards: así todos los agentes de una ejecución leen el mismo historial y calculan el mismo
+ * reparto ({@link #fingerprint()} lo comprueba). {@code DurationRecorder} escribe lo medido en cada ejecución en
+ * {@code metrics.dir}, sin tocar el versionado. Para refrescarlo tras una ejecución completa contra Savia sin shards:
+ * {@code mvn test -Dshard.count=1 && mvn -Pmerge-shards verify}, y confirmar el {@code test-durations.properties}
+ * resultante.
+ *
+ * @author David
+ */
+public final class TestDurations {
+    private static final Logger log = LoggerFactory.getLogger(TestDurations.class);
+
+    /**
+     * Peso de la ejecución nueva frente al historial.
+     */
+    private static final double ALPHA = 0.3;
+
+    private final Path file;
+    private final Map<String, Long> durations;
+    private final long unknownMs = ConfigManager.getTestDurationUnknownMs();
+
+    private TestDurations(Path file, Map<String, Long> durations) {
+        this.file = file;
+        this.durations = durations;
+    }
+
+    public static TestDurations load() {
+        return load(Path.of(ConfigManager.getTestDurations()));
+    }
+
+    public static TestDurations load(Path file) {
+        Map<String, Long> durations = new TreeMap<>();
+        if (Files.exists(file)) {
+            Properties history = new Properties();
+            try (var reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+                history.load(reader);
+            } catch (IOException e) {
+                log.warn("⚠️ No se pudo leer el historial de duraciones {}: {}", file, e.getMessage());
+            }
+            history.stringPropertyNames().forEach(id -> durations.put(id, Long.parseLong(history.getProperty(id))));
+        }
+        return new TestDurations(file, durations);
+    }
+
+    public static String id(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    /**
+     * Duración esperada en ms: la del historial o, si la prueba es nueva, la mayor de las conocidas y al menos
+     * {@code test.durations.unknownMs}.
+     */
+    public long estimate(String id) {
+        Long known = durations.get(id);
+        if (known != null) {
+            return known;
+        }
+        return Math.max(unknownMs, durations.values().stream().mapToLong(Long::longValue).max().orElse(0));
+    }
+
+    /**
+     * Suma de los métodos conocidos de la clase; sin ninguno, la estimación de una prueba nueva.
+     */
+    public long estimateClass(String className) {
+        String prefix = className + "#";
+        long[] known = durations.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .mapToLong(Map.Entry::getValue)
+                .toArray();
+        return known.length > 0 ? Arrays.stream(known).sum() : estimate(className);
+    }
+
+    public Set<String> ids() {
+        return Collections.unmodifiableSet(durations.keySet());
+    }
+
+    public void record(String id, long millis) {
+        Long previous = durations.get(id);
+        durations.put(id, previous == null ? millis : Math.round(ALPHA * millis + (1 - ALPHA) * previous));
+    }
+
+    /**
+     * Huella del contenido (SHA-256 abreviado de las entradas ordenadas y de la estimación de las pruebas nuevas), o
+     * {@code "sin-historial"} si está vacío. Cada shard la registra; si difiere entre shards, se repartieron con
+     * historiales distintos.
+     */
+    public String fingerprint() {
+        if (durations.isEmpty()) {
+            return "sin-historial";
+        }
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(("test.durations.unknownMs=" + unknownMs + "\n").getBytes(StandardCharsets.UTF_8));
+            durations.forEach((id, millis) -> sha.update((id + "=" + millis + "\n").getBytes(StandardCharsets.UTF_8)));
+            return HexFormat.of().formatHex(sha.digest()).substring(0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Reescribe el archivo ordenado por id, para que los cambios se lean bien en el control de versiones.
+     */
+    public void store() {
+        store(file);
+    }
+
+    /**
+     * Escribe el historial en otro archivo (ej: lo medido en una ejecución, dentro de {@code metrics.dir}).
+     */
+    public void store(Path file) {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Duracion por prueba en ms (TestDurations), media movil de las ejecuciones medidas");
+        durations.forEach((id, millis) -> lines.add(id.replace(":", "\\:").replace("=", "\\=") + "=" + millis));
+        try {
+            Path absolute = file.toAbsolutePath();
+            Files.createDirectories(absolute.getParent());
+            Path temp = Files.createTempFile(absolute.getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(temp, lines, StandardCharsets.ISO_8859_1);
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el historial de duraciones " + file, e);
+        }
+        log.info("⏱️ Historial de duraciones actualizado en {} ({} pruebas)", file, durations.size());
+    }
+}
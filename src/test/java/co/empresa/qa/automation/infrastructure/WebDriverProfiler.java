@@ -0,0 +1,221 @@
+package co.empresa.qa.automation.infrastructure;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import io.qameta.allure.Allure;
+import io.qameta.allure.listener.TestLifecycleListener;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.TestResult;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Perfilador de round trips WebDriver: cuenta y cronometra cada comando por tipo ({@code WebElement.getText},
+ * {@code WebDriver.findElement}...) y por punto de llamada (primer método del proyecto en la pila, fuera de
+ * {@code infrastructure}, con su línea). Marca como 🔥 los puntos que repiten un mismo comando muchas veces en una
+ * prueba, típicamente bucles por elemento ({@code for (li : opciones) li.text()}).
+ * <p>
+ * Adjunta a cada prueba de Allure su ranking por tiempo total y, al terminar la JVM, escribe el ranking de toda la
+ * ejecución en {@code webdriver-profile.txt} dentro de {@code metrics.dir}. {@code DriverManager} registra
+ * {@link #listener()} en cada navegador si {@code webdriver.profiler=true}.
+ *
+ * @author David
+ */
+public class WebDriverProfiler implements TestLifecycleListener {
+    private static final Logger log = LoggerFactory.getLogger(WebDriverProfiler.class);
+    public static final String REPORT_FILE = "webdriver-profile.txt";
+    private static final String PROJECT_PACKAGE = "co.empresa.qa.automation.";
+    private static final String INFRASTRUCTURE_PACKAGE = PROJECT_PACKAGE + "infrastructure.";
+    private static final int HOT_SPOT_CALLS = 10;
+    private static final int REPORT_ROWS = 40;
+
+    private static final ThreadLocal<Deque<Long>> STARTS = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<Map<Key, Stat>> CURRENT_TEST = new ThreadLocal<>();
+    private static final Map<String, Map<Key, Stat>> TESTS = new ConcurrentHashMap<>();
+    private static final Map<Key, Stat> RUN = new ConcurrentHashMap<>();
+    private static final AtomicInteger TESTS_PROFILED = new AtomicInteger();
+
+    private static final WebDriverListener LISTENER = new WebDriverListener() {
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            STARTS.get().push(System.nanoTime());
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            record(target, method);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            record(target, method);
+        }
+    };
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(WebDriverProfiler::writeRunReport, "webdriver-profile-writer"));
+    }
+
+    public static WebDriverListener listener() {
+        return LISTENER;
+    }
+
+    public static boolean isEnabled() {
+        return ConfigManager.isWebDriverProfilerEnabled();
+    }
+
+    private static void record(Object target, Method method) {
+        Long start = STARTS.get().poll();
+        if (start == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        Key key = new Key(callSite(), commandName(target, method));
+        RUN.computeIfAbsent(key, k -> new Stat()).add(nanos);
+        Map<Key, Stat> test = CURRENT_TEST.get();
+        if (test != null) {
+            test.computeIfAbsent(key, k -> new Stat()).add(nanos);
+        }
+    }
+
+    private static String commandName(Object target, Method method) {
+        String type;
+        if (target instanceof WebElement) {
+            type = "WebElement";
+        } else if (target instanceof WebDriver) {
+            type = "WebDriver";
+        } else {
+            type = method.getDeclaringClass().getSimpleName(); // Options, Navigation, TargetLocator...
+        }
+        return type + "." + method.getName();
+    }
+
+    /**
+     * Primer marco del proyecto fuera de {@code infrastructure}: la página, flujo o utilidad que originó el comando.
+     */
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(PROJECT_PACKAGE)
+                        && !frame.getClassName().startsWith(INFRASTRUCTURE_PACKAGE))
+                .findFirst()
+                .map(frame -> {
+                    String type = frame.getClassName();
+                    return type.substring(type.lastIndexOf('.') + 1) + "." + frame.getMethodName()
+                            + ":" + frame.getLineNumber();
+                })
+                .orElse("(fuera del proyecto)"));
+    }
+
+    @Override
+    public void beforeTestStart(TestResult result) {
+        Map<Key, Stat> test = new HashMap<>();
+        CURRENT_TEST.set(test);
+        TESTS.put(result.getUuid(), test);
+    }
+
+    @Override
+    public void beforeTestStop(TestResult result) {
+        Map<Key, Stat> test = TESTS.remove(result.getUuid());
+        CURRENT_TEST.remove();
+        if (test == null || test.isEmpty()) {
+            return;
+        }
+        TESTS_PROFILED.incrementAndGet();
+        test.forEach((key, stat) -> RUN.get(key).markTestCount(stat.count));
+
+        String source = UUID.randomUUID() + "-attachment.txt";
+        Allure.getLifecycle().writeAttachment(source,
+                new ByteArrayInputStream(report(test, false).getBytes(StandardCharsets.UTF_8)));
+        result.getAttachments().add(new Attachment()
+                .setName("🐢 Round trips WebDriver")
+                .setType("text/plain")
+                .setSource(source));
+    }
+
+    /**
+     * Ranking por tiempo total. En el reporte de la ejecución, 🔥 se decide por el máximo de llamadas en una sola
+     * prueba, no por el acumulado.
+     */
+    private static String report(Map<Key, Stat> stats, boolean run) {
+        List<Map.Entry<Key, Stat>> ranked = new ArrayList<>(stats.entrySet());
+        ranked.sort(Comparator.comparingLong((Map.Entry<Key, Stat> e) -> e.getValue().totalNanos).reversed());
+
+        long commands = stats.values().stream().mapToLong(stat -> stat.count).sum();
+        long nanos = stats.values().stream().mapToLong(stat -> stat.totalNanos).sum();
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%d comandos WebDriver, %s ms en round trips%s%n%n",
+                commands, millis(nanos), run ? " (" + TESTS_PROFILED.get() + " pruebas)" : ""));
+        text.append(String.format(Locale.ROOT, "%8s %10s %8s %8s  %-28s %s%n",
+                "llamadas", "total ms", "media ms", "max ms", "comando", "punto de llamada"));
+        for (Map.Entry<Key, Stat> entry : ranked.subList(0, Math.min(REPORT_ROWS, ranked.size()))) {
+            Stat stat = entry.getValue();
+            boolean hot = (run ? stat.maxPerTest : stat.count) >= HOT_SPOT_CALLS;
+            text.append(String.format(Locale.ROOT, "%8d %10s %8s %8s  %-28s %s%s%n",
+                    stat.count, millis(stat.totalNanos), millis(stat.totalNanos / stat.count), millis(stat.maxNanos),
+                    entry.getKey().command(), entry.getKey().callSite(), hot ? "  🔥 posible bucle por elemento" : ""));
+        }
+        if (ranked.size() > REPORT_ROWS) {
+            text.append("... ").append(ranked.size() - REPORT_ROWS).append(" filas más\n");
+        }
+        return text.toString();
+    }
+
+    private static void writeRunReport() {
+        if (RUN.isEmpty()) {
+            return;
+        }
+        Path reportFile = Path.of(ConfigManager.getMetricsDir(), REPORT_FILE);
+        try {
+            Files.createDirectories(reportFile.getParent());
+            Files.writeString(reportFile, report(RUN, true));
+            log.info("🐢 Perfil WebDriver escrito en {}", reportFile);
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudo escribir {}: {}", reportFile, e.getMessage());
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+    }
+
+    private record Key(String callSite, String command) {
+    }
+
+    private static final class Stat {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long maxPerTest;
+
+        synchronized void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        synchronized void markTestCount(long testCount) {
+            maxPerTest = Math.max(maxPerTest, testCount);
+        }
+    }
+}
@@ -1,64 +1,57 @@
 package co.empresa.qa.automation.infrastructure.hooks;
 
+import co.empresa.qa.automation.config.ConfigManager;
+import co.empresa.qa.automation.infrastructure.BrowserPool;
 import co.empresa.qa.automation.infrastructure.DriverManager;
-import io.qameta.allure.Attachment;
+import co.empresa.qa.automation.infrastructure.EvidencePipeline;
+import co.empresa.qa.automation.utils.RunRandom;
+import io.qameta.allure.Allure;
+import io.qameta.allure.model.Parameter;
 import org.junit.jupiter.api.extension.*;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
-
-import java.nio.charset.StandardCharsets;
-
-import static com.codeborne.selenide.Selenide.webdriver;
 
 /**
  * Hooks de JUnit 5 para gestión automática del driver y captura de evidencias.
- * Inicializa y cierra el navegador en cada prueba, y adjunta screenshots y fuente de página
- * a los reportes de Allure en caso de éxito o fallo.
+ * Inicializa y cierra el navegador en cada prueba (o lo toma y devuelve al {@link BrowserPool} en modo pool),
+ * y adjunta screenshots y fuente de página a los reportes de Allure mediante {@link EvidencePipeline}.
+ * La evidencia se captura en {@code afterEach}, antes de liberar el navegador; la compresión y escritura
+ * se hacen en segundo plano.
+ * Antes de cada prueba resiembra {@link RunRandom} con el id de la prueba, para que sus datos se puedan repetir.
  *
  * @author David
  */
 
-public class DriverHooks implements BeforeEachCallback, AfterEachCallback, TestWatcher {
+public class DriverHooks implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(DriverHooks.class);
+    private static final String POOLED_BROWSER = "pooledBrowser";
 
     @Override
     public void beforeEach(ExtensionContext context) throws Exception {
+        RunRandom.reseed(context.getUniqueId());
+        // Excluido del historyId: la semilla cambia en cada ejecución y no debe partir el historial de la prueba
+        Allure.parameter("random.seed", RunRandom.seed(), true, Parameter.Mode.DEFAULT);
+
+        if (ConfigManager.isBrowserPoolEnabled()) {
+            // El navegador del pool ya llega limpio y en la URL base
+            context.getStore(NAMESPACE).put(POOLED_BROWSER, DriverManager.acquirePooledDriver());
+            return;
+        }
         DriverManager.initDriver();
         DriverManager.openBaseUrl();
     }
 
     @Override
     public void afterEach(ExtensionContext context) throws Exception {
-        DriverManager.quitDriver();
-    }
-
-    @Override
-    public void testSuccessful(ExtensionContext context) {
-        attachScreenshot("Resultado exitoso");
-    }
-
-    @Override
-    public void testFailed(ExtensionContext context, Throwable cause) {
-        attachScreenshot("Fallo detectado");
-        attachPageSource();
-    }
-
-    @Attachment(value = "{name}", type = "image/png")
-    public byte[] attachScreenshot(String name) {
-        try {
-            return ((TakesScreenshot) webdriver().object()).getScreenshotAs(OutputType.BYTES);
-        } catch (Exception e) {
-            System.err.println("⚠️ No se pudo tomar screenshot: " + e.getMessage());
-            return new byte[0];
-        }
-    }
-
-    @Attachment(value = "Page source", type = "text/html")
-    public byte[] attachPageSource() {
-        try {
-            return webdriver().object().getPageSource().getBytes(StandardCharsets.UTF_8);
-        } catch (Exception e) {
-            System.err.println("⚠️ No se pudo obtener page source: " + e.getMessage());
-            return new byte[0];
+        boolean failed = context.getExecutionException().isPresent();
+        EvidencePipeline.getInstance().capture(context.getUniqueId(), failed);
+
+        BrowserPool.PooledBrowser browser = context.getStore(NAMESPACE)
+                .remove(POOLED_BROWSER, BrowserPool.PooledBrowser.class);
+        if (browser != null) {
+            // Un navegador que lanzó una excepción se recicla en lugar de reutilizarse
+            DriverManager.releasePooledDriver(browser, failed);
+        } else {
+            DriverManager.quitDriver();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+package co.empresa.qa.automation.infrastructure.hooks;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import co.empresa.qa.automation.infrastructure.CircuitBreaker;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+
+/**
+ * Cortocircuito de suite: deja de lanzar pruebas mientras Savia no responde. Antes de la primera prueba sondea la URL
+ * base con un GET ({@code breaker.probeTimeoutSeconds}); si no contesta o responde 5xx, las pruebas siguientes se
+ * omiten con el motivo en lugar de agotar sus timeouts una por una. Mientras está abierto vuelve a sondear como mucho
+ * cada {@code breaker.cooldownSeconds}, y una prueba que falla por causa del entorno (página de error del servidor,
+ * conexión rechazada) fuerza un sondeo inmediato.
+ * <p>
+ * Solo para las pruebas que van contra Savia ({@code @ExtendWith(EnvironmentBreaker.class)}); se desactiva con
+ * {@code breaker.suite.enabled=false}.
+ *
+ * @author David
+ */
+public class EnvironmentBreaker implements ExecutionCondition, AfterEachCallback {
+    private static final Logger log = LoggerFactory.getLogger(EnvironmentBreaker.class);
+
+    private static final Object LOCK = new Object();
+
+    private static boolean probed;
+    private static String downReason; // null = disponible
+    private static long probedAt;
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (!ConfigManager.isSuiteBreakerEnabled()) {
+            return ConditionEvaluationResult.enabled("Cortocircuito de suite desactivado");
+        }
+        String reason = status();
+        return reason == null
+                ? ConditionEvaluationResult.enabled("✅ Savia disponible")
+                : ConditionEvaluationResult.disabled("🔌 Savia no disponible, no se lanza la prueba: " + reason);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (ConfigManager.isSuiteBreakerEnabled()
+                && context.getExecutionException().filter(EnvironmentBreaker::pointsToEnvironment).isPresent()) {
+            synchronized (LOCK) {
+                probe();
+            }
+        }
+    }
+
+    private static String status() {
+        synchronized (LOCK) {
+            long cooldown = Duration.ofSeconds(ConfigManager.getBreakerCooldownSeconds()).toNanos();
+            if (!probed || (downReason != null && System.nanoTime() - probedAt >= cooldown)) {
+                probe();
+            }
+            return downReason;
+        }
+    }
+
+    /**
+     * GET a la URL base siguiendo redirecciones (al login): cualquier respuesta por debajo de 500 cuenta como disponible.
+     */
+    private static void probe() {
+        Duration timeout = Duration.ofSeconds(ConfigManager.getBreakerProbeTimeoutSeconds());
+        String url = ConfigManager.getBaseUrl();
+        String reason;
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .connectTimeout(timeout)
+                    .build();
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(url)).timeout(timeout).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            reason = response.statusCode() >= 500 ? "HTTP " + response.statusCode() + " en " + url : null;
+        } catch (IOException e) {
+            reason = e.getClass().getSimpleName() + " en " + url + (e.getMessage() == null ? "" : ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reason = "sondeo interrumpido";
+        }
+
+        if (reason == null && downReason != null) {
+            log.info("✅ Savia vuelve a responder en {}: se reanudan las pruebas", url);
+        } else if (reason != null && (downReason == null || !probed)) {
+            log.error("🔌 Savia no disponible ({}): se omiten las pruebas siguientes", reason);
+        }
+        probed = true;
+        downReason = reason;
+        probedAt = System.nanoTime();
+    }
+
+    private static boolean pointsToEnvironment(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof CircuitBreaker.OpenError open && open.reason() == CircuitBreaker.Reason.SERVER_ERROR) {
+                return true;
+            }
+            if (t instanceof ConnectException || t instanceof HttpTimeoutException) {
+                return true;
+            }
+            String message = String.valueOf(t.getMessage());
+            if (message.contains("net::ERR_") || message.contains("Connection refused")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,325 @@
+package co.empresa.qa.automation.infrastructure.http;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Sesión HTTP contra una aplicación JSF/PrimeFaces, sin navegador. Equivale a una pestaña: mantiene las cookies,
+ * la vista actual ({@code javax.faces.ViewState}), los valores de los campos y los comportamientos AJAX declarados
+ * en el marcado, y los actualiza con cada respuesta parcial ({@code partial-response}) como lo haría PrimeFaces.
+ * <p>
+ * No es segura para uso concurrente: cada hilo debe tener su propia sesión (igual que su propio navegador).
+ *
+ * @author David
+ */
+public class JsfHttpSession {
+    private static final Logger log = LoggerFactory.getLogger(JsfHttpSession.class);
+
+    private static final Pattern UPDATE = Pattern.compile(
+            "<update id=\"([^\"]+)\"><!\\[CDATA\\[(.*?)]]></update>", Pattern.DOTALL);
+    private static final Pattern REDIRECT = Pattern.compile("<redirect url=\"([^\"]+)\"");
+    private static final Pattern ERROR = Pattern.compile(
+            "<error>.*?<error-name>(.*?)</error-name>.*?<error-message><!\\[CDATA\\[(.*?)]]>", Pattern.DOTALL);
+
+    /**
+     * Ejecutor de las tareas internas de todos los {@code HttpClient}: sin él cada sesión crea su propio pool de hilos
+     * del sistema, y con cientos de sesiones (creación masiva) esos hilos superan a los de los workers.
+     */
+    private static final Executor CLIENT_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final Duration timeout;
+
+    private URI currentUri;
+    private String viewState;
+    private final Map<String, String> fields = new LinkedHashMap<>();
+    private final Map<String, List<Option>> selectOptions = new HashMap<>();
+    private final Map<String, String> buttons = new LinkedHashMap<>();
+    private final Map<String, Map<String, JsfMarkup.Behavior>> behaviors = new HashMap<>();
+    private final Deque<String> fragments = new ArrayDeque<>(); // marcado más reciente primero
+    private String lastResponse = "";
+
+    /**
+     * Opción de un select o sugerencia de un autocomplete: valor enviado y texto visible.
+     */
+    public record Option(String value, String label) {
+    }
+
+    public JsfHttpSession() {
+        this(ConfigManager.getBaseUrl());
+    }
+
+    public JsfHttpSession(String baseUrl) {
+        this.baseUri = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.timeout = Duration.ofSeconds(ConfigManager.getPageTimeout());
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager(null, CookiePolicy.ACCEPT_ALL))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(timeout)
+                .executor(CLIENT_EXECUTOR)
+                .build();
+    }
+
+    /**
+     * Carga una vista completa (GET), siguiendo redirecciones. La ruta es relativa a la URL base (ej: "/home.faces").
+     */
+    public void open(String path) {
+        URI uri = baseUri.resolve(path.startsWith("/") ? path.substring(1) : path);
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri).GET());
+        loadView(response.uri(), response.body());
+    }
+
+    /**
+     * Ruta de la vista actual (ej: "/savia/home.faces").
+     */
+    public String currentPath() {
+        return currentUri == null ? null : currentUri.getPath();
+    }
+
+    public void set(String field, String value) {
+        fields.put(field, value);
+    }
+
+    /**
+     * Opciones del {@code p:selectOneMenu} (sin el sufijo {@code _input}), o lista vacía si no está renderizado.
+     */
+    public List<Option> options(String component) {
+        return selectOptions.getOrDefault(component + "_input", List.of());
+    }
+
+    /**
+     * Si el marcado recibido (vista o fragmentos) tiene un elemento con el id, o con el id de su {@code _input}.
+     */
+    public boolean contains(String id) {
+        String exact = "id=\"" + id + "\"";
+        String input = "id=\"" + id + "_input\"";
+        return fragments.stream().anyMatch(fragment -> fragment.contains(exact) || fragment.contains(input));
+    }
+
+    /**
+     * Texto del elemento con el id dado en el marcado más reciente que lo contenga, o {@code null}.
+     */
+    public String text(String id) {
+        for (String fragment : fragments) {
+            String text = JsfMarkup.textById(fragment, id);
+            if (text != null) {
+                return text;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Marcado de la última respuesta recibida (vista completa o respuesta parcial).
+     */
+    public String lastResponse() {
+        return lastResponse;
+    }
+
+    /**
+     * Dispara el comportamiento AJAX del componente para el evento, si el marcado lo declara
+     * (ej: {@code change} de un selectOneMenu con {@code p:ajax}). Devuelve false si no hay comportamiento.
+     */
+    public boolean fire(String component, String event, Map<String, String> extraParams) {
+        JsfMarkup.Behavior behavior = behaviors.getOrDefault(component, Map.of()).get(event);
+        if (behavior == null) {
+            return false;
+        }
+        Map<String, String> params = new LinkedHashMap<>(extraParams);
+        params.put("javax.faces.behavior.event", event);
+        params.put("javax.faces.partial.event", event);
+        ajax(behavior.source(), behavior.process(), behavior.update(), params);
+        return true;
+    }
+
+    public boolean fire(String component, String event) {
+        return fire(component, event, Map.of());
+    }
+
+    /**
+     * Clic en un botón por su id o su texto visible ("Guardar"). Los {@code p:commandButton} AJAX se envían como
+     * petición parcial; el resto como envío completo del formulario. Un botón que no está en la vista falla de
+     * inmediato: JSF ignoraría en silencio el envío con un id desconocido.
+     */
+    public void click(String button) {
+        String id = buttons.getOrDefault(button, button);
+        JsfMarkup.Behavior behavior = behaviors.getOrDefault(id, Map.of()).get("action");
+        if (behavior != null) {
+            ajax(id, behavior.process(), behavior.update(), Map.of(id, id));
+            return;
+        }
+        if (!buttons.containsValue(id)) {
+            throw new IllegalStateException("❌ El botón " + button + " no está en la vista " + currentPath());
+        }
+        Map<String, String> params = formFields(formOf(id));
+        params.put(id, id);
+        params.put("javax.faces.ViewState", viewState);
+        HttpResponse<String> response = send(HttpRequest.newBuilder(currentUri)
+                .header("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(encode(params))));
+        loadView(response.uri(), response.body());
+    }
+
+    /**
+     * Búsqueda de un {@code p:autoComplete}: envía la consulta y devuelve las sugerencias renderizadas.
+     */
+    public List<Option> autoComplete(String component, String query) {
+        fields.put(component + "_input", query);
+        ajax(component, component, component, Map.of(component + "_query", query));
+        return JsfMarkup.autoCompleteItems(lastResponse);
+    }
+
+    /**
+     * Selección de una sugerencia: fija el texto y el valor oculto y dispara {@code itemSelect}.
+     */
+    public void selectSuggestion(String component, Option item) {
+        fields.put(component + "_input", item.label());
+        fields.put(component + "_hinput", item.value());
+        fire(component, "itemSelect", Map.of(component + "_itemSelect", item.value()));
+    }
+
+    /**
+     * Filas de un {@code p:dataTable} paginado a partir de {@code first}, pedidas como lo hace su paginador (petición
+     * parcial con {@code _pagination}, {@code _first} y {@code _rows}). Cada fila es el texto de sus celdas; una
+     * página con menos de {@code rows} filas es la última.
+     */
+    public List<List<String>> tablePage(String table, int first, int rows) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put(table + "_pagination", "true");
+        params.put(table + "_first", String.valueOf(first));
+        params.put(table + "_rows", String.valueOf(rows));
+        params.put(table + "_encodeFeature", "true");
+        ajax(table, table, table, params);
+        return JsfMarkup.tableRows(lastResponse);
+    }
+
+    private void ajax(String source, String process, String update, Map<String, String> extraParams) {
+        String form = formOf(source);
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("javax.faces.partial.ajax", "true");
+        params.put("javax.faces.source", source);
+        params.put("javax.faces.partial.execute", process);
+        if (!update.isEmpty()) {
+            params.put("javax.faces.partial.render", update);
+        }
+        params.putAll(extraParams);
+        params.putAll(formFields(form));
+        params.put("javax.faces.ViewState", viewState);
+
+        HttpResponse<String> response = send(HttpRequest.newBuilder(currentUri)
+                .header("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8")
+                .header("Faces-Request", "partial/ajax")
+                .header("X-Requested-With", "XMLHttpRequest")
+                .POST(HttpRequest.BodyPublishers.ofString(encode(params))));
+        applyPartialResponse(response.body());
+    }
+
+    private void applyPartialResponse(String body) {
+        lastResponse = body;
+        Matcher error = ERROR.matcher(body);
+        if (error.find()) {
+            throw new IllegalStateException("❌ Error JSF " + error.group(1) + ": " + error.group(2));
+        }
+        Matcher redirect = REDIRECT.matcher(body);
+        if (redirect.find()) {
+            URI target = currentUri.resolve(redirect.group(1).replace("&amp;", "&"));
+            log.debug("↪️ Redirección JSF a {}", target);
+            HttpResponse<String> response = send(HttpRequest.newBuilder(target).GET());
+            loadView(response.uri(), response.body());
+            return;
+        }
+        Matcher update = UPDATE.matcher(body);
+        while (update.find()) {
+            if (update.group(1).contains("javax.faces.ViewState")) {
+                viewState = update.group(2);
+            } else {
+                absorb(update.group(2));
+            }
+        }
+    }
+
+    private void loadView(URI uri, String html) {
+        currentUri = uri;
+        viewState = JsfMarkup.viewState(html);
+        fields.clear();
+        selectOptions.clear();
+        buttons.clear();
+        behaviors.clear();
+        fragments.clear();
+        lastResponse = html;
+        absorb(html);
+    }
+
+    /**
+     * Incorpora marcado nuevo (vista o fragmento actualizado) al estado de la sesión.
+     */
+    private void absorb(String markup) {
+        fields.putAll(JsfMarkup.fields(markup));
+        selectOptions.putAll(JsfMarkup.selectOptions(markup));
+        JsfMarkup.buttons(markup).forEach(buttons::putIfAbsent);
+        JsfMarkup.behaviors(markup).forEach(behavior -> behaviors
+                .computeIfAbsent(behavior.source(), source -> new HashMap<>())
+                .put(behavior.event(), behavior));
+        fragments.addFirst(markup);
+    }
+
+    private Map<String, String> formFields(String form) {
+        Map<String, String> formFields = fields.entrySet().stream()
+                .filter(field -> field.getKey().startsWith(form + ":"))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> b, LinkedHashMap::new));
+        formFields.put(form, form);
+        return formFields;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) {
+        try {
+            HttpResponse<String> response = client.send(request.timeout(timeout).build(),
+                    HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("❌ HTTP " + response.statusCode() + " en " + response.uri());
+            }
+            return response;
+        } catch (IOException e) {
+            throw new IllegalStateException("Error de comunicación con " + baseUri, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando respuesta de " + baseUri, e);
+        }
+    }
+
+    private static String formOf(String clientId) {
+        int separator = clientId.indexOf(':');
+        return separator < 0 ? clientId : clientId.substring(0, separator);
+    }
+
+    private static String encode(Map<String, String> params) {
+        return params.entrySet().stream()
+                .map(param -> URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8)
+                        + "=" + URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+}
@@ -0,0 +1,223 @@
+package co.empresa.qa.automation.infrastructure.http;
+
+import co.empresa.qa.automation.infrastructure.http.JsfHttpSession.Option;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lectura por expresiones regulares del HTML que renderizan JSF/PrimeFaces: campos, opciones de
+ * {@code p:selectOneMenu}, sugerencias de {@code p:autoComplete}, botones y comportamientos AJAX
+ * ({@code PrimeFaces.ab({s:..., e:..., p:..., u:...})}). Solo cubre el marcado que genera PrimeFaces,
+ * no HTML arbitrario.
+ *
+ * @author David
+ */
+final class JsfMarkup {
+
+    private static final Pattern VIEW_STATE = Pattern.compile(
+            "name=\"javax\\.faces\\.ViewState\"[^>]*value=\"([^\"]*)\"");
+    private static final Pattern INPUT = Pattern.compile("<input\\b([^>]*)>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SELECT = Pattern.compile(
+            "<select\\b([^>]*)>(.*?)</select>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern OPTION = Pattern.compile(
+            "<option\\b([^>]*)>(.*?)</option>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern BUTTON = Pattern.compile(
+            "<button\\b([^>]*)>(.*?)</button>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern AUTOCOMPLETE_ITEM = Pattern.compile(
+            "<li\\b([^>]*\\bui-autocomplete-item\\b[^>]*)>(.*?)</li>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern ROW = Pattern.compile(
+            "<tr\\b([^>]*)>(.*?)</tr>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern CELL = Pattern.compile(
+            "<td\\b[^>]*>(.*?)</td>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern AJAX_BEHAVIOR = Pattern.compile("PrimeFaces\\.ab\\(\\{(.*?)}");
+    private static final Pattern BEHAVIOR_PARAM = Pattern.compile("(\\w+):\"([^\"]*)\"");
+    private static final Pattern ATTRIBUTE = Pattern.compile("([\\w:-]+)=\"([^\"]*)\"");
+    private static final Pattern TAG = Pattern.compile("<[^>]+>");
+    private static final String TEXT_BY_ID = "id=\"%s\"[^>]*>(.*?)</";
+
+    private JsfMarkup() {
+        // Utilidad: no instanciable
+    }
+
+    /**
+     * Comportamiento AJAX de un componente: origen, evento, componentes a procesar y a renderizar.
+     */
+    record Behavior(String source, String event, String process, String update) {
+    }
+
+    static String viewState(String markup) {
+        Matcher matcher = VIEW_STATE.matcher(markup);
+        return matcher.find() ? unescape(matcher.group(1)) : null;
+    }
+
+    /**
+     * Valores iniciales de inputs de texto/ocultos y de selects (opción marcada o la primera).
+     * Los checkbox solo se incluyen si vienen marcados, igual que en el envío del navegador.
+     */
+    static Map<String, String> fields(String markup) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        Matcher input = INPUT.matcher(markup);
+        while (input.find()) {
+            Map<String, String> attributes = attributes(input.group(1));
+            String name = attributes.get("name");
+            String type = attributes.getOrDefault("type", "text").toLowerCase(Locale.ROOT);
+            if (name == null || name.equals("javax.faces.ViewState") || type.equals("submit") || type.equals("button")) {
+                continue;
+            }
+            if ((type.equals("checkbox") || type.equals("radio")) && !attributes.containsKey("checked")) {
+                continue;
+            }
+            fields.put(name, attributes.getOrDefault("value", type.equals("checkbox") ? "on" : ""));
+        }
+        Matcher select = SELECT.matcher(markup);
+        while (select.find()) {
+            String name = attributes(select.group(1)).get("name");
+            if (name == null) {
+                continue;
+            }
+            String selected = null;
+            Matcher option = OPTION.matcher(select.group(2));
+            while (option.find()) {
+                Map<String, String> attributes = attributes(option.group(1));
+                if (selected == null || attributes.containsKey("selected")) {
+                    selected = attributes.getOrDefault("value", text(option.group(2)));
+                }
+            }
+            fields.put(name, selected == null ? "" : selected);
+        }
+        return fields;
+    }
+
+    /**
+     * Opciones de cada select, por nombre del campo (ej: "frmCrear:genero_input").
+     */
+    static Map<String, List<Option>> selectOptions(String markup) {
+        Map<String, List<Option>> selects = new HashMap<>();
+        Matcher select = SELECT.matcher(markup);
+        while (select.find()) {
+            String name = attributes(select.group(1)).get("name");
+            if (name == null) {
+                continue;
+            }
+            List<Option> options = new ArrayList<>();
+            Matcher option = OPTION.matcher(select.group(2));
+            while (option.find()) {
+                String label = text(option.group(2));
+                options.add(new Option(attributes(option.group(1)).getOrDefault("value", label), label));
+            }
+            selects.put(name, options);
+        }
+        return selects;
+    }
+
+    static List<Option> autoCompleteItems(String markup) {
+        List<Option> items = new ArrayList<>();
+        Matcher item = AUTOCOMPLETE_ITEM.matcher(markup);
+        while (item.find()) {
+            Map<String, String> attributes = attributes(item.group(1));
+            String label = attributes.getOrDefault("data-item-label", text(item.group(2)));
+            items.add(new Option(attributes.getOrDefault("data-item-value", label), label));
+        }
+        return items;
+    }
+
+    /**
+     * Filas de datos de un {@code p:dataTable} (texto de cada celda), sin la fila de "sin registros" ni encabezados.
+     * Sirve tanto para la tabla completa como para la respuesta de paginación, que solo trae las filas.
+     */
+    static List<List<String>> tableRows(String markup) {
+        List<List<String>> rows = new ArrayList<>();
+        Matcher row = ROW.matcher(markup);
+        while (row.find()) {
+            if (row.group(1).contains("ui-datatable-empty-message")) {
+                continue;
+            }
+            List<String> cells = new ArrayList<>();
+            Matcher cell = CELL.matcher(row.group(2));
+            while (cell.find()) {
+                cells.add(text(cell.group(1)));
+            }
+            if (!cells.isEmpty()) {
+                rows.add(cells);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Ids de los botones por su texto visible (ej: "Guardar" → "frmCrear:j_idt1200"). Si dos botones comparten
+     * texto gana el primero del documento, igual que el XPath por texto que usan las páginas.
+     */
+    static Map<String, String> buttons(String markup) {
+        Map<String, String> buttons = new LinkedHashMap<>();
+        Matcher button = BUTTON.matcher(markup);
+        while (button.find()) {
+            String id = attributes(button.group(1)).get("id");
+            if (id != null) {
+                buttons.putIfAbsent(text(button.group(2)), id);
+            }
+        }
+        return buttons;
+    }
+
+    /**
+     * Comportamientos AJAX declarados en el marcado, tanto en {@code onclick} como en los scripts de los widgets.
+     */
+    static List<Behavior> behaviors(String markup) {
+        List<Behavior> behaviors = new ArrayList<>();
+        Matcher ab = AJAX_BEHAVIOR.matcher(unescape(markup));
+        while (ab.find()) {
+            Map<String, String> params = new HashMap<>();
+            Matcher param = BEHAVIOR_PARAM.matcher(ab.group(1));
+            while (param.find()) {
+                params.put(param.group(1), param.group(2));
+            }
+            String source = params.get("s");
+            if (source != null) {
+                behaviors.add(new Behavior(source, params.getOrDefault("e", "action"),
+                        params.getOrDefault("p", "@all"), params.getOrDefault("u", "")));
+            }
+        }
+        return behaviors;
+    }
+
+    /**
+     * Texto del primer elemento con el id dado, o {@code null} si no está en el marcado.
+     */
+    static String textById(String markup, String id) {
+        Matcher matcher = Pattern.compile(String.format(TEXT_BY_ID, Pattern.quote(id)), Pattern.DOTALL)
+                .matcher(markup);
+        return matcher.find() ? text(matcher.group(1)) : null;
+    }
+
+    static String text(String html) {
+        return unescape(TAG.matcher(html).replaceAll("")).trim();
+    }
+
+    private static Map<String, String> attributes(String tagBody) {
+        Map<String, String> attributes = new HashMap<>();
+        Matcher attribute = ATTRIBUTE.matcher(tagBody);
+        while (attribute.find()) {
+            attributes.put(attribute.group(1).toLowerCase(Locale.ROOT), unescape(attribute.group(2)));
+        }
+        // Atributos booleanos sin valor (checked, selected)
+        for (String flag : new String[]{"checked", "selected"}) {
+            if (tagBody.matches("(?is).*\\b" + flag + "\\b.*")) {
+                attributes.putIfAbsent(flag, flag);
+            }
+        }
+        return attributes;
+    }
+
+    private static String unescape(String html) {
+        return html.replace("&quot;", "\"").replace("&#39;", "'").replace("&lt;", "<")
+                .replace("&gt;", ">").replace("&amp;", "&");
+    }
+}
@@ -0,0 +1,653 @@
+package co.empresa.qa.automation.infrastructure.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Servidor local que imita a Savia a nivel HTTP/JSF para probar sin el ambiente QA: login con cookie de sesión,
+ * home, y {@code /aseguramiento/afiliados.faces} con el formulario {@code frmCrear}, sus diálogos (Dirección, Barrio,
+ * Contacto) y Guardar, y la búsqueda {@code frmBuscar} con su tabla paginada de afiliados creados. Genera el mismo
+ * tipo de marcado que PrimeFaces (selects ocultos {@code _input}, {@code PrimeFaces.ab(...)},
+ * {@code javax.faces.ViewState}) y responde a las peticiones parciales con {@code partial-response}; valida el
+ * ViewState y los campos obligatorios antes de "crear" el afiliado.
+ * <p>
+ * Las páginas cargan {@code stub/primefaces-shim.js}, un PrimeFaces/jQuery mínimo (AJAX parcial, widgets
+ * selectOneMenu, autoComplete y calendar), así que también sirven para ejecutar {@code LoginFlow} y
+ * {@code AffiliateFlow} con un navegador real. {@link #withLatency} simula el tiempo de respuesta del AJAX y la
+ * animación de los paneles para medir el framework sin depender del ambiente QA.
+ * <p>
+ * Solo para pruebas: no es un servidor JSF real ni pretende cubrir todo el formulario.
+ *
+ * @author David
+ */
+public class SaviaStubServer implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(SaviaStubServer.class);
+
+    private static final String CONTEXT = "/savia";
+    private static final String SESSION_COOKIE = "JSESSIONID";
+    private static final String MEDELLIN = "MEDELLÍN - ANTIOQUIA";
+    private static final String SHIM_PATH = "/resources/primefaces-shim.js";
+    private static final String RESULTS_TABLE = "frmBuscar:tabla";
+    private static final int PAGE_ROWS = 10;
+
+    // Tamaño visible para los componentes sin texto (triggers, checkboxes), como el tema de PrimeFaces
+    private static final String STYLE = "<style>"
+            + ".ui-helper-hidden-accessible{position:absolute;width:1px;height:1px;overflow:hidden;clip:rect(0 0 0 0)}"
+            + ".ui-selectonemenu{display:inline-block;border:1px solid #999;margin:4px;min-width:200px}"
+            + ".ui-selectonemenu-trigger,.ui-chkbox-box{display:inline-block;width:18px;height:18px;border:1px solid #999;cursor:pointer}"
+            + ".ui-chkbox{display:inline-block;margin:4px}"
+            + ".ui-selectonemenu-items,.ui-autocomplete-items{list-style:none;margin:0;padding:0;border:1px solid #ccc}"
+            + "</style>";
+
+    private final String username;
+    private final String password;
+    private final HttpServer server;
+    // Hilos virtuales: el retardo simulado no ocupa un hilo del sistema por petición en curso, así que cientos de
+    // sesiones simultáneas no inflan la cuenta de hilos de la JVM que se está midiendo
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, StubSession> sessions = new ConcurrentHashMap<>();
+    private final Set<String> createdDocuments = ConcurrentHashMap.newKeySet();
+    private final Deque<ListedAffiliate> listing = new ConcurrentLinkedDeque<>(); // más recientes primero
+    private volatile Duration ajaxDelay = Duration.ZERO;
+    private volatile Duration animation = Duration.ZERO;
+
+    public SaviaStubServer(String username, String password) {
+        this.username = username;
+        this.password = password;
+        // Sin esto el HttpServer del JDK escribe cabeceras y cuerpo por separado y Nagle añade ~40 ms por respuesta
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        try {
+            // Cola de conexiones amplia: en los benchmarks cientos de sesiones conectan a la vez
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo abrir el puerto del stub de Savia", e);
+        }
+        server.createContext(CONTEXT, this::handle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Retardo simulado del servidor en cada petición AJAX y duración de la animación de los paneles en el navegador.
+     * Por defecto ambos son cero.
+     */
+    public SaviaStubServer withLatency(Duration ajaxDelay, Duration animation) {
+        this.ajaxDelay = ajaxDelay;
+        this.animation = animation;
+        return this;
+    }
+
+    public SaviaStubServer start() {
+        server.start();
+        log.info("🧪 Stub de Savia escuchando en {}", baseUrl());
+        return this;
+    }
+
+    /**
+     * URL base equivalente a {@code baseUrl} de {@code config.properties} (ej: "http://127.0.0.1:50123/savia").
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + CONTEXT;
+    }
+
+    /**
+     * Documentos de los afiliados guardados con éxito.
+     */
+    public Set<String> createdDocuments() {
+        return Set.copyOf(createdDocuments);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // --- Enrutamiento ---
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (exchange.getRequestURI().getPath().equals(CONTEXT + SHIM_PATH)) {
+                sendShim(exchange);
+                return;
+            }
+            StubSession session = session(exchange);
+            // Lock y no synchronized: el retardo simulado y la escritura de la respuesta bloquean dentro de la
+            // sección, y un monitor fijaría el hilo virtual a su portador (con pocos núcleos, el stub se detiene)
+            session.lock.lock();
+            try {
+                String path = exchange.getRequestURI().getPath().substring(CONTEXT.length());
+                boolean post = "POST".equalsIgnoreCase(exchange.getRequestMethod());
+                Map<String, String> params = post ? parseForm(exchange) : Map.of();
+
+                if (path.isEmpty() || path.equals("/") || path.equals("/login.faces")) {
+                    if (post) {
+                        respondPartial(exchange, session, params, this::onLoginPost);
+                    } else {
+                        respondView(exchange, session, loginView());
+                    }
+                } else if (!session.authenticated) {
+                    redirect(exchange, CONTEXT + "/");
+                } else if (path.equals("/home.faces")) {
+                    respondView(exchange, session, homeView());
+                } else if (path.equals("/aseguramiento/afiliados.faces")) {
+                    if (post) {
+                        respondPartial(exchange, session, params, this::onAffiliatesPost);
+                    } else {
+                        session.resetForm();
+                        respondView(exchange, session, affiliatesView());
+                    }
+                } else {
+                    send(exchange, 404, "text/plain", "No encontrado: " + path);
+                }
+            } finally {
+                session.lock.unlock();
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Error en el stub de Savia", e);
+            throw e;
+        }
+    }
+
+    private interface AjaxHandler {
+        /**
+         * Devuelve los fragmentos a actualizar (id → marcado) o una redirección con la clave {@code @redirect}.
+         */
+        Map<String, String> handle(StubSession session, Map<String, String> params);
+    }
+
+    private void respondPartial(HttpExchange exchange, StubSession session, Map<String, String> params,
+                                AjaxHandler handler) throws IOException {
+        if (!"partial/ajax".equals(exchange.getRequestHeaders().getFirst("Faces-Request"))) {
+            send(exchange, 400, "text/plain", "Solo se aceptan peticiones AJAX de JSF");
+            return;
+        }
+        if (!session.viewState.equals(params.get("javax.faces.ViewState"))) {
+            send(exchange, 200, "text/xml;charset=UTF-8", "<?xml version='1.0' encoding='UTF-8'?><partial-response>"
+                    + "<error><error-name>javax.faces.application.ViewExpiredException</error-name>"
+                    + "<error-message><![CDATA[View could not be restored.]]></error-message></error></partial-response>");
+            return;
+        }
+        simulateLatency();
+        session.values.putAll(params);
+        Map<String, String> updates = handler.handle(session, params);
+
+        StringBuilder xml = new StringBuilder("<?xml version='1.0' encoding='UTF-8'?><partial-response id=\"j_id1\">");
+        if (updates.containsKey("@redirect")) {
+            xml.append("<redirect url=\"").append(updates.get("@redirect")).append("\"></redirect>");
+        } else {
+            session.viewState = UUID.randomUUID().toString();
+            xml.append("<changes>");
+            updates.forEach((id, markup) ->
+                    xml.append("<update id=\"").append(id).append("\"><![CDATA[").append(markup).append("]]></update>"));
+            xml.append("<update id=\"j_id1:javax.faces.ViewState:0\"><![CDATA[").append(session.viewState)
+                    .append("]]></update></changes>");
+        }
+        xml.append("</partial-response>");
+        send(exchange, 200, "text/xml;charset=UTF-8", xml.toString());
+    }
+
+    private void respondView(HttpExchange exchange, StubSession session, String body) throws IOException {
+        session.viewState = UUID.randomUUID().toString();
+        String html = "<!DOCTYPE html><html><head><meta charset=\"UTF-8\"><title>Savia</title>" + STYLE
+                + "<script>window.STUB_ANIMATION_MS = " + animation.toMillis() + ";</script>"
+                + "<script src=\"" + CONTEXT + SHIM_PATH + "\"></script></head><body>"
+                + body.replace("@viewState", hidden("javax.faces.ViewState", session.viewState))
+                + "</body></html>";
+        send(exchange, 200, "text/html;charset=UTF-8", html);
+    }
+
+    private void simulateLatency() {
+        try {
+            Thread.sleep(ajaxDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sendShim(HttpExchange exchange) throws IOException {
+        try (InputStream shim = SaviaStubServer.class.getClassLoader().getResourceAsStream("stub/primefaces-shim.js")) {
+            if (shim == null) {
+                throw new IllegalStateException("❌ stub/primefaces-shim.js no encontrado en classpath");
+            }
+            send(exchange, 200, "text/javascript;charset=UTF-8", new String(shim.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    // --- Login y home ---
+
+    private Map<String, String> onLoginPost(StubSession session, Map<String, String> params) {
+        if (username.equals(params.get("login:usuario")) && password.equals(params.get("login:contrasena"))) {
+            session.authenticated = true;
+            return Map.of("@redirect", CONTEXT + "/home.faces");
+        }
+        return Map.of("login:growl", "<div id=\"login:growl\"><p>Usuario y/o Contraseña inválido</p></div>");
+    }
+
+    private static String loginView() {
+        return "<form id=\"login\" name=\"login\" method=\"post\">"
+                + "<input type=\"hidden\" name=\"login\" value=\"login\">"
+                + "<input id=\"login:usuario\" name=\"login:usuario\" type=\"text\" value=\"\">"
+                + "<input id=\"login:contrasena\" name=\"login:contrasena\" type=\"password\" value=\"\">"
+                + button("login:j_idt20", "Ingresar", "login", "login:growl")
+                + "<div id=\"login:growl\"></div>"
+                + "@viewState</form>";
+    }
+
+    private static String homeView() {
+        return "<div style=\"background-image: url('/savia/resources/img/home.png')\">Bienvenido a Savia</div>";
+    }
+
+    // --- Afiliados ---
+
+    private static String affiliatesView() {
+        return "<form id=\"frmBuscar\" name=\"frmBuscar\" method=\"post\">"
+                + "<input type=\"hidden\" name=\"frmBuscar\" value=\"frmBuscar\">"
+                + text("frmBuscar:numeroDocumento")
+                + button("frmBuscar:j_idt30", "Buscar", "@form", RESULTS_TABLE)
+                + "<div id=\"" + RESULTS_TABLE + "\"></div>"
+                + "@viewState</form>"
+                + "<form id=\"frmAfiliados\" name=\"frmAfiliados\" method=\"post\">"
+                + "<input type=\"hidden\" name=\"frmAfiliados\" value=\"frmAfiliados\">"
+                + button("frmAfiliados:j_idt45", "Crear", "@this", "pnlCrear")
+                + "@viewState</form>"
+                + "<div id=\"pnlCrear\"></div>"
+                + "<div id=\"dlgDireccion\"></div><div id=\"dlgBarrio\"></div><div id=\"dlgContacto\"></div>";
+    }
+
+    private Map<String, String> onAffiliatesPost(StubSession session, Map<String, String> params) {
+        String source = params.getOrDefault("javax.faces.source", "");
+        String event = params.getOrDefault("javax.faces.behavior.event", "action");
+
+        if (params.containsKey(source + "_query")) {
+            return Map.of(source, autoComplete(source, suggestions(source)));
+        }
+        if (source.equals(RESULTS_TABLE) && params.containsKey(RESULTS_TABLE + "_pagination")) {
+            // Como PrimeFaces: la paginación solo devuelve las filas de la página pedida
+            return Map.of(RESULTS_TABLE, tableRows(params, Integer.parseInt(params.get(RESULTS_TABLE + "_first")),
+                    Integer.parseInt(params.get(RESULTS_TABLE + "_rows"))));
+        }
+        return switch (source + "#" + event) {
+            case "frmAfiliados:j_idt45#action" -> Map.of("pnlCrear", createForm());
+            case "frmBuscar:j_idt30#action" -> Map.of(RESULTS_TABLE, resultsTable(params));
+            case "frmCrear:fechaNacimiento#dateSelect" -> Map.of("frmCrear:edad", ageLabel(params));
+            case "frmCrear:tipoAfiliado#change" -> Map.of("frmCrear:pnlParentesco", parentescoPanel(params));
+            case "frmCrear:j_idt300#action" -> Map.of("dlgDireccion", addressDialog());
+            case "frmDireccion:j_idt965#action" -> {
+                session.address = params.get("frmDireccion:j_idt864_input") + " " + params.get("frmDireccion:numeroDirecion");
+                yield Map.of("frmCrear:direccion", "<span id=\"frmCrear:direccion\">" + session.address + "</span>");
+            }
+            case "frmCrear:j_idt310#action" -> Map.of("dlgBarrio", barrioDialog(session));
+            case "frmBarrio:j_idt978#action" -> {
+                session.barrio = params.getOrDefault("frmBarrio:textBarrio", params.get("frmBarrio:selectBarrio_input"));
+                yield Map.of();
+            }
+            case "frmCrear:j_idt320#action" -> Map.of("dlgContacto", contactDialog());
+            case "frmCrearContacto:j_idt1063#action" -> {
+                session.contact = params.get("frmCrearContacto:numeroContacto");
+                yield Map.of();
+            }
+            case "frmCrear:j_idt400#action" -> Map.of("frmCrear:messages", save(session));
+            default -> Map.of(); // itemSelect, change sin dependientes, etc.
+        };
+    }
+
+    private String save(StubSession session) {
+        Map<String, String> values = session.values;
+        List<String> missing = new ArrayList<>();
+        for (String field : List.of("frmCrear:fechaNacimiento_input", "frmCrear:tipoDocumento_input",
+                "frmCrear:numeroDocumento", "frmCrear:primerNombre", "frmCrear:primerApellido",
+                "frmCrear:tipoAfiliado_input", "frmCrear:epsBDUA_hinput", "frmCrear:municipioAfiliacion_hinput",
+                "frmCrear:fechaAfilEPS_input", "frmCrear:sedeIpsPrimaria_input", "frmCrear:causaNovedad_input")) {
+            if (values.getOrDefault(field, "").isBlank()) {
+                missing.add(field);
+            }
+        }
+        if (!"CH".equals(values.get("frmCrear:tipoAfiliado_input"))
+                && values.getOrDefault("frmCrear:parentesco_input", "").isBlank()) {
+            missing.add("frmCrear:parentesco_input");
+        }
+        if (session.address == null) {
+            missing.add("Dirección");
+        }
+        if (session.barrio == null || session.barrio.isBlank()) {
+            missing.add("Barrio");
+        }
+        if (session.contact == null || session.contact.isBlank()) {
+            missing.add("Contacto");
+        }
+
+        String document = values.get("frmCrear:numeroDocumento");
+        if (missing.isEmpty() && !createdDocuments.add(document)) {
+            missing.add("documento duplicado " + document);
+        }
+        if (!missing.isEmpty()) {
+            return "<div id=\"frmCrear:messages\" class=\"ui-messages-error\"><ul><li>Campos inválidos: "
+                    + String.join(", ", missing) + "</li></ul></div>";
+        }
+        listing.addFirst(new ListedAffiliate(values.get("frmCrear:tipoDocumento_input"), document,
+                values.get("frmCrear:primerNombre") + " " + values.get("frmCrear:primerApellido")));
+        log.info("🧪 Stub: afiliado {} creado", document);
+        return "<div id=\"frmCrear:messages\" class=\"ui-messages-success\"><ul><li>Afiliado creado con éxito</li></ul></div>";
+    }
+
+    /**
+     * Afiliados cuyo documento empieza por el buscado (todos si está vacío), en el orden de la lista, como un filtro
+     * {@code LIKE 'x%'}.
+     */
+    private List<ListedAffiliate> matches(Map<String, String> params) {
+        String document = params.getOrDefault("frmBuscar:numeroDocumento", "").trim();
+        return listing.stream()
+                .filter(affiliate -> document.isEmpty() || affiliate.document().startsWith(document))
+                .toList();
+    }
+
+    private String resultsTable(Map<String, String> params) {
+        List<ListedAffiliate> matches = matches(params);
+        boolean lastPage = matches.size() <= PAGE_ROWS;
+        return "<div id=\"" + RESULTS_TABLE + "\" class=\"ui-datatable ui-widget\"><table><thead><tr>"
+                + "<th>Tipo</th><th>Documento</th><th>Nombre</th></tr></thead>"
+                + "<tbody id=\"" + RESULTS_TABLE + "_data\" class=\"ui-datatable-data\">"
+                + tableRows(params, 0, PAGE_ROWS) + "</tbody></table>"
+                + "<div class=\"ui-paginator\"><span class=\"ui-paginator-current\">" + matches.size() + " registros</span>"
+                + "<a class=\"ui-paginator-next ui-state-default" + (lastPage ? " ui-state-disabled" : "")
+                + "\">&gt;</a></div></div>";
+    }
+
+    private String tableRows(Map<String, String> params, int first, int rows) {
+        List<ListedAffiliate> page = matches(params).stream().skip(first).limit(rows).toList();
+        if (page.isEmpty() && first == 0) {
+            return "<tr class=\"ui-widget-content ui-datatable-empty-message\"><td colspan=\"3\">"
+                    + "No se encontraron registros</td></tr>";
+        }
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i < page.size(); i++) {
+            ListedAffiliate affiliate = page.get(i);
+            html.append("<tr data-ri=\"").append(first + i).append("\" class=\"ui-widget-content\">")
+                    .append("<td>").append(affiliate.documentType()).append("</td>")
+                    .append("<td>").append(affiliate.document()).append("</td>")
+                    .append("<td>").append(affiliate.name()).append("</td></tr>");
+        }
+        return html.toString();
+    }
+
+    private static String createForm() {
+        return "<form id=\"frmCrear\" name=\"frmCrear\" method=\"post\">"
+                + "<input type=\"hidden\" name=\"frmCrear\" value=\"frmCrear\">"
+                + "<div id=\"frmCrear:messages\"></div>"
+                + calendar("frmCrear:fechaNacimiento", "frmCrear:edad")
+                + "<span id=\"frmCrear:edad\"></span>"
+                + selectOneMenu("frmCrear:tipoDocumento", options("RC", "Registro Civil", "TI", "Tarjeta Identidad",
+                "CC", "Cedula Ciudadania", "CE", "Cédula Extranjería"), null)
+                + selectOneMenu("frmCrear:paisNacimiento", options("CO", "COLOMBIA", "VE", "VENEZUELA", "EC", "ECUADOR"), null)
+                + selectOneMenu("frmCrear:paisNacionalidad", options("CO", "COLOMBIANA", "VE", "VENEZOLANA"), null)
+                + selectOneMenu("frmCrear:genero", options("F", "Femenino", "M", "Masculino"), null)
+                + selectOneMenu("frmCrear:generoIdentif", options("F", "Femenino", "M", "Masculino", "NB", "No binario"), null)
+                + selectOneMenu("frmCrear:estadoCivil", options("S", "Soltero", "C", "Casado", "U", "Unión libre"), null)
+                + selectOneMenu("frmCrear:tipoAfiliado", options("CH", "Cabeza de Hogar", "BE", "Beneficiario",
+                "AD", "Adicional", "CO", "Cotizante"), "frmCrear:pnlParentesco")
+                + "<div id=\"frmCrear:pnlParentesco\"></div>"
+                + selectOneMenu("frmCrear:origenAfiliado", options("1", "Traslado", "2", "Nuevo"), null)
+                + text("frmCrear:numeroDocumento") + text("frmCrear:primerNombre") + text("frmCrear:segundoNombre")
+                + text("frmCrear:primerApellido") + text("frmCrear:segundoApellido") + text("frmCrear:email")
+                + calendar("frmCrear:fechaExpDoc", null)
+                + "<div id=\"frmCrear:registraBDUA\" class=\"ui-selectbooleanbutton ui-button\">"
+                + "<span class=\"ui-button-text ui-c\">Si</span></div>"
+                + selectOneMenu("frmCrear:tipoDocumentoBDUA", options("CC", "CC", "TI", "TI", "RC", "RC"), null)
+                + text("frmCrear:serialBDUA") + text("frmCrear:numeroDocumentoBDUA")
+                + text("frmCrear:primerApellidoBDUA") + text("frmCrear:primerNombreBDUA")
+                + calendar("frmCrear:fechaNacimientoBDUA", null)
+                + autoCompleteInput("frmCrear:epsBDUA")
+                + calendar("frmCrear:fechaAfilEPS", null) + calendar("frmCrear:fechaAfilSGSSS", null)
+                + checkbox("frmCrear:poblacionLgtbiq")
+                + autoCompleteInput("frmCrear:municipioAfiliacion")
+                + checkbox("frmCrear:autorizoEmail") + checkbox("frmCrear:autorizoSMS")
+                + button("frmCrear:j_idt300", "Dirección", "@this", "dlgDireccion")
+                + "<span id=\"frmCrear:direccion\"></span>"
+                + button("frmCrear:j_idt310", "Barrio", "@this", "dlgBarrio")
+                + selectOneMenu("frmCrear:zona", options("U", "Urbana", "R", "Rural"), null)
+                + button("frmCrear:j_idt320", "Agregar Contacto", "@this", "dlgContacto")
+                + selectOneMenu("frmCrear:sedeIpsPrimaria", options("101", "IPS Central", "102", "IPS Norte"), null)
+                + selectOneMenu("frmCrear:grupoPoblacional", options("1", "Población general",
+                "2", "Comunidades indígenas", "3", "Rrom (Gitano)"), null)
+                + selectOneMenu("frmCrear:grupoEtnico", options("1", "Ninguno", "2", "Indígena", "3", "Rrom"), null)
+                + selectOneMenu("frmCrear:comunidadEtnica", options("1", "Wayuu", "2", "Emberá"), null)
+                + selectOneMenu("frmCrear:metodGrupoPoblacional", options("1", "SISBEN", "2", "Listado censal"), null)
+                + selectOneMenu("frmCrear:nivelSisben", options("A1", "A1", "B2", "B2", "C3", "C3"), null)
+                + checkbox("frmCrear:discapacidad")
+                + selectOneMenu("frmCrear:tipoDiscapacidad", options("1", "Física", "2", "Visual"), null)
+                + selectOneMenu("frmCrear:condicionDiscapacidad", options("1", "Permanente", "2", "Temporal"), null)
+                + calendar("frmCrear:fechaInicioDiscapacidad", null) + calendar("frmCrear:fechaFinDiscapacidad", null)
+                + selectOneMenu("frmCrear:causaNovedad", options("1", "Afiliación nueva", "2", "Reactivación"), null)
+                + button("frmCrear:j_idt400", "Guardar", "@form", "frmCrear:messages")
+                + "</form>";
+    }
+
+    private static String parentescoPanel(Map<String, String> params) {
+        String panel = "CH".equals(params.get("frmCrear:tipoAfiliado_input"))
+                ? ""
+                : selectOneMenu("frmCrear:parentesco", options("HI", "Hijo(a)", "CO", "Cónyuge", "PA", "Padre/Madre"), null);
+        return "<div id=\"frmCrear:pnlParentesco\">" + panel + "</div>";
+    }
+
+    private static String ageLabel(Map<String, String> params) {
+        String birthDate = params.getOrDefault("frmCrear:fechaNacimiento_input", "");
+        String age = birthDate.matches("\\d{4}-\\d{2}-\\d{2}")
+                ? String.valueOf(Period.between(LocalDate.parse(birthDate), LocalDate.now()).getYears())
+                : "";
+        return "<span id=\"frmCrear:edad\">" + age + "</span>";
+    }
+
+    private static String addressDialog() {
+        return "<form id=\"frmDireccion\" name=\"frmDireccion\" method=\"post\">"
+                + "<input type=\"hidden\" name=\"frmDireccion\" value=\"frmDireccion\">"
+                + selectOneMenu("frmDireccion:j_idt864", options("SD", "Sin Dirección", "CL", "Calle", "KR", "Carrera"), null)
+                + selectOneMenu("frmDireccion:j_idt874", options("A", "A", "B", "B"), null)
+                + selectOneMenu("frmDireccion:j_idt905", options("N", "Norte", "S", "Sur"), null)
+                + selectOneMenu("frmDireccion:j_idt913", options("A", "A", "B", "B"), null)
+                + selectOneMenu("frmDireccion:j_idt944", options("E", "Este", "O", "Oeste"), null)
+                + text("frmDireccion:numeroDirecion") + text("frmDireccion:placa") + text("frmDireccion:placa2")
+                + text("frmDireccion:j_idt953")
+                + button("frmDireccion:j_idt965", "Aceptar", "frmDireccion", "frmCrear:direccion")
+                + "</form>";
+    }
+
+    private static String barrioDialog(StubSession session) {
+        String field = MEDELLIN.equals(session.values.get("frmCrear:municipioAfiliacion_input"))
+                ? selectOneMenu("frmBarrio:selectBarrio", options("1", "El Poblado", "2", "Laureles"), null)
+                : text("frmBarrio:textBarrio");
+        return "<form id=\"frmBarrio\" name=\"frmBarrio\" method=\"post\">"
+                + "<input type=\"hidden\" name=\"frmBarrio\" value=\"frmBarrio\">"
+                + field
+                + button("frmBarrio:j_idt978", "Aceptar", "frmBarrio", "")
+                + "</form>";
+    }
+
+    private static String contactDialog() {
+        return "<form id=\"frmCrearContacto\" name=\"frmCrearContacto\" method=\"post\">"
+                + "<input type=\"hidden\" name=\"frmCrearContacto\" value=\"frmCrearContacto\">"
+                + selectOneMenu("frmCrearContacto:tipoContacto", options("T", "Telefono", "C", "Celular"), null)
+                + text("frmCrearContacto:numeroContacto")
+                + button("frmCrearContacto:j_idt1063", "Guardar", "frmCrearContacto", "")
+                + "</form>";
+    }
+
+    private static List<String> suggestions(String source) {
+        return source.equals("frmCrear:municipioAfiliacion")
+                ? List.of("BOGOTÁ D.C. - BOGOTÁ", MEDELLIN, "CALI - VALLE DEL CAUCA")
+                : List.of("EPS Sura", "EPS Sanitas", "Nueva EPS", "Salud Total");
+    }
+
+    // --- Marcado estilo PrimeFaces ---
+
+    private static Map<String, String> options(String... valueLabelPairs) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < valueLabelPairs.length; i += 2) {
+            options.put(valueLabelPairs[i], valueLabelPairs[i + 1]);
+        }
+        return options;
+    }
+
+    private static String selectOneMenu(String id, Map<String, String> options, String changeUpdate) {
+        StringBuilder html = new StringBuilder("<div id=\"" + id + "\" class=\"ui-selectonemenu ui-widget\">"
+                + "<div class=\"ui-helper-hidden-accessible\"><select id=\"" + id + "_input\" name=\"" + id + "_input\">"
+                + "<option value=\"\">--</option>");
+        options.forEach((value, label) -> html.append("<option value=\"").append(value).append("\">")
+                .append(label).append("</option>"));
+        html.append("</select></div><label id=\"").append(id).append("_label\" class=\"ui-selectonemenu-label\">--</label>")
+                .append("<div class=\"ui-selectonemenu-trigger\"><span class=\"ui-icon ui-icon-triangle-1-s\"></span></div></div>")
+                .append(widgetScript("SelectOneMenu", id, "change", changeUpdate == null ? id : changeUpdate));
+        return html.toString();
+    }
+
+    private static String calendar(String id, String dateSelectUpdate) {
+        return "<span id=\"" + id + "\" class=\"ui-calendar\"><input id=\"" + id + "_input\" name=\"" + id
+                + "_input\" type=\"text\" class=\"ui-inputfield hasDatepicker\" value=\"\"></span>"
+                + (dateSelectUpdate == null ? "" : widgetScript("Calendar", id, "dateSelect", dateSelectUpdate));
+    }
+
+    private static String autoCompleteInput(String id) {
+        return "<span id=\"" + id + "\" class=\"ui-autocomplete\">"
+                + "<input id=\"" + id + "_input\" name=\"" + id + "_input\" type=\"text\" class=\"ui-autocomplete-input\" value=\"\">"
+                + "<input id=\"" + id + "_hinput\" name=\"" + id + "_hinput\" type=\"hidden\" value=\"\">"
+                + "<div id=\"" + id + "_panel\" class=\"ui-autocomplete-panel\"></div></span>"
+                + widgetScript("AutoComplete", id, "itemSelect", id);
+    }
+
+    private static String autoComplete(String id, List<String> labels) {
+        StringBuilder html = new StringBuilder("<ul class=\"ui-autocomplete-items ui-autocomplete-list\">");
+        for (int i = 0; i < labels.size(); i++) {
+            html.append("<li class=\"ui-autocomplete-item ui-autocomplete-list-item\" data-item-value=\"")
+                    .append(i + 1).append("\" data-item-label=\"").append(labels.get(i)).append("\">")
+                    .append(labels.get(i)).append("</li>");
+        }
+        return html.append("</ul>").toString();
+    }
+
+    private static String checkbox(String id) {
+        return "<div id=\"" + id + "\" class=\"ui-chkbox ui-widget\"><div class=\"ui-helper-hidden-accessible\">"
+                + "<input id=\"" + id + "_input\" name=\"" + id + "_input\" type=\"checkbox\"></div>"
+                + "<div class=\"ui-chkbox-box ui-widget ui-state-default\"></div></div>";
+    }
+
+    private static String text(String id) {
+        return "<input id=\"" + id + "\" name=\"" + id + "\" type=\"text\" class=\"ui-inputfield\" value=\"\">";
+    }
+
+    private static String hidden(String name, String value) {
+        return "<input type=\"hidden\" name=\"" + name + "\" id=\"j_id1:" + name + ":0\" value=\"" + value + "\" autocomplete=\"off\">";
+    }
+
+    private static String button(String id, String label, String process, String update) {
+        String form = id.substring(0, id.indexOf(':'));
+        String ab = "PrimeFaces.ab({s:&quot;" + id + "&quot;,f:&quot;" + form + "&quot;,p:&quot;"
+                + ("@this".equals(process) ? id : "@form".equals(process) ? form : process)
+                + "&quot;,u:&quot;" + update + "&quot;});return false;";
+        return "<button id=\"" + id + "\" name=\"" + id + "\" class=\"ui-button ui-widget\" onclick=\"" + ab
+                + "\" type=\"submit\"><span class=\"ui-button-text ui-c\">" + label + "</span></button>";
+    }
+
+    private static String widgetScript(String widget, String id, String event, String update) {
+        String form = id.substring(0, id.indexOf(':'));
+        return "<script id=\"" + id + "_s\">PrimeFaces.cw(\"" + widget + "\",\"widget_" + id.replace(':', '_')
+                + "\",{id:\"" + id + "\",behaviors:{" + event + ":function(ext,event){PrimeFaces.ab({s:\"" + id
+                + "\",e:\"" + event + "\",f:\"" + form + "\",p:\"" + id + "\",u:\"" + update + "\"},ext);}}});</script>";
+    }
+
+    // --- HTTP ---
+
+    private StubSession session(HttpExchange exchange) {
+        String cookies = exchange.getRequestHeaders().getFirst("Cookie");
+        if (cookies != null) {
+            for (String cookie : cookies.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals(SESSION_COOKIE) && sessions.containsKey(pair[1])) {
+                    return sessions.get(pair[1]);
+                }
+            }
+        }
+        String id = UUID.randomUUID().toString().replace("-", "");
+        StubSession session = new StubSession();
+        sessions.put(id, session);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + id + "; Path=" + CONTEXT + "; HttpOnly");
+        return session;
+    }
+
+    private static Map<String, String> parseForm(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Map<String, String> params = new HashMap<>();
+        for (String pair : body.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            String[] keyValue = pair.split("=", 2);
+            params.put(URLDecoder.decode(keyValue[0], StandardCharsets.UTF_8),
+                    keyValue.length > 1 ? URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8) : "");
+        }
+        return params;
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Fila de la lista de afiliados.
+     */
+    private record ListedAffiliate(String documentType, String document, String name) {
+    }
+
+    /**
+     * Estado de una sesión HTTP (equivalente a la sesión y la vista JSF del servidor real).
+     */
+    private static final class StubSession {
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean authenticated;
+        private String viewState = "";
+        private final Map<String, String> values = new HashMap<>();
+        private String address;
+        private String barrio;
+        private String contact;
+
+        void resetForm() {
+            values.clear();
+            address = null;
+            barrio = null;
+            contact = null;
+        }
+    }
+}
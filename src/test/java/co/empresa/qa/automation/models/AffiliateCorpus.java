@@ -0,0 +1,265 @@
+package co.empresa.qa.automation.models;
+
+import com.github.javafaker.Faker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Corpus de afiliados pregenerados: se producen en paralelo, fuera de la ventana medida de las pruebas, a un archivo
+ * TSV comprimido con GZIP (una línea por afiliado) y se leen de vuelta en streaming, sin cargarlos en memoria.
+ * <p>
+ * La generación es determinista: el afiliado {@code i} sale de la semilla {@code mix(seed, i)}, independiente del hilo
+ * que lo genere, así que {@link #generate(long, long)} reproduce cualquier afiliado que haya fallado (el mismo día:
+ * edades y fechas son relativas a hoy). Al leer, la edad se recalcula y las fechas de afiliación se trasladan al mes
+ * actual si el corpus se generó en otro mes. El número de documento también se reemplaza al leer por uno de
+ * {@link DocumentNumberAllocator}, para que releer el mismo corpus no repita afiliados ya creados.
+ * <p>
+ * Uso: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=co.empresa.qa.automation.models.AffiliateCorpus -Dexec.args="target/afiliados.tsv.gz 1000000 42"}
+ *
+ * @author David
+ */
+public final class AffiliateCorpus {
+    private static final Logger log = LoggerFactory.getLogger(AffiliateCorpus.class);
+
+    private static final String MAGIC = "# savia-affiliates v1";
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int FIELD_COUNT = 21;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    /**
+     * Generador por hilo: el {@code Faker} se construye una sola vez (es costoso) sobre un {@code Random}
+     * que se vuelve a sembrar para cada afiliado.
+     */
+    private static final ThreadLocal<SeededGenerator> GENERATOR = ThreadLocal.withInitial(SeededGenerator::new);
+
+    private AffiliateCorpus() {
+        // Utilidad: no instanciable
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Uso: AffiliateCorpus <archivo.tsv.gz> <cantidad> [semilla]");
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        write(Path.of(args[0]), Long.parseLong(args[1]), seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Reproduce el afiliado {@code index} de un corpus generado con {@code seed}.
+     */
+    public static AffiliateData generate(long seed, long index) {
+        return GENERATOR.get().generate(mix(seed, index));
+    }
+
+    /**
+     * Genera {@code size} afiliados con {@code threads} hilos y los escribe en orden de índice.
+     * Los bloques se generan en paralelo y se escriben a medida que terminan, con memoria acotada.
+     */
+    public static void write(Path file, long size, long seed, int threads) {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), 1 << 16), StandardCharsets.UTF_8))) {
+            out.write(MAGIC + "\tseed=" + seed + "\tsize=" + size + "\tmonth=" + YearMonth.now() + "\n");
+
+            long chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            int window = threads * 2;
+            for (long first = 0; first < chunks; first += window) {
+                List<Future<String>> pending = new ArrayList<>();
+                for (long chunk = first; chunk < Math.min(first + window, chunks); chunk++) {
+                    long from = chunk * CHUNK_SIZE;
+                    long to = Math.min(from + CHUNK_SIZE, size);
+                    pending.add(executor.submit(() -> encodeRange(seed, from, to)));
+                }
+                for (Future<String> block : pending) {
+                    out.write(block.get());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el corpus " + file, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generación del corpus interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló la generación del corpus", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("📚 Corpus {} generado: {} afiliados, semilla={}, {} ms ({} afiliados/s)",
+                file, size, seed, millis, size * 1000 / millis);
+    }
+
+    /**
+     * Semilla con la que se generó el corpus (de su cabecera): con {@link #generate(long, long)} reproduce el afiliado
+     * de cualquier posición.
+     */
+    public static long seed(Path file) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(MAGIC)) {
+                throw new IllegalStateException("❌ " + file + " no es un corpus de afiliados");
+            }
+            return Long.parseLong(headerValue(header, "seed"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el corpus " + file, e);
+        }
+    }
+
+    /**
+     * Lee el corpus de forma perezosa. El stream debe cerrarse (try-with-resources) para liberar el archivo.
+     */
+    public static Stream<AffiliateData> stream(Path file) {
+        return stream(file, DocumentNumberAllocator.getInstance());
+    }
+
+    /**
+     * Como {@link #stream(Path)}, con los números de documento de {@code numbers} (p. ej. uno con estado propio en
+     * benchmarks y pruebas sin Savia, que no deben gastar los del carril real).
+     */
+    public static Stream<AffiliateData> stream(Path file, DocumentNumberAllocator numbers) {
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file), 1 << 16), StandardCharsets.UTF_8));
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(MAGIC)) {
+                reader.close();
+                throw new IllegalStateException("❌ " + file + " no es un corpus de afiliados");
+            }
+            YearMonth generatedIn = YearMonth.parse(headerValue(header, "month"));
+            log.info("📚 Leyendo corpus {} ({})", file, header.substring(MAGIC.length()).trim());
+            return reader.lines()
+                    .map(line -> decode(line, generatedIn))
+                    // El tipo de documento depende de la edad recalculada: el número se asigna después de decodificar
+                    .map(affiliate -> affiliate.withDocumentNumber(numbers.next(affiliate.documentType())))
+                    .onClose(() -> {
+                        try {
+                            reader.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el corpus " + file, e);
+        }
+    }
+
+    /**
+     * Semilla del afiliado {@code index}: mezcla de bits (SplitMix64) para que índices consecutivos no
+     * produzcan secuencias correlacionadas.
+     */
+    static long mix(long seed, long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String encodeRange(long seed, long from, long to) {
+        StringBuilder block = new StringBuilder((int) (to - from) * 256);
+        for (long index = from; index < to; index++) {
+            encode(generate(seed, index), block);
+        }
+        return block.toString();
+    }
+
+    static void encode(AffiliateData affiliate, StringBuilder line) {
+        Object[] fields = {
+                affiliate.birthDate(), affiliate.documentNumber(), affiliate.expeditionDate(),
+                affiliate.firstName(), affiliate.lastName(), affiliate.nationality(), affiliate.email(),
+                affiliate.phone(), affiliate.municipality(), affiliate.serialBDUA(), affiliate.ipsPrimary(),
+                affiliate.hasDisability(), affiliate.SGSSSAfiliationDate(), affiliate.EPSSAfiliationDate(),
+                affiliate.hasBDUA(), affiliate.lgbtiq(), affiliate.dirNumber(), affiliate.barrio(),
+                affiliate.celular(), affiliate.disabilityStartDate(), affiliate.disabilityEndDate()
+        };
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            if (fields[i] != null) {
+                // Faker no genera tabuladores ni saltos de línea, pero se blindan por si acaso
+                line.append(fields[i].toString().replace('\t', ' ').replace('\n', ' '));
+            }
+        }
+        line.append('\n');
+    }
+
+    static AffiliateData decode(String line, YearMonth generatedIn) {
+        String[] f = line.split("\t", -1);
+        if (f.length != FIELD_COUNT) {
+            throw new IllegalStateException("Línea de corpus con " + f.length + " campos (esperados " + FIELD_COUNT + ")");
+        }
+        String birthDate = f[0];
+        return new AffiliateData(
+                birthDate,
+                AffiliateData.calculateAge(birthDate), // la edad cambia con el tiempo: se recalcula al leer
+                f[1], f[2], f[3], f[4], f[5], f[6], f[7], f[8], f[9], f[10],
+                Boolean.parseBoolean(f[11]),
+                rebaseToCurrentMonth(f[12], generatedIn),
+                rebaseToCurrentMonth(f[13], generatedIn),
+                Boolean.parseBoolean(f[14]),
+                Boolean.parseBoolean(f[15]),
+                f[16], f[17], f[18],
+                f[19].isEmpty() ? null : f[19],
+                f[20].isEmpty() ? null : f[20]
+        );
+    }
+
+    /**
+     * Las fechas de afiliación deben caer en el mes actual (hasta hoy): si el corpus es de otro mes
+     * se conserva el día, acotado a la fecha de hoy.
+     */
+    private static String rebaseToCurrentMonth(String date, YearMonth generatedIn) {
+        LocalDate today = LocalDate.now();
+        if (date.isEmpty() || generatedIn.equals(YearMonth.from(today))) {
+            return date;
+        }
+        int day = Math.min(LocalDate.parse(date, DATE_FORMAT).getDayOfMonth(), today.getDayOfMonth());
+        return today.withDayOfMonth(day).format(DATE_FORMAT);
+    }
+
+    private static String headerValue(String header, String key) {
+        for (String part : header.split("\t")) {
+            if (part.startsWith(key + "=")) {
+                return part.substring(key.length() + 1);
+            }
+        }
+        throw new IllegalStateException("Cabecera de corpus sin '" + key + "': " + header);
+    }
+
+    private static final class SeededGenerator {
+        private final Random random = new Random();
+        private final Faker faker = new Faker(AffiliateDataGenerator.LOCALE, random);
+
+        AffiliateData generate(long seed) {
+            random.setSeed(seed);
+            return AffiliateDataGenerator.generateRandomAffiliate(faker, random);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package co.empresa.qa.automation.models;
 
+import co.empresa.qa.automation.utils.RunRandom;
+
 import java.time.LocalDate;
 import java.time.Period;
 import java.time.format.DateTimeFormatter;
@@ -36,7 +38,6 @@ public record AffiliateData(
         String disabilityStartDate,
         String disabilityEndDate
 ) {
-    private static final Random RANDOM = new Random();
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     public AffiliateData {
@@ -85,6 +86,36 @@ public record AffiliateData(
             String dirNumber,
             String barrio,
             String celular
+    ) {
+        return of(birthDate, documentNumber, expeditionDate, firstName, lastName, nationality, email, phone,
+                municipality, serialBDUA, ipsPrimary, hasDisability, SGSSSAfiliationDate, EPSSAfiliationDate,
+                hasBDUA, lgbtiq, dirNumber, barrio, celular, RunRandom.random());
+    }
+
+    /**
+     * Igual que {@link #of}, pero las fechas de discapacidad salen del {@code Random} dado (generación reproducible).
+     */
+    public static AffiliateData of(
+            String birthDate,
+            String documentNumber,
+            String expeditionDate,
+            String firstName,
+            String lastName,
+            String nationality,
+            String email,
+            String phone,
+            String municipality,
+            String serialBDUA,
+            String ipsPrimary,
+            boolean hasDisability,
+            String SGSSSAfiliationDate,
+            String EPSSAfiliationDate,
+            boolean hasBDUA,
+            boolean lgbtiq,
+            String dirNumber,
+            String barrio,
+            String celular,
+            Random random
     ) {
         int age = calculateAge(birthDate);
 
@@ -92,8 +123,8 @@ public record AffiliateData(
         String discEnd = null;
         if (hasDisability) {
             LocalDate today = LocalDate.now();
-            LocalDate start = today.minusYears(1 + RANDOM.nextInt(10)); // 1-10 años atrás
-            LocalDate end = today.plusYears(1 + RANDOM.nextInt(5));     // 1-5 años adelante
+            LocalDate start = today.minusYears(1 + random.nextInt(10)); // 1-10 años atrás
+            LocalDate end = today.plusYears(1 + random.nextInt(5));     // 1-5 años adelante
             discStart = start.format(DATE_FORMAT);
             discEnd = end.format(DATE_FORMAT);
         }
@@ -129,6 +160,15 @@ public record AffiliateData(
         return Period.between(birthDate, LocalDate.now()).getYears();
     }
 
+    /**
+     * Copia del afiliado con otro número de documento (p. ej. uno asignado por {@link DocumentNumberAllocator}).
+     */
+    public AffiliateData withDocumentNumber(String number) {
+        return new AffiliateData(birthDate, age, number, expeditionDate, firstName, lastName, nationality, email,
+                phone, municipality, serialBDUA, ipsPrimary, hasDisability, SGSSSAfiliationDate, EPSSAfiliationDate,
+                hasBDUA, lgbtiq, dirNumber, barrio, celular, disabilityStartDate, disabilityEndDate);
+    }
+
     public String documentType() {
         if (age < 7) return "RC";
         if (age < 18) return "TI";
@@ -1,5 +1,6 @@
 package co.empresa.qa.automation.models;
 
+import co.empresa.qa.automation.utils.RunRandom;
 import com.github.javafaker.Faker;
 
 import java.time.LocalDate;
@@ -21,18 +22,43 @@ import java.util.Random;
 
 public class AffiliateDataGenerator {
 
-    private static final Faker FAKER = new Faker(new Locale("es", "CO"));
-    private static final Random RANDOM = new Random();
+    /**
+     * Locale del {@code Faker} con el que se generan afiliados ({@link RunRandom} y {@code AffiliateCorpus}).
+     */
+    public static final Locale LOCALE = Locale.of("es", "CO");
+
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    /**
+     * Genera un afiliado con el {@code Faker} y el {@code Random} del hilo ({@link RunRandom}) y número de documento
+     * único asignado por {@link DocumentNumberAllocator}, para no chocar con afiliados ya creados en Savia.
+     */
     public static AffiliateData generateRandomAffiliate() {
-        // 1. Fecha de nacimiento (0 a 80 años)
-        LocalDate birthDate = FAKER.date().birthday(0, 80)
-                .toInstant()
-                .atZone(java.time.ZoneId.systemDefault())
-                .toLocalDate();
-        String birthDateStr = birthDate.format(DATE_FORMAT);
+        return generateRandomAffiliate(DocumentNumberAllocator.getInstance());
+    }
+
+    /**
+     * Como {@link #generateRandomAffiliate()}, con el número de documento de {@code numbers}: las pruebas que no van
+     * contra Savia usan uno con estado propio para no gastar los números del carril real.
+     */
+    public static AffiliateData generateRandomAffiliate(DocumentNumberAllocator numbers) {
+        AffiliateData affiliate = generateRandomAffiliate(RunRandom.faker(), RunRandom.random());
+        return affiliate.withDocumentNumber(numbers.next(affiliate.documentType()));
+    }
+
+    /**
+     * Genera un afiliado usando solo el {@code Faker} y el {@code Random} dados: con la misma semilla se obtiene
+     * el mismo afiliado (ver {@link AffiliateCorpus}). Ninguno de los dos es seguro entre hilos.
+     * El número de documento es aleatorio y puede repetirse: quien cree el afiliado en Savia debe reemplazarlo
+     * con {@link AffiliateData#withDocumentNumber}.
+     */
+    public static AffiliateData generateRandomAffiliate(Faker faker, Random random) {
+        // 1. Fecha de nacimiento (0 a 80 años). Se sortea en días y no con faker.date().birthday(),
+        //    que parte de la hora actual en milisegundos y rompería la reproducibilidad por semilla
         LocalDate today = LocalDate.now();
+        LocalDate oldest = today.minusYears(80);
+        LocalDate birthDate = oldest.plusDays(random.nextLong(ChronoUnit.DAYS.between(oldest, today) + 1));
+        String birthDateStr = birthDate.format(DATE_FORMAT);
         int age = Period.between(birthDate, today).getYears();
 
         // 2. ✅ Fecha de expedición: respetando reglas por tipo de documento
@@ -44,7 +70,7 @@ public class AffiliateDataGenerator {
                 expeditionDateStr = today.format(DATE_FORMAT); // fallback seguro
             } else {
                 long days = ChronoUnit.DAYS.between(minExpedition, today);
-                LocalDate expeditionDate = minExpedition.plusDays(RANDOM.nextLong(days + 1));
+                LocalDate expeditionDate = minExpedition.plusDays(random.nextLong(days + 1));
                 expeditionDateStr = expeditionDate.format(DATE_FORMAT);
             }
         } else {
@@ -55,24 +81,24 @@ public class AffiliateDataGenerator {
         // 3. ✅ Fecha de afiliación: solo este mes (1° hasta hoy)
         LocalDate firstDayOfMonth = today.withDayOfMonth(1);
         long daysInMonthSoFar = ChronoUnit.DAYS.between(firstDayOfMonth, today);
-        LocalDate affiliationDate = firstDayOfMonth.plusDays(RANDOM.nextLong(daysInMonthSoFar + 1));
+        LocalDate affiliationDate = firstDayOfMonth.plusDays(random.nextLong(daysInMonthSoFar + 1));
         String affiliationDateStr = affiliationDate.format(DATE_FORMAT);
 
         // 4. Número de documento según edad y normativa colombiana
         String documentNumber;
         if (age < 7) {
             // RC: 10 a 11 dígitos
-            if (RANDOM.nextBoolean()) {
-                documentNumber = String.valueOf(FAKER.number().numberBetween(1_000_000_000L, 9_999_999_999L)); // 10 dígitos
+            if (random.nextBoolean()) {
+                documentNumber = String.valueOf(faker.number().numberBetween(1_000_000_000L, 9_999_999_999L)); // 10 dígitos
             } else {
-                documentNumber = String.valueOf(FAKER.number().numberBetween(10_000_000_000L, 99_999_999_999L)); // 11 dígitos
+                documentNumber = String.valueOf(faker.number().numberBetween(10_000_000_000L, 99_999_999_999L)); // 11 dígitos
             }
         } else if (age < 18) {
             // TI: 9 a 10 dígitos (común: 10)
-            documentNumber = String.valueOf(FAKER.number().numberBetween(100_000_000L, 9_999_999_999L));
+            documentNumber = String.valueOf(faker.number().numberBetween(100_000_000L, 9_999_999_999L));
         } else {
             // CC: 10 dígitos (estándar actual)
-            documentNumber = String.valueOf(FAKER.number().numberBetween(1_000_000_000L, 9_999_999_999L));
+            documentNumber = String.valueOf(faker.number().numberBetween(1_000_000_000L, 9_999_999_999L));
         }
 
         // 5. Crear afiliado
@@ -80,22 +106,23 @@ public class AffiliateDataGenerator {
                 birthDateStr,
                 documentNumber,
                 expeditionDateStr,
-                FAKER.name().firstName(),
-                FAKER.name().lastName(),
+                faker.name().firstName(),
+                faker.name().lastName(),
                 "COLOMBIA",
-                FAKER.internet().emailAddress(),
-                FAKER.phoneNumber().cellPhone(),
-                FAKER.address().city(),
-                FAKER.number().digits(8), // SerialBDUA
-                "IPS " + FAKER.company().name(),
-                RANDOM.nextBoolean(), // hasDisability
+                faker.internet().emailAddress(),
+                faker.phoneNumber().cellPhone(),
+                faker.address().city(),
+                faker.number().digits(8), // SerialBDUA
+                "IPS " + faker.company().name(),
+                random.nextBoolean(), // hasDisability
                 affiliationDateStr,   // SGSSSAfiliationDate
                 affiliationDateStr,   // EPSSAfiliationDate
-                RANDOM.nextBoolean(), // hasBDUA
-                RANDOM.nextBoolean(), // lgbtiq
-                FAKER.number().digits(2), // dirNumber
-                FAKER.address().streetName(), // barrio
-                FAKER.number().digits(7) // celular
+                random.nextBoolean(), // hasBDUA
+                random.nextBoolean(), // lgbtiq
+                faker.number().digits(2), // dirNumber
+                faker.address().streetName(), // barrio
+                faker.number().digits(7), // celular
+                random
         );
     }
 }
\ No newline at end of file
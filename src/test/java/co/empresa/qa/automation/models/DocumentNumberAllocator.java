@@ -0,0 +1,230 @@
+package co.empresa.qa.automation.models;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Asigna números de documento únicos, sin repetir entre hilos, entre JVMs (forks de Surefire, agentes en paralelo
+ * sobre la misma máquina) ni entre ejecuciones. Cada tipo tiene un rango propio con la longitud que exige su regla
+ * (RC 11 dígitos, TI 9, CC 10), disjunto de los demás.
+ * <p>
+ * Cada JVM arrienda bloques de números del archivo de estado ({@code document.allocator.state}) bajo un bloqueo de
+ * archivo, y dentro del bloque los reparte con un contador atómico, sin bloqueos. Los números no usados de un bloque
+ * se pierden al terminar: nunca se reutilizan.
+ * <p>
+ * El archivo de estado es local: una máquina nueva, un contenedor de CI o un agente de shard empiezan sin él. Para no
+ * volver a emitir números que otra máquina ya creó en Savia, cada rango se divide en {@link #LANES} carriles y cada
+ * agente usa el suyo ({@code document.allocator.lane}, o el hash de {@code document.allocator.agent}: host más índice
+ * de shard). Un carril sin estado no empieza en su base sino en una posición que avanza {@link #FRESH_RATE} números
+ * por segundo de reloj, así que dos estados nuevos del mismo carril quedan separados por el tiempo entre ambos.
+ * <p>
+ * Límites: dos agentes simultáneos en el mismo carril (hash coincidente; se evita fijando
+ * {@code document.allocator.lane}) pueden repetir números, igual que un estado nuevo que arranca menos de
+ * consumidos/{@link #FRESH_RATE} segundos después de otro del mismo carril. La posición inicial da la vuelta al
+ * carril cada tamaño/{@link #FRESH_RATE} segundos (TI, el menor: ~72 días). Un carril agotado no vuelve a su inicio:
+ * falla con {@link IllegalStateException} hasta que se fije otro carril.
+ *
+ * @author David
+ */
+public final class DocumentNumberAllocator {
+    private static final Logger log = LoggerFactory.getLogger(DocumentNumberAllocator.class);
+
+    /**
+     * Rangos por tipo de documento. Empiezan en 9… para alejarse de los números ya sorteados al azar por
+     * versiones anteriores del generador, que se concentran en la parte baja de cada longitud.
+     */
+    private static final Map<String, Range> RANGES = Map.of(
+            "RC", new Range(90_000_000_000L, 99_999_999_999L),
+            "TI", new Range(900_000_000L, 999_999_999L),
+            "CC", new Range(9_000_000_000L, 9_999_999_999L)
+    );
+
+    /**
+     * Carriles en que se divide cada rango; cada agente arrienda solo del suyo.
+     */
+    static final int LANES = 16;
+
+    /**
+     * Números por segundo que avanza la posición inicial de un carril sin estado.
+     */
+    static final long FRESH_RATE = 1;
+
+    /**
+     * Origen del reloj de {@link #FRESH_RATE}.
+     */
+    private static final long FRESH_EPOCH_SECOND = Instant.parse("2026-01-01T00:00:00Z").getEpochSecond();
+
+    /**
+     * Los arriendos se serializan en toda la JVM: el bloqueo de archivo es por proceso, y cerrar cualquier canal
+     * sobre el archivo libera el bloqueo de los demás hilos.
+     */
+    private static final Object LEASE_LOCK = new Object();
+
+    private static final DocumentNumberAllocator INSTANCE = new DocumentNumberAllocator(
+            Path.of(ConfigManager.getDocumentAllocatorState()),
+            ConfigManager.getDocumentAllocatorBlock(),
+            ConfigManager.getDocumentAllocatorLane()
+                    .orElseGet(() -> Math.floorMod(ConfigManager.getDocumentAllocatorAgent().hashCode(), LANES))
+    );
+
+    private final Path stateFile;
+    private final int blockSize;
+    private final int lane;
+    private final Map<String, AtomicReference<Block>> blocks = Map.of(
+            "RC", new AtomicReference<>(Block.EMPTY),
+            "TI", new AtomicReference<>(Block.EMPTY),
+            "CC", new AtomicReference<>(Block.EMPTY)
+    );
+
+    /**
+     * Asignador con estado propio; el compartido es {@link #getInstance()}.
+     */
+    public DocumentNumberAllocator(Path stateFile, int blockSize, int lane) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("document.allocator.block debe ser >= 1, dado=" + blockSize);
+        }
+        if (lane < 0 || lane >= LANES) {
+            throw new IllegalArgumentException(
+                    "document.allocator.lane debe estar entre 0 y " + (LANES - 1) + ", dado=" + lane);
+        }
+        this.stateFile = stateFile;
+        this.blockSize = blockSize;
+        this.lane = lane;
+        log.debug("🔢 Carril de documentos {} de {}", lane, LANES);
+    }
+
+    public static DocumentNumberAllocator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Siguiente número libre para el tipo de documento ("RC", "TI" o "CC").
+     */
+    public String next(String documentType) {
+        AtomicReference<Block> current = blocks.get(documentType);
+        if (current == null) {
+            throw new IllegalArgumentException("Tipo de documento sin rango asignado: " + documentType);
+        }
+        while (true) {
+            Block block = current.get();
+            long number = block.next.getAndIncrement();
+            if (number <= block.last) {
+                return String.valueOf(number);
+            }
+            // Bloque agotado: solo un hilo arrienda el siguiente; los demás reintentan con el nuevo
+            synchronized (LEASE_LOCK) {
+                if (current.get() == block) {
+                    current.set(lease(documentType));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserva el siguiente bloque del tipo en el carril, con bloqueo exclusivo entre procesos. El estado se guarda por
+     * tipo y carril ({@code CC.3}), para que agentes de distintos carriles compartan el archivo sin pisarse.
+     */
+    private Block lease(String documentType) {
+        Range range = RANGES.get(documentType).lane(lane);
+        String key = documentType + "." + lane;
+        try {
+            Files.createDirectories(stateFile.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(stateFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                Properties state = read(channel);
+                // Sin estado del carril (o con uno ajeno a él) se empieza en la posición del reloj, no en la base
+                long stored = Long.parseLong(state.getProperty(key, "0"));
+                long first = range.contains(stored) ? stored : range.fresh(Instant.now().getEpochSecond());
+                if (first > range.last()) {
+                    // Volver al inicio repetiría números ya emitidos
+                    throw new IllegalStateException("❌ Carril " + lane + " de documentos " + documentType
+                            + " agotado en " + stateFile + ": fije otro document.allocator.lane");
+                }
+                long last = Math.min(first + blockSize - 1, range.last());
+                state.setProperty(key, String.valueOf(last + 1));
+                write(channel, state);
+                log.debug("🔢 Bloque de documentos {} arrendado: {}-{}", documentType, first, last);
+                return new Block(first, last);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo actualizar el estado de documentos " + stateFile, e);
+        }
+    }
+
+    private static Properties read(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        channel.read(buffer, 0);
+        Properties state = new Properties();
+        state.load(new StringReader(new String(buffer.array(), StandardCharsets.ISO_8859_1)));
+        return state;
+    }
+
+    private static void write(FileChannel channel, Properties state) throws IOException {
+        StringWriter text = new StringWriter();
+        state.store(text, "Siguiente numero libre por tipo de documento (no editar durante una ejecucion)");
+        byte[] bytes = text.toString().getBytes(StandardCharsets.ISO_8859_1);
+        channel.truncate(0);
+        channel.write(ByteBuffer.wrap(bytes), 0);
+        channel.force(true);
+    }
+
+    private record Range(long first, long last) {
+
+        /**
+         * Subrango del carril {@code lane}; el último absorbe el resto de la división.
+         */
+        Range lane(int lane) {
+            long size = (last - first + 1) / LANES;
+            long laneFirst = first + lane * size;
+            return new Range(laneFirst, lane == LANES - 1 ? last : laneFirst + size - 1);
+        }
+
+        /**
+         * El siguiente libre guardado puede valer {@code last + 1} (carril agotado).
+         */
+        boolean contains(long next) {
+            return next >= first && next <= last + 1;
+        }
+
+        /**
+         * Posición inicial de un carril sin estado en el segundo {@code epochSecond}.
+         */
+        long fresh(long epochSecond) {
+            return first + Math.floorMod((epochSecond - FRESH_EPOCH_SECOND) * FRESH_RATE, last - first + 1);
+        }
+    }
+
+    /**
+     * Bloque arrendado: {@code next} puede pasarse de {@code last} cuando varios hilos lo agotan a la vez.
+     */
+    private static final class Block {
+        static final Block EMPTY = new Block(1, 0);
+
+        private final AtomicLong next;
+        private final long last;
+
+        Block(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package co.empresa.qa.automation.pages.aseg_afiliados;
 
+import co.empresa.qa.automation.infrastructure.AdaptiveTimeouts;
 import co.empresa.qa.automation.models.AffiliateData;
 import co.empresa.qa.automation.utils.AutoCompleteSelect;
+import co.empresa.qa.automation.utils.JsfIds;
 import co.empresa.qa.automation.utils.PrimeFacesSelect;
+import co.empresa.qa.automation.utils.RaceWait;
 import com.codeborne.selenide.SelenideElement;
+import org.openqa.selenium.By;
 
 import java.time.Duration;
 import java.time.LocalDate;
@@ -18,6 +22,7 @@ import static com.codeborne.selenide.Selenide.$x;
  * incluyendo fechas, selecciones en dropdowns (con soporte para PrimeFaces), autocompletes, direcciones, contactos y más.
  * Gestiona lógica condicional (como dependencias entre campos) y finaliza con la acción de guardar.
  * Proporciona métodos para enviar el formulario y verificar si la operación fue exitosa.
+ * Los ids generados por JSF ({@code j_idtNNN}) de los diálogos pasan por {@link JsfIds}, que los cura si cambian.
  *
  * @author David
  */
@@ -26,11 +31,15 @@ public class AffiliateFormPage {
 
     private static final DateTimeFormatter MODEL_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter UI_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final Duration SAVE_RESULT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration AGE_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration BDUA_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration SAVE_BUTTON_TIMEOUT = Duration.ofSeconds(5);
 
     public AffiliateFormPage fillForm(AffiliateData affiliate) {
         // === DATOS PERSONALES ===
         setFormattedDate("#frmCrear\\:fechaNacimiento_input", affiliate.birthDate());
-        $("[id='frmCrear\\:edad']").shouldBe(visible, Duration.ofSeconds(5));
+        AdaptiveTimeouts.shouldBeVisible($("[id='frmCrear\\:edad']"), "form:edad", AGE_TIMEOUT);
 
         PrimeFacesSelect.selectOption("frmCrear:tipoDocumento", affiliate.documentTypeDisplay());
         PrimeFacesSelect.selectRandomOption("frmCrear:paisNacimiento");
@@ -58,9 +67,11 @@ public class AffiliateFormPage {
         }
 
         // === BDUA ===
-        SelenideElement bduaButton = $x("//div[@id='frmCrear:registraBDUA']").shouldBe(visible, Duration.ofSeconds(10));
-        String bduaText = $x("//div[@id='frmCrear:registraBDUA']//span[contains(@class, 'ui-button-text')]")
-                .shouldBe(visible, Duration.ofSeconds(10))
+        SelenideElement bduaButton = AdaptiveTimeouts.shouldBeVisible($x("//div[@id='frmCrear:registraBDUA']"),
+                "form:registraBDUA", BDUA_TIMEOUT);
+        String bduaText = AdaptiveTimeouts.shouldBeVisible(
+                        $x("//div[@id='frmCrear:registraBDUA']//span[contains(@class, 'ui-button-text')]"),
+                        "form:registraBDUA:texto", BDUA_TIMEOUT)
                 .text()
                 .trim();
 
@@ -93,18 +104,18 @@ public class AffiliateFormPage {
         $x("//form[@id='frmCrear']//button[@type='submit' and .//span[text()='Dirección']]")
                 .shouldBe(visible).click();
 
-        PrimeFacesSelect.selectRandomOptionExcluding("frmDireccion:j_idt864", "Sin Dirección");
-        PrimeFacesSelect.selectRandomOption("frmDireccion:j_idt874");
-        PrimeFacesSelect.selectRandomOption("frmDireccion:j_idt905");
-        PrimeFacesSelect.selectRandomOption("frmDireccion:j_idt913");
-        PrimeFacesSelect.selectRandomOption("frmDireccion:j_idt944");
+        PrimeFacesSelect.selectRandomOptionExcluding(JsfIds.resolve("frmDireccion:j_idt864"), "Sin Dirección");
+        PrimeFacesSelect.selectRandomOption(JsfIds.resolve("frmDireccion:j_idt874"));
+        PrimeFacesSelect.selectRandomOption(JsfIds.resolve("frmDireccion:j_idt905"));
+        PrimeFacesSelect.selectRandomOption(JsfIds.resolve("frmDireccion:j_idt913"));
+        PrimeFacesSelect.selectRandomOption(JsfIds.resolve("frmDireccion:j_idt944"));
 
         $("#frmDireccion\\:numeroDirecion").setValue(affiliate.dirNumber());
         $("#frmDireccion\\:placa").setValue(affiliate.dirNumber());
         $("#frmDireccion\\:placa2").setValue(affiliate.dirNumber());
-        $("#frmDireccion\\:j_idt953").setValue(affiliate.dirNumber());
+        $(By.id(JsfIds.resolve("frmDireccion:j_idt953"))).setValue(affiliate.dirNumber());
 
-        $x("//*[@id=\"frmDireccion:j_idt965\"]").shouldBe(visible).click();
+        $(By.id(JsfIds.resolve("frmDireccion:j_idt965"))).shouldBe(visible).click();
 
         // === BARRIO ===
         $x("//button[@type='submit' and .//span[text()='Barrio']]")
@@ -116,7 +127,7 @@ public class AffiliateFormPage {
             $("#frmBarrio\\:textBarrio").setValue(affiliate.barrio());
         }
 
-        $x("//*[@id=\"frmBarrio:j_idt978\"]").shouldBe(visible).click();
+        $(By.id(JsfIds.resolve("frmBarrio:j_idt978"))).shouldBe(visible).click();
 
         // === OTROS DATOS ===
         PrimeFacesSelect.selectRandomOption("frmCrear:zona");
@@ -131,7 +142,7 @@ public class AffiliateFormPage {
         String telefono = celular.startsWith("300") ? celular : "300" + celular;
         $("#frmCrearContacto\\:numeroContacto").setValue(telefono);
 
-        $x("//*[@id=\"frmCrearContacto:j_idt1063\"]").shouldBe(visible).click();
+        $(By.id(JsfIds.resolve("frmCrearContacto:j_idt1063"))).shouldBe(visible).click();
 
         // === IPS ATENCIÓN PRIMARIA ===
         PrimeFacesSelect.selectRandomOption("frmCrear:sedeIpsPrimaria");
@@ -174,18 +185,20 @@ public class AffiliateFormPage {
     }
 
     public void clickSave() {
-        $x("//button[.//span[normalize-space()='Guardar']]")
-                .shouldBe(visible, Duration.ofSeconds(5))
+        AdaptiveTimeouts.shouldBeVisible($x("//button[.//span[normalize-space()='Guardar']]"), "form:guardar",
+                        SAVE_BUTTON_TIMEOUT)
                 .click();
     }
 
+    /**
+     * Gana lo primero que aparezca: un error se detecta en cuanto se muestra, sin esperar el timeout del éxito
+     * (el aprendido por {@link AdaptiveTimeouts} o 10 s). El error se registra primero para que gane si ambos están
+     * visibles en el mismo sondeo.
+     */
     public boolean isSuccessMessageVisible() {
-        SelenideElement success = $x("//div[contains(@class, 'ui-messages-success')]//li");
-        SelenideElement error = $x("//div[contains(@class, 'ui-messages-error')]");
-
-        boolean successVisible = success.is(visible, Duration.ofSeconds(10));
-        boolean errorVisible = error.is(visible, Duration.ofSeconds(2));
-
-        return successVisible && !errorVisible;
+        RaceWait<Boolean> race = RaceWait.<Boolean>race()
+                .when(false, RaceWait.visibleXpath("//div[contains(@class, 'ui-messages-error')]"))
+                .when(true, RaceWait.visibleXpath("//div[contains(@class, 'ui-messages-success')]//li"));
+        return AdaptiveTimeouts.await("form:resultadoGuardar", SAVE_RESULT_TIMEOUT, race::await).orElse(false);
     }
 }
\ No newline at end of file
@@ -1,24 +1,38 @@
 package co.empresa.qa.automation.pages.aseg_afiliados;
 
+import co.empresa.qa.automation.flows.VerificationQueue;
+import co.empresa.qa.automation.infrastructure.AdaptiveTimeouts;
+import co.empresa.qa.automation.utils.JsfIds;
+import co.empresa.qa.automation.utils.PrimeFacesAjax;
 import com.codeborne.selenide.SelenideElement;
+import org.openqa.selenium.By;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
+import static com.codeborne.selenide.Condition.cssClass;
 import static com.codeborne.selenide.Condition.visible;
 import static com.codeborne.selenide.Selenide.$;
 import static com.codeborne.selenide.Selenide.$x;
+import static com.codeborne.selenide.Selenide.executeJavaScript;
 
 public class AffiliatesListPage {
 
+    private static final Duration RESULT_ROW_TIMEOUT = Duration.ofSeconds(8);
+
     /**
      * Página de lista de afiliados. Permite crear nuevos afiliados y buscar por número de documento.
-     * Los elementos se acceden mediante selectores fijos (XPath e ID) y se validan con condiciones de visibilidad.
+     * Los elementos se acceden mediante selectores fijos (XPath e ID) y se validan con condiciones de visibilidad;
+     * el botón Crear tiene id generado por JSF y se resuelve con {@link JsfIds}.
      *
      * @author David
      */
 
     public void clickCreate() {
-        $x("//*[@id=\"frmAfiliados:j_idt45\"]").shouldBe(visible).click();
+        $(By.id(JsfIds.resolve("frmAfiliados:j_idt45"))).shouldBe(visible).click();
     }
 
     /**
@@ -36,6 +50,39 @@ public class AffiliatesListPage {
                 "//tbody//td[contains(text(), '" + documentNumber + "')]"
         );
 
-        return resultRow.is(visible, Duration.ofSeconds(8));
+        return AdaptiveTimeouts.isVisible(resultRow, "lista:filaResultado", RESULT_ROW_TIMEOUT);
+    }
+
+    /**
+     * Busca por el prefijo de documento (vacío: sin filtro) y recorre la tabla de resultados página por página, leyendo
+     * todas las celdas de cada página con un solo script. Se detiene al encontrar todos los documentos, en la última
+     * página o tras {@code maxRows} filas, cualquiera que sea el tamaño de página de la tabla.
+     * @return los documentos de la lista que aparecen en la tabla y si se llegó a la última página
+     */
+    public VerificationQueue.Lookup findDocuments(String documentPrefix, Collection<String> documentNumbers, int maxRows) {
+        Set<String> pending = new HashSet<>(documentNumbers);
+        Set<String> found = new HashSet<>();
+        $("#frmBuscar\\:numeroDocumento").setValue(documentPrefix);
+        $x("//button[.//span[text()='Buscar']]").click();
+        PrimeFacesAjax.waitForIdle();
+
+        int seen = 0;
+        while (true) {
+            List<List<String>> rows = executeJavaScript("return Array.from(document.querySelectorAll('tbody tr[data-ri]'),"
+                    + " tr => Array.from(tr.cells, td => td.textContent.trim()));");
+            seen += rows.size();
+            rows.stream().flatMap(List::stream).filter(pending::remove).forEach(found::add);
+
+            SelenideElement next = $(".ui-paginator-next");
+            boolean lastPage = !next.exists() || next.has(cssClass("ui-state-disabled"));
+            if (pending.isEmpty() || lastPage) {
+                return new VerificationQueue.Lookup(found, true, seen);
+            }
+            if (seen >= maxRows) {
+                return new VerificationQueue.Lookup(found, false, seen);
+            }
+            next.click();
+            PrimeFacesAjax.waitForIdle();
+        }
     }
 }
\ No newline at end of file
@@ -1,21 +1,23 @@
 package co.empresa.qa.automation.pages.login;
 
 import co.empresa.qa.automation.steps.AllureSteps;
-import com.codeborne.selenide.Selenide;
+import co.empresa.qa.automation.utils.RaceWait;
 import com.codeborne.selenide.SelenideElement;
 
 import java.time.Duration;
+import java.util.Optional;
 
 import static com.codeborne.selenide.Condition.visible;
 import static com.codeborne.selenide.Selenide.$;
 import static com.codeborne.selenide.Selenide.$x;
-import static com.codeborne.selenide.WebDriverRunner.url;
 import static java.time.Duration.ofSeconds;
 
 /**
  * Página de inicio de sesión para la aplicación Savia.
  * Gestiona la entrada de credenciales, el clic en el botón de login y la validación
  * del resultado mediante presencia de elementos característicos (mensaje de error o fondo del home).
+ * El resultado se espera con {@link RaceWait}: gana lo primero que aparezca, así un login fallido
+ * se detecta en cuanto se muestra el error, sin agotar la espera del home (y viceversa).
  * Integra pasos de Allure para trazabilidad.
  *
  * @author David
@@ -23,18 +25,26 @@ import static java.time.Duration.ofSeconds;
 
 public class LoginPage {
 
-    private final SelenideElement usernameField = $("#login\\:usuario");
-    private final SelenideElement passwordField = $("#login\\:contrasena");
-    private final SelenideElement loginButton = $x("//span[text()='Ingresar']/ancestor::button[1]");
-
+    private static final String USERNAME_CSS = "#login\\:usuario";
     // ✅ Selector basado en el HTML real que me diste
-    private final SelenideElement errorGrowl = $x("//p[contains(text(), 'Usuario y/o Contraseña inválido')]");
-
+    private static final String ERROR_GROWL_XPATH = "//p[contains(text(), 'Usuario y/o Contraseña inválido')]";
     // Elemento del dashboard (fondo de home)
-    private final SelenideElement homeBackground = $("div[style*='home.png']");
+    private static final String HOME_BACKGROUND_CSS = "div[style*='home.png']";
+    private static final String HOME_PATH = "/home.faces";
+
+    private static final Duration LOGIN_TIMEOUT = ofSeconds(25);
+    private static final Duration ERROR_TIMEOUT = ofSeconds(10);
+    private static final Duration HOME_CHECK_TIMEOUT = ofSeconds(5);
+
+    private final SelenideElement usernameField = $(USERNAME_CSS);
+    private final SelenideElement passwordField = $("#login\\:contrasena");
+    private final SelenideElement loginButton = $x("//span[text()='Ingresar']/ancestor::button[1]");
+    private final SelenideElement errorGrowl = $x(ERROR_GROWL_XPATH);
 
     private final AllureSteps steps = new AllureSteps();
 
+    private enum LoginOutcome { HOME, ERROR, LOGIN_FORM }
+
     public LoginPage enterCredentials(String username, String password) {
         steps.enterCredentials(username); // ← paso en Allure
         usernameField.shouldBe(visible).setValue(username);
@@ -47,28 +57,47 @@ public class LoginPage {
         loginButton.shouldBe(visible).click();
     }
 
+    /**
+     * Espera la redirección a {@code /home.faces} con el fondo del home visible.
+     * Devuelve false en cuanto aparece el mensaje de credenciales inválidas.
+     */
     public boolean isLoginSuccessful() {
-        // Espera activa hasta 20s por la URL deseada
-        long start = System.currentTimeMillis();
-        while (System.currentTimeMillis() - start < 20000) {
-            if (url().contains("/home.faces")) {
-                return homeBackground.is(visible, Duration.ofSeconds(5));
-            }
-            Selenide.sleep(500);
-        }
-        return false;
+        return awaitLoginOutcome(LOGIN_TIMEOUT).filter(LoginOutcome.HOME::equals).isPresent();
+    }
+
+    /**
+     * Comprobación rápida de que el navegador está en el home con sesión válida.
+     * Si la sesión expiró, Savia redirige al login: el formulario de login gana la espera y se devuelve false de inmediato.
+     */
+    public boolean isHomeDisplayed() {
+        return RaceWait.<LoginOutcome>race()
+                .when(LoginOutcome.HOME, homeProbe())
+                .when(LoginOutcome.LOGIN_FORM, RaceWait.visibleCss(USERNAME_CSS))
+                .await(HOME_CHECK_TIMEOUT)
+                .filter(LoginOutcome.HOME::equals)
+                .isPresent();
     }
 
     /**
-     * Valida el mensaje de error real de Savia: "Usuario y/o Contraseña inválido"
+     * Valida el mensaje de error real de Savia: "Usuario y/o Contraseña inválido".
+     * Devuelve false en cuanto el login resulta exitoso.
      */
     public boolean hasErrorMessage() {
-        return errorGrowl.is(visible, ofSeconds(10));
+        return awaitLoginOutcome(ERROR_TIMEOUT).filter(LoginOutcome.ERROR::equals).isPresent();
     }
 
     public String getErrorMessageText() {
         return errorGrowl.text(); // devuelve "Usuario y/o Contraseña inválido"
     }
 
+    private Optional<LoginOutcome> awaitLoginOutcome(Duration timeout) {
+        return RaceWait.<LoginOutcome>race()
+                .when(LoginOutcome.HOME, homeProbe())
+                .when(LoginOutcome.ERROR, RaceWait.visibleXpath(ERROR_GROWL_XPATH))
+                .await(timeout);
+    }
 
-}
\ No newline at end of file
+    private RaceWait.Probe homeProbe() {
+        return RaceWait.urlContains(HOME_PATH).and(RaceWait.visibleCss(HOME_BACKGROUND_CSS));
+    }
+}
@@ -4,6 +4,7 @@ import co.empresa.qa.automation.config.ConfigManager;
 import co.empresa.qa.automation.flows.AffiliateFlow;
 import co.empresa.qa.automation.flows.LoginFlow;
 import co.empresa.qa.automation.infrastructure.hooks.DriverHooks;
+import co.empresa.qa.automation.infrastructure.hooks.EnvironmentBreaker;
 import co.empresa.qa.automation.models.AffiliateData;
 import co.empresa.qa.automation.models.AffiliateDataGenerator;
 import co.empresa.qa.automation.models.Credentials;
@@ -15,7 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
- * Prueba de creación de afiliado: realiza login, genera datos aleatorios válidos,
+ * Prueba de creación de afiliado: inicia sesión (reutilizando la sesión cacheada si existe), genera datos aleatorios válidos,
  * ejecuta el flujo completo de alta y valida que el afiliado aparezca en la lista.
  * Usa hooks para gestión del driver y se integra con Allure para trazabilidad.
  *
@@ -24,7 +25,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Epic("Gestión de Afiliados")
 @Feature("Alta Individual")
-@ExtendWith(DriverHooks.class)
+@ExtendWith({EnvironmentBreaker.class, DriverHooks.class})
 public class AffiliateCreationTest {
 
     private final LoginFlow loginFlow = new LoginFlow();
@@ -35,12 +36,11 @@ public class AffiliateCreationTest {
     @DisplayName("✅ Crear afiliado individual con datos aleatorios")
     @Severity(SeverityLevel.CRITICAL)
     void shouldCreateAffiliateWithValidData() {
-        // 1. Login
-        loginFlow.login(new Credentials(
+        // 1. Login (la autenticación se prueba en LoginTest: aquí basta con una sesión válida)
+        assertTrue(loginFlow.loginWithCachedSession(new Credentials(
                 ConfigManager.getUsername(),
                 ConfigManager.getPassword()
-        ));
-        assertTrue(loginFlow.isLoginSuccessful(), "Login debe ser exitoso");
+        )), "Login debe ser exitoso");
 
         // 2. Crear afiliado
         AffiliateData affiliate = AffiliateDataGenerator.generateRandomAffiliate();
@@ -0,0 +1,153 @@
+package co.empresa.qa.automation.tests;
+
+import co.empresa.qa.automation.flows.AffiliateHttpFlow;
+import co.empresa.qa.automation.flows.BulkAffiliateFlow;
+import co.empresa.qa.automation.flows.VerificationQueue;
+import co.empresa.qa.automation.infrastructure.http.JsfHttpSession;
+import co.empresa.qa.automation.infrastructure.stub.SaviaStubServer;
+import co.empresa.qa.automation.models.AffiliateData;
+import co.empresa.qa.automation.models.AffiliateDataGenerator;
+import co.empresa.qa.automation.models.Credentials;
+import co.empresa.qa.automation.models.DocumentNumberAllocator;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Creación de afiliados por HTTP ({@link AffiliateHttpFlow}) contra el stub JSF local {@link SaviaStubServer}:
+ * valida el login, el reenvío del ViewState, las peticiones AJAX parciales del formulario y sus diálogos, Guardar
+ * la creación masiva en modo HTTP y la conciliación por lotes con la lista de afiliados, que solo da por faltante
+ * un documento si la consulta recorrió todas las filas de su filtro.
+ * No requiere navegador ni acceso a Savia; los números de documento salen de un asignador con estado temporal, no
+ * del carril real.
+ *
+ * @author David
+ */
+
+@Epic("Gestión de Afiliados")
+@Feature("Alta por HTTP")
+public class AffiliateHttpFlowTest {
+
+    private static final Credentials CREDENTIALS = new Credentials("qa.stub", "clave.stub");
+    private static SaviaStubServer stub;
+    private static DocumentNumberAllocator numbers;
+
+    @TempDir
+    static Path stateDir;
+
+    @BeforeAll
+    static void startStub() {
+        stub = new SaviaStubServer(CREDENTIALS.username(), CREDENTIALS.password()).start();
+        numbers = new DocumentNumberAllocator(stateDir.resolve("document-numbers.properties"), 100, 0);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @RepeatedTest(5)
+    @Story("Alta de afiliado sin navegador")
+    @DisplayName("🌐 Crear afiliado por HTTP contra el stub JSF")
+    void shouldCreateAffiliateOverHttp() {
+        AffiliateHttpFlow flow = new AffiliateHttpFlow(new JsfHttpSession(stub.baseUrl()));
+        assertTrue(flow.login(CREDENTIALS), "Login debe ser exitoso");
+
+        AffiliateData affiliate = AffiliateDataGenerator.generateRandomAffiliate(numbers);
+        flow.createAffiliate(affiliate);
+
+        assertTrue(flow.isSaveSuccessful(), "Guardar debe confirmar la creación");
+        assertTrue(stub.createdDocuments().contains(affiliate.documentNumber()),
+                "El stub debe registrar el documento " + affiliate.documentNumber());
+    }
+
+    @Test
+    @Story("Población de datos de prueba")
+    @DisplayName("🚚 Creación masiva por HTTP reparte el lote entre varias sesiones")
+    void shouldSeedAffiliatesInBulkOverHttp() {
+        BulkAffiliateFlow bulkFlow = new BulkAffiliateFlow(CREDENTIALS, 4, 2, true, stub.baseUrl());
+
+        BulkAffiliateFlow.Report report = bulkFlow.createAffiliates(
+                IntStream.range(0, 20).mapToObj(i -> AffiliateDataGenerator.generateRandomAffiliate(numbers)), "stub");
+
+        assertEquals(20, report.created(), report.summary());
+        assertTrue(report.failures().isEmpty(), report.summary());
+        assertEquals(20, report.verification().verified(), report.summary());
+        assertTrue(report.verification().missing().isEmpty(), report.summary());
+    }
+
+    @Test
+    @Story("Verificación diferida")
+    @DisplayName("📋 Una sola consulta a la lista concilia varios documentos creados")
+    void shouldFindCreatedDocumentsInOneListQuery() {
+        AffiliateHttpFlow flow = new AffiliateHttpFlow(new JsfHttpSession(stub.baseUrl()));
+        assertTrue(flow.login(CREDENTIALS), "Login debe ser exitoso");
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            AffiliateData affiliate = AffiliateDataGenerator.generateRandomAffiliate(numbers);
+            flow.createAffiliate(affiliate);
+            assertTrue(flow.isSaveSuccessful(), "Guardar debe confirmar la creación");
+            created.add(affiliate.documentNumber());
+        }
+
+        List<String> lookup = new ArrayList<>(created);
+        lookup.add("0000000000"); // nunca creado
+        VerificationQueue.Lookup result = flow.findExisting("", lookup);
+
+        assertEquals(Set.copyOf(created), result.found());
+        assertTrue(result.reachedEnd(), "La consulta debe recorrer toda la lista");
+    }
+
+    @Test
+    @Story("Verificación diferida")
+    @DisplayName("⏳ Un documento fuera del alcance de la consulta queda sin verificar, no como faltante")
+    void shouldNotReportDocumentsBeyondTheQueryAsMissing() {
+        AffiliateHttpFlow flow = new AffiliateHttpFlow(new JsfHttpSession(stub.baseUrl()));
+        assertTrue(flow.login(CREDENTIALS), "Login debe ser exitoso");
+        AffiliateData affiliate = AffiliateDataGenerator.generateRandomAffiliate(numbers);
+        flow.createAffiliate(affiliate);
+        assertTrue(flow.isSaveSuccessful(), "Guardar debe confirmar la creación");
+        String neverCreated = affiliate.documentNumber().substring(0, 4) + "0".repeat(affiliate.documentNumber().length() - 4);
+
+        // Consulta cortada en el límite de filas: los no encontrados siguen pendientes aunque venza el plazo
+        VerificationQueue truncated = new VerificationQueue(Duration.ZERO, true);
+        truncated.record(affiliate.documentNumber());
+        truncated.record(neverCreated);
+        truncated.reconcile((prefix, documents) -> new VerificationQueue.Lookup(Set.of(), false, 0));
+        assertTrue(truncated.missing().isEmpty(), "Sin recorrer toda la lista no hay faltantes");
+        assertTrue(truncated.onlyUnreachableLeft());
+        truncated.giveUpUnreachable();
+        assertEquals(Set.of(affiliate.documentNumber(), neverCreated), Set.copyOf(truncated.unverified()));
+
+        // Consulta completa filtrada por prefijo: el creado se verifica y el otro falta
+        VerificationQueue complete = new VerificationQueue(Duration.ZERO, true);
+        complete.record(affiliate.documentNumber());
+        complete.record(neverCreated);
+        complete.reconcile(flow::findExisting);
+        assertEquals(1, complete.verified());
+        assertEquals(List.of(neverCreated), complete.missing());
+    }
+
+    @Test
+    @Story("Login rechazado")
+    @DisplayName("🚫 Login HTTP con credenciales inválidas no llega al home")
+    void shouldRejectInvalidCredentials() {
+        AffiliateHttpFlow flow = new AffiliateHttpFlow(new JsfHttpSession(stub.baseUrl()));
+        assertFalse(flow.login(new Credentials("qa.stub", "incorrecta")), "Login debe fallar");
+    }
+}
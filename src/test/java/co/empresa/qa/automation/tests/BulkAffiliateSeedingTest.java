@@ -0,0 +1,64 @@
+package co.empresa.qa.automation.tests;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import co.empresa.qa.automation.flows.BulkAffiliateFlow;
+import co.empresa.qa.automation.infrastructure.hooks.EnvironmentBreaker;
+import co.empresa.qa.automation.models.AffiliateCorpus;
+import co.empresa.qa.automation.models.AffiliateData;
+import co.empresa.qa.automation.models.Credentials;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Población masiva de Savia QA: crea {@code bulk.count} afiliados repartidos entre {@code bulk.workers} navegadores
+ * del pool y adjunta a Allure el reporte de throughput, latencia por fase y fallos. Con {@code bulk.corpus} los
+ * afiliados se leen de un corpus pregenerado ({@link AffiliateCorpus}) en lugar de generarse al vuelo.
+ * No usa {@code DriverHooks}: cada worker de {@link BulkAffiliateFlow} gestiona su propio navegador.
+ * <p>
+ * Excluido de la ejecución normal; se lanza con
+ * {@code mvn test -Dgroups=bulk -Dtest.excludedGroups= -Dbulk.count=2000 -Dbrowser.pool.size=6}.
+ *
+ * @author David
+ */
+
+@Epic("Gestión de Afiliados")
+@Feature("Alta Masiva")
+@Tag("bulk")
+@ExtendWith(EnvironmentBreaker.class)
+public class BulkAffiliateSeedingTest {
+
+    @Test
+    @Story("Población de datos de prueba")
+    @DisplayName("🚚 Crear afiliados en lote con el pool de navegadores")
+    void shouldSeedAffiliatesInBulk() {
+        BulkAffiliateFlow bulkFlow = new BulkAffiliateFlow(
+                new Credentials(ConfigManager.getUsername(), ConfigManager.getPassword()),
+                ConfigManager.getBulkWorkers(),
+                ConfigManager.getBulkMaxAttempts()
+        );
+
+        BulkAffiliateFlow.Report report;
+        if (ConfigManager.getBulkCorpus().isBlank()) {
+            report = bulkFlow.createAffiliates(ConfigManager.getBulkCount());
+        } else {
+            // Datos pregenerados: la generación queda fuera de la ventana medida
+            Path file = Path.of(ConfigManager.getBulkCorpus());
+            try (Stream<AffiliateData> corpus = AffiliateCorpus.stream(file)) {
+                report = bulkFlow.createAffiliates(corpus.limit(ConfigManager.getBulkCount()),
+                        "corpus " + file + ", semilla " + AffiliateCorpus.seed(file)
+                                + " (afiliado i: AffiliateCorpus.generate(semilla, i))");
+            }
+        }
+        Allure.addAttachment("Reporte de creación masiva", "text/plain", report.summary());
+
+        assertTrue(report.created() > 0, "Debe crearse al menos un afiliado");
+    }
+}
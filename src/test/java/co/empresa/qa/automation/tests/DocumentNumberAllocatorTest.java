@@ -0,0 +1,49 @@
+package co.empresa.qa.automation.tests;
+
+import co.empresa.qa.automation.models.DocumentNumberAllocator;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Un carril agotado no debe volver a su inicio: lleva el carril 0 de TI (900000000-906249999) a sus dos últimos
+ * números con un estado propio, los consume y comprueba que el siguiente falla en lugar de repetir.
+ *
+ * @author David
+ */
+
+@Epic("Infraestructura de ejecución")
+@Feature("Números de documento")
+public class DocumentNumberAllocatorTest {
+
+    private static final long LANE_0_TI_LAST = 906_249_999L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @Story("Carril agotado")
+    @DisplayName("🔢 Un carril agotado falla en lugar de repetir números")
+    void shouldFailWhenLaneIsExhausted() throws IOException {
+        Path state = dir.resolve("document-numbers.properties");
+        Files.writeString(state, "TI.0=" + (LANE_0_TI_LAST - 1) + "\n");
+        DocumentNumberAllocator allocator = new DocumentNumberAllocator(state, 2, 0);
+
+        assertEquals(String.valueOf(LANE_0_TI_LAST - 1), allocator.next("TI"));
+        assertEquals(String.valueOf(LANE_0_TI_LAST), allocator.next("TI"));
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> allocator.next("TI"));
+        assertTrue(error.getMessage().contains("agotado"), error.getMessage());
+        assertThrows(IllegalStateException.class, () -> allocator.next("TI"));
+    }
+}
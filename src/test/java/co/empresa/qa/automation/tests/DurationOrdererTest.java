@@ -0,0 +1,92 @@
+package co.empresa.qa.automation.tests;
+
+import co.empresa.qa.automation.infrastructure.DurationOrderer;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * El orden por duración ({@link DurationOrderer}) no debe serializar los métodos de una clase: lanza con el launcher
+ * de JUnit una clase de tres métodos con el orden registrado y 3 hilos, y cada método espera a que los otros dos
+ * hayan arrancado. Si corrieran en un solo hilo, el primero agotaría la espera.
+ * Los listeners y filtros registrados por {@code META-INF/services} (historial, shards, Allure) quedan fuera.
+ *
+ * @author David
+ */
+
+@Epic("Infraestructura de ejecución")
+@Feature("Orden por duración")
+public class DurationOrdererTest {
+
+    private static final int METHODS = 3;
+    private static CountDownLatch started;
+
+    @Test
+    @Story("Ejecución paralela de métodos")
+    @DisplayName("⏱️ El orden por duración mantiene los métodos de una clase en paralelo")
+    void shouldKeepMethodsConcurrent() {
+        started = new CountDownLatch(METHODS);
+        Launcher launcher = LauncherFactory.create(LauncherConfig.builder()
+                .enableTestExecutionListenerAutoRegistration(false)
+                .enablePostDiscoveryFilterAutoRegistration(false)
+                .build());
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+
+        launcher.execute(request()
+                .selectors(selectClass(ConcurrentMethods.class))
+                .configurationParameters(Map.of(
+                        "junit.jupiter.execution.parallel.enabled", "true",
+                        "junit.jupiter.execution.parallel.mode.default", "concurrent",
+                        "junit.jupiter.execution.parallel.config.strategy", "fixed",
+                        "junit.jupiter.execution.parallel.config.fixed.parallelism", String.valueOf(METHODS),
+                        "junit.jupiter.testmethod.order.default", DurationOrderer.class.getName()))
+                .build(), listener);
+
+        TestExecutionSummary summary = listener.getSummary();
+        assertEquals(METHODS, summary.getTestsStartedCount(), "Deben ejecutarse los " + METHODS + " métodos");
+        assertTrue(summary.getFailures().isEmpty(), () -> "Los métodos no corrieron a la vez: "
+                + summary.getFailures().get(0).getException().getMessage());
+    }
+
+    /**
+     * Clase lanzada por el launcher interno; Surefire no la ejecuta por ser anidada.
+     */
+    static class ConcurrentMethods {
+
+        @Test
+        void first() throws InterruptedException {
+            awaitOthers();
+        }
+
+        @Test
+        void second() throws InterruptedException {
+            awaitOthers();
+        }
+
+        @Test
+        void third() throws InterruptedException {
+            awaitOthers();
+        }
+
+        private static void awaitOthers() throws InterruptedException {
+            started.countDown();
+            assertTrue(started.await(10, TimeUnit.SECONDS), "Los demás métodos no arrancaron en paralelo");
+        }
+    }
+}
@@ -3,6 +3,7 @@ package co.empresa.qa.automation.tests;
 import co.empresa.qa.automation.config.ConfigManager;
 import co.empresa.qa.automation.flows.LoginFlow;
 import co.empresa.qa.automation.infrastructure.hooks.DriverHooks;
+import co.empresa.qa.automation.infrastructure.hooks.EnvironmentBreaker;
 import co.empresa.qa.automation.models.Credentials;
 import co.empresa.qa.automation.steps.AllureSteps;
 import io.qameta.allure.*;
@@ -22,7 +23,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Epic("Autenticación")
 @Feature("Acceso a Savia")
-@ExtendWith(DriverHooks.class)
+@ExtendWith({EnvironmentBreaker.class, DriverHooks.class})
 public class LoginTest {
 
     private final LoginFlow loginFlow = new LoginFlow();
@@ -1,26 +1,33 @@
 package co.empresa.qa.automation.utils;
 
+import co.empresa.qa.automation.config.ConfigManager;
+import co.empresa.qa.automation.infrastructure.AdaptiveTimeouts;
 import com.codeborne.selenide.ElementsCollection;
 import com.codeborne.selenide.SelenideElement;
+import io.qameta.allure.Step;
+import org.openqa.selenium.By;
 
 import java.time.Duration;
-import java.util.Random;
+import java.util.List;
 
 import static com.codeborne.selenide.Condition.visible;
+import static com.codeborne.selenide.Selenide.$;
 import static com.codeborne.selenide.Selenide.$x;
-import static com.codeborne.selenide.Selenide.sleep;
 
 /**
  * Utilidad para interactuar con componentes {@code p:autoComplete} de PrimeFaces.
  * Permite seleccionar la primera opción, una opción aleatoria o recuperar el texto de la opción elegida.
  * Maneja visibilidad del panel de sugerencias y evita selecciones en listas vacías.
+ * Tras cada selección espera a que termine el AJAX de PrimeFaces ({@link PrimeFacesAjax}) en lugar de pausas fijas.
+ * Con {@code fill.fast=true} busca y selecciona mediante la API del widget ({@link PrimeFacesWidgets}) sin clics;
+ * si el widget no se encuentra, vuelve a la ruta por UI. El input se localiza por id exacto con {@link LocatorRegistry}.
  *
  * @author David
  */
 
 public class AutoCompleteSelect {
 
-    private static final Random RANDOM = new Random();
+    private static final Duration SUGGESTIONS_TIMEOUT = Duration.ofSeconds(5);
 
     /**
      * Selecciona una opción aleatoria en un p:autoComplete de PrimeFaces.
@@ -29,15 +36,20 @@ public class AutoCompleteSelect {
      * @param triggerText Texto a escribir para activar el autocomplete (ej: "Bog")
      */
 
+    @Step("Autocompletar {0} con '{1}' (opción aleatoria)")
     public static void selectRandomOption(String inputId, String triggerText) {
+        if (fastSelect(inputId, triggerText, true) != null) {
+            return;
+        }
+
         // 1. Encontrar el input (usualmente tiene name o id con _input)
-        SelenideElement input = $x("//input[contains(@id, '" + inputId + "') or contains(@name, '" + inputId + "')]");
+        SelenideElement input = $(LocatorRegistry.autoCompleteInput(inputId));
         input.shouldBe(visible).click();
         input.setValue(triggerText);
 
         // 2. Esperar lista (clase típica: ui-autocomplete-items)
-        SelenideElement panel = $x("//ul[contains(@class, 'ui-autocomplete-items') and not(contains(@style, 'display: none'))]");
-        panel.shouldBe(visible, Duration.ofSeconds(5));
+        SelenideElement panel = $x(Locators.AUTOCOMPLETE_VISIBLE_PANEL);
+        AdaptiveTimeouts.shouldBeVisible(panel, "autoComplete:" + inputId, SUGGESTIONS_TIMEOUT);
 
         // 3. Obtener opciones visibles
         ElementsCollection options = panel.$$("li").filterBy(visible);
@@ -46,45 +58,83 @@ public class AutoCompleteSelect {
         }
 
         // 4. Seleccionar aleatoriamente
-        SelenideElement selected = options.get(RANDOM.nextInt(options.size()));
+        SelenideElement selected = options.get(RunRandom.random().nextInt(options.size()));
         selected.scrollIntoView(true);
-        sleep(200);
+        PrimeFacesAjax.waitForIdle(); // fin de la animación del panel
         selected.click();
+        PrimeFacesAjax.waitForIdle(); // AJAX del evento itemSelect
     }
 
     /**
      * Versión simplificada: escribe y elige la PRIMERA opción (más rápida y estable).
      */
+    @Step("Autocompletar {0} con '{1}' (primera opción)")
     public static void selectFirstOption(String inputId, String triggerText) {
-        SelenideElement input = $x("//input[contains(@id, '" + inputId + "') or contains(@name, '" + inputId + "')]");
+        if (fastSelect(inputId, triggerText, false) != null) {
+            return;
+        }
+        SelenideElement input = $(LocatorRegistry.autoCompleteInput(inputId));
         input.shouldBe(visible).click();
         input.setValue(triggerText);
 
-        $x("//ul[contains(@class, 'ui-autocomplete-items')]//li[1]")
-                .shouldBe(visible, Duration.ofSeconds(5))
+        AdaptiveTimeouts.shouldBeVisible($x(Locators.AUTOCOMPLETE_FIRST_ITEM), "autoComplete:" + inputId, SUGGESTIONS_TIMEOUT)
                 .click();
+        PrimeFacesAjax.waitForIdle();
     }
 
     /**
      * Guarda la opción seleccionada.
      */
+    @Step("Autocompletar {0} con '{1}' y guardar la opción aleatoria elegida")
     public static String selectRandomOptionAndGetLabel(String inputId, String triggerText) {
-        SelenideElement input = $x("//input[contains(@id, '" + inputId + "') or contains(@name, '" + inputId + "')]");
+        String fastLabel = fastSelect(inputId, triggerText, true);
+        if (fastLabel != null) {
+            return fastLabel;
+        }
+
+        SelenideElement input = $(LocatorRegistry.autoCompleteInput(inputId));
         input.shouldBe(visible).click();
         input.setValue(triggerText);
 
-        SelenideElement panel = $x("//ul[contains(@class, 'ui-autocomplete-items') and not(contains(@style, 'display: none'))]");
-        panel.shouldBe(visible, Duration.ofSeconds(5));
+        SelenideElement panel = $x(Locators.AUTOCOMPLETE_VISIBLE_PANEL);
+        AdaptiveTimeouts.shouldBeVisible(panel, "autoComplete:" + inputId, SUGGESTIONS_TIMEOUT);
 
         ElementsCollection options = panel.$$("li").filterBy(visible);
         if (options.isEmpty()) {
             throw new IllegalStateException("No hay sugerencias para '" + triggerText + "'");
         }
 
-        SelenideElement selected = options.get(RANDOM.nextInt(options.size()));
+        SelenideElement selected = options.get(RunRandom.random().nextInt(options.size()));
         String selectedLabel = selected.text().trim();
         selected.click();
+        PrimeFacesAjax.waitForIdle();
 
         return selectedLabel; // ✅ Devuelve el texto seleccionado
     }
-}
\ No newline at end of file
+
+    /**
+     * Llenado rápido: lanza la búsqueda y selecciona la sugerencia por la API del widget.
+     * Devuelve el texto elegido, o {@code null} si el modo está desactivado o el widget no existe en la página.
+     */
+    private static String fastSelect(String inputId, String triggerText, boolean random) {
+        if (!ConfigManager.isFastFillEnabled()) {
+            return null;
+        }
+        // Sin esperar: si el id exacto no está (aún), la UI lo busca por contains(@id) con su propia espera
+        if (!$(By.id(inputId + "_input")).is(visible)
+                || !PrimeFacesWidgets.autoCompleteSearch(inputId, triggerText)) {
+            return null;
+        }
+        PrimeFacesAjax.waitForIdle(); // AJAX de la búsqueda
+
+        List<List<Object>> items = PrimeFacesWidgets.items(inputId);
+        if (items == null || items.isEmpty()) {
+            throw new IllegalStateException("No se encontraron sugerencias para '" + triggerText + "'");
+        }
+
+        int index = random ? RunRandom.random().nextInt(items.size()) : 0;
+        PrimeFacesWidgets.autoCompleteSelectItem(inputId, index);
+        PrimeFacesAjax.waitForIdle(); // AJAX del evento itemSelect
+        return String.valueOf(items.get(index).get(0));
+    }
+}
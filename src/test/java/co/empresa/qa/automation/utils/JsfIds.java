@@ -0,0 +1,240 @@
+package co.empresa.qa.automation.utils;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import io.qameta.allure.Allure;
+import org.openqa.selenium.By;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.codeborne.selenide.Condition.exist;
+import static com.codeborne.selenide.Selenide.$;
+import static com.codeborne.selenide.Selenide.executeJavaScript;
+
+/**
+ * Ids JSF generados ({@code frmDireccion:j_idt864}, {@code frmAfiliados:j_idt45}...) que se corren cuando Savia se
+ * redespliega. Cada vez que uno se encuentra se guarda su huella: tipo de widget, texto de la etiqueta (o del botón)
+ * y posición entre los widgets del mismo tipo en el formulario. Si el id ya no existe, una sola consulta JS busca en el
+ * formulario el elemento con la misma huella, registra la curación en el log y en Allure (🩹) y guarda el id nuevo en
+ * {@code jsf.ids.cache} para que la siguiente ejecución lo use directamente.
+ * <p>
+ * Cada id se resuelve una vez por ejecución. Si hay huella pero nada coincide se falla de inmediato, en lugar de
+ * agotar el timeout de Selenide en cada paso; sin huella (primera ejecución) se devuelve el id tal cual.
+ * El backend HTTP, sin navegador para curar, usa el id vigente de la caché con {@link #cached}.
+ *
+ * @author David
+ */
+public final class JsfIds {
+    private static final Logger log = LoggerFactory.getLogger(JsfIds.class);
+
+    /**
+     * Recibe formulario, ids a probar en orden y la huella conocida (tipo, etiqueta, posición). Devuelve
+     * {@code [id, tipo, etiqueta, posición, criterio]} o {@code null} si no hay formulario o nada coincide.
+     */
+    private static final String RESOLVE_JS =
+            "var form = document.getElementById(arguments[0]);"
+                    + "if (!form) return null;"
+                    + "var tried = arguments[1], type = arguments[2], label = arguments[3], position = arguments[4];"
+                    + "var WIDGETS = '.ui-selectonemenu,.ui-autocomplete,.ui-calendar';"
+                    + "var SELECTORS = {selectonemenu: '.ui-selectonemenu', autocomplete: '.ui-autocomplete',"
+                    + "  button: 'button', input: 'input[type=text]'};"
+                    + "function typeOf(el) {"
+                    + "  var c = ' ' + (el.className || '') + ' ';"
+                    + "  if (c.indexOf(' ui-selectonemenu ') >= 0) return 'selectonemenu';"
+                    + "  if (c.indexOf(' ui-autocomplete ') >= 0) return 'autocomplete';"
+                    + "  return el.tagName.toLowerCase();"
+                    + "}"
+                    + "function members(t) {"
+                    + "  if (!SELECTORS[t]) return [];"
+                    + "  return Array.prototype.filter.call(form.querySelectorAll(SELECTORS[t]), function (el) {"
+                    + "    return el.id && (t !== 'input' || !el.closest(WIDGETS));"
+                    + "  });"
+                    + "}"
+                    + "function labelOf(el) {"
+                    + "  if (el.tagName === 'BUTTON') return (el.textContent || '').trim();"
+                    + "  var own = [el.id, el.id + '_input', el.id + '_focus'], labels = form.querySelectorAll('label'), before = null;"
+                    + "  for (var i = 0; i < labels.length; i++) {"
+                    + "    var l = labels[i];"
+                    + "    if (own.indexOf(l.htmlFor) >= 0) return (l.textContent || '').trim();"
+                    + "    if (l.closest(WIDGETS)) continue;"
+                    + "    if (l.compareDocumentPosition(el) & Node.DOCUMENT_POSITION_FOLLOWING) before = l;"
+                    + "  }"
+                    + "  return before ? (before.textContent || '').trim() : '';"
+                    + "}"
+                    + "function describe(el, basis) {"
+                    + "  var t = typeOf(el);"
+                    + "  return [el.id, t, labelOf(el), members(t).indexOf(el), basis];"
+                    + "}"
+                    + "for (var i = 0; i < tried.length; i++) {"
+                    + "  var el = document.getElementById(tried[i]);"
+                    + "  if (el && form.contains(el)) return describe(el, 'id');"
+                    + "}"
+                    + "if (!type) return null;"
+                    + "var candidates = members(type);"
+                    + "var byLabel = label ? candidates.filter(function (c) { return labelOf(c) === label; }) : [];"
+                    + "if (byLabel.length === 1) return describe(byLabel[0], 'etiqueta');"
+                    + "if (byLabel.length > 1) {"
+                    + "  byLabel.sort(function (a, b) {"
+                    + "    return Math.abs(candidates.indexOf(a) - position) - Math.abs(candidates.indexOf(b) - position);"
+                    + "  });"
+                    + "  return describe(byLabel[0], 'etiqueta y posición');"
+                    + "}"
+                    + "if (position >= 0 && position < candidates.length) return describe(candidates[position], 'posición');"
+                    + "return null;";
+
+    private static final Path CACHE_FILE = Path.of(ConfigManager.getJsfIdCache());
+
+    /**
+     * Serializa las escrituras del archivo en la JVM; el bloqueo de archivo coordina entre JVMs.
+     */
+    private static final Object CACHE_LOCK = new Object();
+
+    private static final Map<String, Fingerprint> KNOWN = new ConcurrentHashMap<>(load());
+    private static final Map<String, String> RESOLVED = new ConcurrentHashMap<>();
+
+    private JsfIds() {
+        // Utilidad: no instanciable
+    }
+
+    /**
+     * Id vigente del elemento que el código conoce como {@code generatedId} ({@code formulario:j_idtNNN}).
+     * Espera a que el formulario exista en la página antes de buscarlo.
+     */
+    public static String resolve(String generatedId) {
+        String resolved = RESOLVED.get(generatedId);
+        if (resolved != null) {
+            return resolved;
+        }
+        String form = generatedId.substring(0, generatedId.indexOf(':'));
+        $(By.id(form)).should(exist);
+
+        Fingerprint known = KNOWN.get(generatedId);
+        List<String> tried = known == null || known.id().equals(generatedId)
+                ? List.of(generatedId)
+                : List.of(known.id(), generatedId);
+        List<Object> found = executeJavaScript(RESOLVE_JS, form, tried,
+                known == null ? "" : known.type(),
+                known == null ? "" : known.label(),
+                known == null ? -1 : known.position());
+        if (found == null) {
+            if (known == null) {
+                return generatedId; // sin huella: la espera normal de Selenide decide
+            }
+            throw new IllegalStateException("❌ " + generatedId + " no está en " + form
+                    + " y ningún elemento coincide con su huella " + known);
+        }
+
+        Fingerprint current = new Fingerprint((String) found.get(0), (String) found.get(1), (String) found.get(2),
+                ((Number) found.get(3)).intValue());
+        String basis = (String) found.get(4);
+        if (!"id".equals(basis)) {
+            String heal = "🩹 Id JSF " + generatedId + " curado: " + known.id() + " → " + current.id() + " (por " + basis + ")";
+            log.warn("{}; huella anterior {}", heal, known);
+            Allure.step(heal);
+        } else if (!current.id().equals(generatedId)) {
+            log.info("🩹 Id JSF {} → {} (curado en una ejecución anterior)", generatedId, current.id());
+        }
+        if (!current.equals(known)) {
+            KNOWN.put(generatedId, current);
+            store(generatedId, current);
+        }
+        RESOLVED.put(generatedId, current.id());
+        return current.id();
+    }
+
+    /**
+     * Id vigente de {@code generatedId} según esta ejecución o la caché (curado por una ejecución de UI), sin consultar
+     * la página. Sin entrada devuelve el id tal cual.
+     */
+    public static String cached(String generatedId) {
+        String resolved = RESOLVED.get(generatedId);
+        if (resolved != null) {
+            return resolved;
+        }
+        Fingerprint known = KNOWN.get(generatedId);
+        return known == null ? generatedId : known.id();
+    }
+
+    private static Map<String, Fingerprint> load() {
+        if (!Files.exists(CACHE_FILE)) {
+            return Map.of();
+        }
+        Properties cache = new Properties();
+        try (var reader = Files.newBufferedReader(CACHE_FILE, StandardCharsets.ISO_8859_1)) {
+            cache.load(reader);
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudo leer {}: {}", CACHE_FILE, e.getMessage());
+            return Map.of();
+        }
+        Map<String, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+        for (String key : cache.stringPropertyNames()) {
+            if (key.endsWith(".id")) {
+                String generatedId = key.substring(0, key.length() - ".id".length());
+                fingerprints.put(generatedId, Fingerprint.from(cache, generatedId));
+            }
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Actualiza solo la entrada del id, leyendo y reescribiendo el archivo bajo bloqueo exclusivo entre procesos.
+     */
+    private static void store(String generatedId, Fingerprint fingerprint) {
+        synchronized (CACHE_LOCK) {
+            try {
+                Files.createDirectories(CACHE_FILE.toAbsolutePath().getParent());
+                try (FileChannel channel = FileChannel.open(CACHE_FILE,
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                     FileLock ignored = channel.lock()) {
+                    ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+                    channel.read(buffer, 0);
+                    Properties cache = new Properties();
+                    cache.load(new StringReader(new String(buffer.array(), StandardCharsets.ISO_8859_1)));
+                    fingerprint.into(cache, generatedId);
+
+                    StringWriter text = new StringWriter();
+                    cache.store(text, "Huella e id vigente de los ids JSF generados (JsfIds)");
+                    channel.truncate(0);
+                    channel.write(ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.ISO_8859_1)), 0);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo actualizar la caché de ids JSF " + CACHE_FILE, e);
+            }
+        }
+    }
+
+    /**
+     * Huella de un elemento: id vigente, tipo de widget, etiqueta y posición entre los de su tipo en el formulario.
+     */
+    private record Fingerprint(String id, String type, String label, int position) {
+
+        static Fingerprint from(Properties cache, String generatedId) {
+            return new Fingerprint(cache.getProperty(generatedId + ".id"),
+                    cache.getProperty(generatedId + ".type", ""),
+                    cache.getProperty(generatedId + ".label", ""),
+                    Integer.parseInt(cache.getProperty(generatedId + ".position", "-1")));
+        }
+
+        void into(Properties cache, String generatedId) {
+            cache.setProperty(generatedId + ".id", id);
+            cache.setProperty(generatedId + ".type", type);
+            cache.setProperty(generatedId + ".label", label);
+            cache.setProperty(generatedId + ".position", String.valueOf(position));
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package co.empresa.qa.automation.utils;
+
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * Registro de localizadores de los widgets PrimeFaces de los formularios de afiliados ({@code frmCrear},
+ * {@code frmDireccion}, {@code frmBarrio}, {@code frmCrearContacto}). En lugar de buscar cada vez con
+ * {@code contains(@id, ...)} (que obliga al navegador a recorrer todo el DOM), un único {@code executeJavaScript}
+ * lista los ids exactos de todos los selectOneMenu/autoComplete de esos formularios; cada widget se resuelve contra
+ * esa lista una sola vez y se localiza después por id exacto con CSS ({@code #frmCrear\:genero ...}).
+ * <p>
+ * La caché es por hilo y por navegador, y vale para la página cargada: se descarta al navegar (listener de
+ * {@link #navigationListener()}, que {@code DriverManager} registra en cada navegador) o al cambiar de navegador.
+ * Un submit o una redirección cambian de vista sin pasar por el listener: cada listado guarda la identidad de la
+ * vista (marca del documento y {@code javax.faces.ViewState}), y si un id cacheado no encuentra nada se vuelve a
+ * listar una sola vez por búsqueda; solo si la vista cambió se descartan los ids resueltos. Si un widget no aparece
+ * (p. ej. un diálogo que se acaba de renderizar por AJAX) se vuelve a listar; si sigue sin aparecer, o el formulario
+ * no es uno de los registrados, se usa el XPath de {@link Locators}.
+ *
+ * @author David
+ */
+public final class LocatorRegistry {
+    private static final Logger log = LoggerFactory.getLogger(LocatorRegistry.class);
+
+    private static final List<String> FORMS = List.of("frmCrear", "frmDireccion", "frmBarrio", "frmCrearContacto");
+
+    // Raíces de selectOneMenu (div.ui-selectonemenu) y autoComplete (span.ui-autocomplete), en orden de documento,
+    // e identidad de la vista: una marca que solo vive en este documento más el ViewState de JSF
+    private static final String SCAN_JS =
+            "var forms = arguments[0], ids = [];"
+                    + "for (var f = 0; f < forms.length; f++) {"
+                    + "  var roots = document.querySelectorAll('[id^=\"' + forms[f] + ':\"]');"
+                    + "  for (var i = 0; i < roots.length; i++) {"
+                    + "    if (/(^|\\s)ui-(selectonemenu|autocomplete)(\\s|$)/.test(roots[i].className)) ids.push(roots[i].id);"
+                    + "  }"
+                    + "}"
+                    + "if (!window.__locatorView) window.__locatorView = String(Math.random()).slice(2);"
+                    + "var state = document.querySelector('input[name=\"javax.faces.ViewState\"]');"
+                    + "return {view: window.__locatorView + '|' + (state ? state.value : ''), ids: ids};";
+
+    private static final ThreadLocal<View> VIEW = new ThreadLocal<>();
+
+    private static final WebDriverListener NAVIGATION_LISTENER = new WebDriverListener() {
+        @Override
+        public void afterGet(WebDriver driver, String url) {
+            invalidate();
+        }
+
+        @Override
+        public void afterTo(WebDriver.Navigation navigation, String url) {
+            invalidate();
+        }
+
+        @Override
+        public void afterBack(WebDriver.Navigation navigation) {
+            invalidate();
+        }
+
+        @Override
+        public void afterForward(WebDriver.Navigation navigation) {
+            invalidate();
+        }
+
+        @Override
+        public void afterRefresh(WebDriver.Navigation navigation) {
+            invalidate();
+        }
+    };
+
+    private LocatorRegistry() {
+        // Utilidad: no instanciable
+    }
+
+    /**
+     * Listener que descarta la caché del hilo cuando el navegador carga otra página (nueva vista JSF).
+     */
+    public static WebDriverListener navigationListener() {
+        return NAVIGATION_LISTENER;
+    }
+
+    public static void invalidate() {
+        VIEW.remove();
+    }
+
+    public static By selectOneMenuTrigger(String widgetVar) {
+        return locate(widgetVar, id -> cssId(id) + " .ui-selectonemenu-trigger",
+                Locators.selectOneMenuTrigger(widgetVar));
+    }
+
+    public static By selectOneMenuItems(String widgetVar) {
+        return locate(widgetVar, id -> cssId(id + "_items"), Locators.selectOneMenuItems(widgetVar));
+    }
+
+    public static By autoCompleteInput(String inputId) {
+        return locate(inputId, id -> cssId(id + "_input"), Locators.autoCompleteInput(inputId));
+    }
+
+    private static By locate(String widgetVar, UnaryOperator<String> css, String xpath) {
+        String id = resolve(widgetVar);
+        return id == null ? By.xpath(xpath) : new Cached(widgetVar, id, currentView().snapshot, css, xpath);
+    }
+
+    /**
+     * Id exacto del widget en la página actual: el propio {@code widgetVar} si existe o, como {@code contains(@id)},
+     * el primero en orden de documento que lo contenga. {@code null} si no es de un formulario registrado o no está.
+     */
+    private static String resolve(String widgetVar) {
+        int separator = widgetVar.indexOf(':');
+        if (separator < 0 || !FORMS.contains(widgetVar.substring(0, separator))) {
+            return null;
+        }
+        View view = currentView();
+        String id = view.resolved.get(widgetVar);
+        if (id == null) {
+            id = view.match(widgetVar);
+            if (id == null) {
+                view.rescan(); // widget renderizado por AJAX después del último listado
+                id = view.match(widgetVar);
+            }
+            if (id != null) {
+                view.resolved.put(widgetVar, id);
+            }
+        }
+        return id;
+    }
+
+    private static View currentView() {
+        WebDriver driver = WebDriverRunner.getWebDriver();
+        View view = VIEW.get();
+        if (view == null || view.driver != driver) {
+            view = new View(driver);
+            VIEW.set(view);
+        }
+        return view;
+    }
+
+    /**
+     * Selector CSS por id exacto: escapa los caracteres que no son de identificador ({@code :} de JSF).
+     */
+    static String cssId(String id) {
+        StringBuilder css = new StringBuilder(id.length() + 8).append('#');
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-') {
+                css.append('\\');
+            }
+            css.append(c);
+        }
+        return css.toString();
+    }
+
+    /**
+     * Localizador por id cacheado. Si el CSS no encuentra nada se vuelve a listar una vez: con la misma vista el
+     * widget aún no se renderizó y los siguientes sondeos siguen con el id; si la vista cambió (submit,
+     * redirección) se resuelve otra vez y, si el widget ya no está entre los registrados, se usa el XPath. Selenide
+     * repite el {@code findElements} en cada sondeo: el listado extra es uno por búsqueda, no uno por sondeo.
+     */
+    private static final class Cached extends By {
+        private final String widgetVar;
+        private final UnaryOperator<String> css;
+        private final String xpath;
+        private String id;
+        private String snapshot;
+        private boolean rescanned;
+
+        Cached(String widgetVar, String id, String snapshot, UnaryOperator<String> css, String xpath) {
+            this.widgetVar = widgetVar;
+            this.id = id;
+            this.snapshot = snapshot;
+            this.css = css;
+            this.xpath = xpath;
+        }
+
+        @Override
+        public List<WebElement> findElements(SearchContext context) {
+            if (id != null) {
+                List<WebElement> found = context.findElements(By.cssSelector(css.apply(id)));
+                if (!found.isEmpty() || rescanned) {
+                    return found;
+                }
+                rescanned = true;
+                View view = currentView();
+                view.rescan();
+                if (Objects.equals(snapshot, view.snapshot)) {
+                    return found;
+                }
+                log.debug("🧭 La vista cambió sin navegar: {} se resuelve de nuevo", widgetVar);
+                snapshot = view.snapshot;
+                id = resolve(widgetVar);
+                if (id != null) {
+                    return context.findElements(By.cssSelector(css.apply(id)));
+                }
+            }
+            return context.findElements(By.xpath(xpath));
+        }
+
+        @Override
+        public String toString() {
+            return id != null ? "By.cssSelector: " + css.apply(id) : "By.xpath: " + xpath;
+        }
+    }
+
+    /**
+     * Widgets de la página cargada en un navegador.
+     */
+    private static final class View {
+        private final WebDriver driver;
+        private final Map<String, String> resolved = new HashMap<>();
+        private List<String> ids;
+        private String snapshot;
+
+        View(WebDriver driver) {
+            this.driver = driver;
+        }
+
+        String match(String widgetVar) {
+            if (ids == null) {
+                rescan();
+            }
+            if (ids.contains(widgetVar)) {
+                return widgetVar;
+            }
+            return ids.stream().filter(id -> id.contains(widgetVar)).findFirst().orElse(null);
+        }
+
+        /**
+         * Vuelve a listar los widgets. Si la vista ya no es la del listado anterior descarta los ids resueltos.
+         */
+        @SuppressWarnings("unchecked")
+        void rescan() {
+            Map<String, Object> found = Selenide.executeJavaScript(SCAN_JS, FORMS);
+            String previous = snapshot;
+            snapshot = found == null ? null : (String) found.get("view");
+            ids = found == null || found.get("ids") == null ? List.of() : (List<String>) found.get("ids");
+            if (previous != null && !previous.equals(snapshot)) {
+                resolved.clear();
+            }
+            log.debug("🧭 {} widgets PrimeFaces registrados en la página", ids.size());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package co.empresa.qa.automation.utils;
+
+/**
+ * XPaths de los componentes PrimeFaces que usan {@link PrimeFacesSelect} y {@link AutoCompleteSelect}.
+ * Centralizados para no repetir la concatenación en cada método y poder medirla aislada
+ * ({@code benchmarks.SelectorBuildingBenchmark}). Para los formularios de afiliados {@link LocatorRegistry} los
+ * sustituye por CSS con id exacto y los usa solo como respaldo.
+ *
+ * @author David
+ */
+public final class Locators {
+
+    /**
+     * Panel de sugerencias de un {@code p:autoComplete} abierto.
+     */
+    public static final String AUTOCOMPLETE_VISIBLE_PANEL =
+            "//ul[contains(@class, 'ui-autocomplete-items') and not(contains(@style, 'display: none'))]";
+
+    public static final String AUTOCOMPLETE_FIRST_ITEM = "//ul[contains(@class, 'ui-autocomplete-items')]//li[1]";
+
+    private Locators() {
+        // Utilidad: no instanciable
+    }
+
+    /**
+     * Input de un {@code p:autoComplete}: el id o el name contienen el id del componente (el input real lleva {@code _input}).
+     */
+    public static String autoCompleteInput(String inputId) {
+        return "//input[contains(@id, '" + inputId + "') or contains(@name, '" + inputId + "')]";
+    }
+
+    /**
+     * Botón que despliega un {@code p:selectOneMenu}.
+     */
+    public static String selectOneMenuTrigger(String widgetVar) {
+        return "//div[contains(@id, '" + widgetVar + "')]//div[contains(@class, 'ui-selectonemenu-trigger')]";
+    }
+
+    /**
+     * {@code <ul>} de opciones de un {@code p:selectOneMenu}, por id exacto (XPath, seguro con {@code :}).
+     */
+    public static String selectOneMenuItems(String widgetVar) {
+        return "//ul[@id='" + widgetVar + "_items']";
+    }
+}
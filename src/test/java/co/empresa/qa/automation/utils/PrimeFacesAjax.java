@@ -0,0 +1,67 @@
+package co.empresa.qa.automation.utils;
+
+import co.empresa.qa.automation.infrastructure.CircuitBreaker;
+import co.empresa.qa.automation.infrastructure.StepMetrics;
+import com.codeborne.selenide.Selenide;
+import org.openqa.selenium.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * Detector de inactividad AJAX de PrimeFaces. Reemplaza las pausas fijas ({@code sleep}) tras abrir paneles
+ * o seleccionar opciones: espera solo lo necesario hasta que la cola de peticiones de PrimeFaces esté vacía,
+ * jQuery no tenga peticiones activas y no queden animaciones de overlays en curso.
+ * En páginas sin PrimeFaces ni jQuery se considera inactivo de inmediato. El mismo sondeo revisa si la página quedó
+ * en error y, si es así, abre el {@link CircuitBreaker} en lugar de seguir esperando.
+ *
+ * @author David
+ */
+public final class PrimeFacesAjax {
+    private static final Logger log = LoggerFactory.getLogger(PrimeFacesAjax.class);
+
+    private static final Duration IDLE_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+    // Devuelve true/false (inactivo o no) o el [motivo, detalle] de CircuitBreaker si la página quedó en error
+    private static final String IDLE_JS =
+            "var error = (" + CircuitBreaker.ERROR_STATE_FN + ")(arguments[0]);"
+                    + "if (error) return error;"
+                    + "var pf = window.PrimeFaces;"
+                    + "var queueIdle = !pf || !pf.ajax || !pf.ajax.Queue"
+                    + "  || (typeof pf.ajax.Queue.isEmpty === 'function' ? pf.ajax.Queue.isEmpty() : true);"
+                    + "var jq = window.jQuery;"
+                    + "var jqIdle = !jq || ((jq.active || 0) === 0 && jq(':animated').length === 0);"
+                    + "return queueIdle && jqIdle;";
+
+    private PrimeFacesAjax() {
+        // Utilidad: no instanciable
+    }
+
+    public static void waitForIdle() {
+        waitForIdle(IDLE_TIMEOUT);
+    }
+
+    /**
+     * Espera a que no haya AJAX ni animaciones en curso. Si vence el timeout solo registra un aviso:
+     * las esperas de los elementos siguientes se encargan de fallar si la página realmente quedó bloqueada.
+     */
+    public static void waitForIdle(Duration timeout) {
+        long start = System.nanoTime();
+        try {
+            Selenide.Wait()
+                    .withTimeout(timeout)
+                    .pollingEvery(POLL_INTERVAL)
+                    .until(driver -> {
+                        Object state = Selenide.executeJavaScript(IDLE_JS, CircuitBreaker.isSessionEstablished());
+                        CircuitBreaker.tripOn(state);
+                        return Boolean.TRUE.equals(state);
+                    });
+        } catch (TimeoutException e) {
+            log.warn("⚠️ PrimeFaces sigue con AJAX/animaciones activas tras {} ms", timeout.toMillis());
+        } finally {
+            StepMetrics.recordWait(System.nanoTime() - start);
+        }
+    }
+}
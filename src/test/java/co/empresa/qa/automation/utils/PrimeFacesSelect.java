@@ -1,51 +1,65 @@
 package co.empresa.qa.automation.utils;
 
+import co.empresa.qa.automation.config.ConfigManager;
+import co.empresa.qa.automation.infrastructure.AdaptiveTimeouts;
 import com.codeborne.selenide.SelenideElement;
+import io.qameta.allure.Step;
+import org.openqa.selenium.By;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
-import static com.codeborne.selenide.Condition.text;
 import static com.codeborne.selenide.Condition.visible;
-import static com.codeborne.selenide.Selenide.$x;
-import static com.codeborne.selenide.Selenide.sleep;
+import static com.codeborne.selenide.Selenide.$;
+import static com.codeborne.selenide.Selenide.executeJavaScript;
 
 /**
  * Utilidad para interactuar con componentes {@code p:selectOneMenu} de PrimeFaces.
  * Permite seleccionar opciones por texto exacto, aleatoriamente o excluyendo valores específicos.
- * Maneja apertura del dropdown, filtrado de opciones inválidas y selección segura con scroll y espera.
+ * Maneja apertura del dropdown, filtrado de opciones inválidas y selección segura con scroll y espera
+ * de inactividad AJAX ({@link PrimeFacesAjax}) en lugar de pausas fijas.
+ * Las opciones se leen todas en un único {@code executeJavaScript}, se filtran y eligen en Java y se selecciona por índice.
+ * Con {@code fill.fast=true} la selección se hace por la API del widget ({@link PrimeFacesWidgets}) sin clics ni animaciones;
+ * por defecto se mantiene la interacción real por UI. El trigger y el panel se localizan por id exacto con
+ * {@link LocatorRegistry}; la apertura del panel espera el timeout aprendido de {@link AdaptiveTimeouts}.
  *
  * @author David
  */
 
 public class PrimeFacesSelect {
 
-    private static final Random RANDOM = new Random();
     private static final Duration DROPDOWN_OPEN_TIMEOUT = Duration.ofSeconds(3);
 
+    /**
+     * Lee texto y clases CSS de todos los {@code <li>} del panel en un solo round trip,
+     * en lugar de dos llamadas WebDriver ({@code text()}, {@code has()}) por opción.
+     */
+    private static final String HARVEST_OPTIONS_JS =
+            "var list = document.getElementById(arguments[0]);"
+                    + "if (!list) return [];"
+                    + "return Array.prototype.map.call(list.querySelectorAll('li'), function (li) {"
+                    + "  return [(li.innerText || li.textContent || '').trim(), li.className || ''];"
+                    + "});";
+
     // ✅ Nuevo método: selecciona aleatoriamente EXCLUYENDO opciones específicas
+    @Step("Seleccionar opción aleatoria en {0}")
     public static String selectRandomOptionExcluding(String widgetVar, String... excludedLabels) {
-        // 1. Abrir dropdown
-        SelenideElement trigger = $x("//div[contains(@id, '" + widgetVar + "')]//div[contains(@class, 'ui-selectonemenu-trigger')]");
-        trigger.shouldBe(visible).click();
+        // 1. Abrir dropdown (o, en llenado rápido, leer las opciones del widget sin abrirlo)
+        Dropdown dropdown = open(widgetVar);
 
-        // 2. Buscar <ul> de opciones por ID (XPath, seguro con :)
-        String itemsId = widgetVar + "_items";
-        SelenideElement itemsList = $x("//ul[@id='" + itemsId + "']")
-                .shouldBe(visible, DROPDOWN_OPEN_TIMEOUT);
-
-        // 3. Filtrar opciones: visibles, no placeholder, y no excluidas
-        List<SelenideElement> validOptions = itemsList.$$("li")
+        // 2. Filtrar opciones: no placeholder y no excluidas (todas leídas en un único round trip)
+        List<OptionItem> validOptions = dropdown.options()
                 .stream()
                 .filter(option -> {
-                    String txt = option.text().trim();
+                    String txt = option.label();
                     // Excluir vacíos, placeholders y listas negras
                     if (txt.isEmpty() ||
                             txt.equals("--") ||
-                            option.has(com.codeborne.selenide.Condition.cssClass("ui-noselection-option"))) {
+                            option.hasCssClass("ui-noselection-option")) {
                         return false;
                     }
                     // Excluir por texto (case-insensitive)
@@ -65,14 +79,11 @@ public class PrimeFacesSelect {
             );
         }
 
-        // 4. Seleccionar y clic
-        SelenideElement selected = validOptions.get(RANDOM.nextInt(validOptions.size()));
-        selected.scrollIntoView(true);
-        String selectedLabel = selected.text().trim();
-        sleep(300);
-        selected.click();
+        // 3. Elegir en Java y seleccionar por índice
+        OptionItem selected = validOptions.get(RunRandom.random().nextInt(validOptions.size()));
+        dropdown.select(selected);
 
-        return selectedLabel; // ✅ Devuelve el texto seleccionado
+        return selected.label(); // ✅ Devuelve el texto seleccionado
     }
 
     // ✅ Método original (sin exclusión) para retrocompatibilidad
@@ -82,37 +93,105 @@ public class PrimeFacesSelect {
 
     /**
      * Selecciona una opción específica por su texto visible en un p:selectOneMenu de PrimeFaces.
+     * Prioriza la coincidencia exacta (sin distinguir mayúsculas) y, si no la hay, la primera que contenga el texto.
      * @param widgetVar ID del componente (ej: "frmCrear:tipoDocumento")
-     * @param labelText Texto exacto de la opción a seleccionar (ej: "Cedula Ciudadania")
+     * @param labelText Texto de la opción a seleccionar (ej: "Cedula Ciudadania")
      */
+    @Step("Seleccionar '{1}' en {0}")
     public static void selectOption(String widgetVar, String labelText) {
-        // 1. Abrir el dropdown
-        SelenideElement trigger = $x("//div[contains(@id, '" + widgetVar + "')]//div[contains(@class, 'ui-selectonemenu-trigger')]");
+        // 1. Abrir el dropdown (o, en llenado rápido, leer las opciones del widget sin abrirlo)
+        Dropdown dropdown = open(widgetVar);
+        List<OptionItem> options = dropdown.options();
+
+        // 2. Buscar la opción entre todas las leídas en un único round trip
+        String wanted = labelText.trim().toLowerCase(Locale.ROOT);
+        OptionItem targetOption = options.stream()
+                .filter(option -> option.label().equalsIgnoreCase(labelText.trim()))
+                .findFirst()
+                .or(() -> options.stream()
+                        .filter(option -> option.label().toLowerCase(Locale.ROOT).contains(wanted))
+                        .findFirst())
+                .orElseThrow(() -> new IllegalStateException(
+                        "Opción no encontrada: '" + labelText + "' en dropdown '" + widgetVar + "'. " +
+                                "Opciones disponibles: " +
+                                options.stream().map(OptionItem::label).collect(Collectors.toList())
+                ));
+
+        // 3. Seleccionar
+        dropdown.select(targetOption);
+    }
+
+    private static Dropdown open(String widgetVar) {
+        List<OptionItem> widgetOptions = harvestWidgetOptions(widgetVar);
+        if (widgetOptions != null) {
+            return new Dropdown(widgetVar, null, widgetOptions);
+        }
+        SelenideElement itemsList = openDropdown(widgetVar);
+        return new Dropdown(widgetVar, itemsList, harvestOptions(widgetVar));
+    }
+
+    private static SelenideElement openDropdown(String widgetVar) {
+        SelenideElement trigger = $(LocatorRegistry.selectOneMenuTrigger(widgetVar));
         trigger.shouldBe(visible).click();
 
-        // 2. Buscar la lista de opciones
-        String itemsId = widgetVar + "_items";
-        SelenideElement itemsList = $x("//ul[@id='" + itemsId + "']")
-                .shouldBe(visible, DROPDOWN_OPEN_TIMEOUT);
+        // <ul> de opciones por id exacto, resuelto una vez por página
+        return AdaptiveTimeouts.shouldBeVisible($(LocatorRegistry.selectOneMenuItems(widgetVar)),
+                "selectOneMenu:" + widgetVar, DROPDOWN_OPEN_TIMEOUT);
+    }
 
-        // 3. Encontrar la opción por texto EXACTO (case-sensitive para evitar ambigüedad)
-        SelenideElement targetOption = itemsList.$$("li")
-                .filterBy(text(labelText))
-                .first();
+    private static List<OptionItem> harvestOptions(String widgetVar) {
+        return toOptions(executeJavaScript(HARVEST_OPTIONS_JS, widgetVar + "_items"));
+    }
 
-        if (targetOption == null) {
-            throw new IllegalStateException(
-                    "Opción no encontrada: '" + labelText + "' en dropdown '" + widgetVar + "'. " +
-                            "Opciones disponibles: " +
-                            itemsList.$$("li").stream()
-                                    .map(SelenideElement::text)
-                                    .collect(Collectors.toList())
-            );
+    /**
+     * En modo de llenado rápido lee las opciones desde el widget de PrimeFaces, sin abrir el panel.
+     * Devuelve {@code null} si el modo está desactivado o el widget no se encontró (se usa entonces la UI).
+     */
+    private static List<OptionItem> harvestWidgetOptions(String widgetVar) {
+        if (!ConfigManager.isFastFillEnabled()) {
+            return null;
+        }
+        // Sin esperar: si el id exacto no está (aún), la UI lo busca con su propia espera
+        if (!$(By.id(widgetVar)).is(visible)) {
+            return null;
+        }
+        List<List<Object>> raw = PrimeFacesWidgets.items(widgetVar);
+        return raw == null ? null : toOptions(raw);
+    }
+
+    private static List<OptionItem> toOptions(List<List<Object>> raw) {
+        List<OptionItem> options = new ArrayList<>(raw.size());
+        for (int i = 0; i < raw.size(); i++) {
+            List<Object> item = raw.get(i);
+            options.add(new OptionItem(i, String.valueOf(item.get(0)), String.valueOf(item.get(1))));
+        }
+        return options;
+    }
+
+    /**
+     * Dropdown listo para seleccionar: abierto por UI ({@code itemsList}) o resuelto por la API del widget ({@code itemsList == null}).
+     */
+    private record Dropdown(String widgetVar, SelenideElement itemsList, List<OptionItem> options) {
+        void select(OptionItem option) {
+            if (itemsList == null) {
+                PrimeFacesWidgets.selectOneMenuItem(widgetVar, option.index());
+                PrimeFacesAjax.waitForIdle(); // AJAX del evento change
+                return;
+            }
+            SelenideElement element = itemsList.$("li", option.index());
+            element.scrollIntoView(true);
+            PrimeFacesAjax.waitForIdle(); // fin de la animación del panel
+            element.click();
+            PrimeFacesAjax.waitForIdle(); // AJAX del evento change
         }
+    }
 
-        // 4. Hacer clic
-        targetOption.scrollIntoView(true);
-        sleep(300);
-        targetOption.click();
+    /**
+     * Opción del panel tal como se leyó del DOM: posición, texto visible y clases CSS.
+     */
+    private record OptionItem(int index, String label, String cssClass) {
+        boolean hasCssClass(String name) {
+            return Arrays.asList(cssClass.split("\\s+")).contains(name);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package co.empresa.qa.automation.utils;
+
+import java.util.List;
+
+import static com.codeborne.selenide.Selenide.executeJavaScript;
+
+/**
+ * Acceso directo a la API JavaScript de los widgets de PrimeFaces ({@code PrimeFaces.widgets}) para el modo
+ * de llenado rápido ({@code fill.fast}). Selecciona valores sin abrir paneles ni hacer clics, desactiva las
+ * animaciones de jQuery ({@code jQuery.fx.off}) y dispara los mismos eventos AJAX ({@code change},
+ * {@code itemSelect}) que la interacción por UI.
+ * Los widgets se buscan por el id de cliente del componente (ej: "frmCrear:tipoDocumento").
+ *
+ * @author David
+ */
+final class PrimeFacesWidgets {
+
+    private static final String FIND_WIDGET_FN =
+            "function findWidget(id) {"
+                    + "  var widgets = (window.PrimeFaces && PrimeFaces.widgets) || {};"
+                    + "  for (var key in widgets) {"
+                    + "    if (widgets[key] && widgets[key].id === id) return widgets[key];"
+                    + "  }"
+                    + "  return null;"
+                    + "}"
+                    + "if (window.jQuery) { jQuery.fx.off = true; }";
+
+    private static final String ITEMS_JS = FIND_WIDGET_FN
+            + "var w = findWidget(arguments[0]);"
+            + "if (!w || !w.items) return null;"
+            + "return w.items.map(function () {"
+            + "  var item = jQuery(this);"
+            + "  return [[(item.attr('data-item-label') || item.attr('data-label') || item.text() || '').trim(), this.className || '']];"
+            + "}).get();";
+
+    // selectValue() de PrimeFaces selecciona en modo silencioso (sin AJAX change); selectItem() dispara el change
+    private static final String SELECT_ONE_MENU_JS = FIND_WIDGET_FN
+            + "var w = findWidget(arguments[0]);"
+            + "w.selectItem(w.items.eq(arguments[1]));";
+
+    private static final String AUTOCOMPLETE_SEARCH_JS = FIND_WIDGET_FN
+            + "var w = findWidget(arguments[0]);"
+            + "if (!w || typeof w.search !== 'function') return false;"
+            + "w.search(arguments[1]);"
+            + "return true;";
+
+    // El clic sobre el ítem ejecuta el mismo manejador que el usuario: selectItem + AJAX itemSelect
+    private static final String AUTOCOMPLETE_SELECT_JS = FIND_WIDGET_FN
+            + "var w = findWidget(arguments[0]);"
+            + "w.items.eq(arguments[1]).trigger('click');";
+
+    private PrimeFacesWidgets() {
+        // Utilidad: no instanciable
+    }
+
+    /**
+     * Opciones del widget como pares [texto, clases CSS], o {@code null} si el widget no existe en la página.
+     */
+    static List<List<Object>> items(String clientId) {
+        return executeJavaScript(ITEMS_JS, clientId);
+    }
+
+    static void selectOneMenuItem(String clientId, int index) {
+        executeJavaScript(SELECT_ONE_MENU_JS, clientId, index);
+    }
+
+    /**
+     * Lanza la búsqueda AJAX del autocomplete. Devuelve false si el widget no existe.
+     */
+    static boolean autoCompleteSearch(String clientId, String query) {
+        return Boolean.TRUE.equals(executeJavaScript(AUTOCOMPLETE_SEARCH_JS, clientId, query));
+    }
+
+    static void autoCompleteSelectItem(String clientId, int index) {
+        executeJavaScript(AUTOCOMPLETE_SELECT_JS, clientId, index);
+    }
+}
@@ -0,0 +1,121 @@
+package co.empresa.qa.automation.utils;
+
+import com.codeborne.selenide.Selenide;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Espera que se resuelve con la PRIMERA de varias condiciones que se cumpla (URL, elemento visible, mensaje de error...)
+ * e indica cuál ganó. Todas las condiciones se evalúan juntas en el navegador con un único {@code executeJavaScript}
+ * por sondeo, en lugar de un round trip de WebDriver por condición, así que un fallo se detecta en cuanto aparece
+ * sin agotar el timeout de la condición de éxito.
+ * <p>
+ * Uso:
+ * <pre>
+ * RaceWait.&lt;Outcome&gt;race()
+ *         .when(Outcome.HOME, RaceWait.urlContains("/home.faces"))
+ *         .when(Outcome.ERROR, RaceWait.visibleXpath("//p[contains(text(), 'inválido')]"))
+ *         .await(Duration.ofSeconds(20));
+ * </pre>
+ *
+ * @author David
+ */
+public final class RaceWait<T> {
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private static final String VISIBLE_FN = "function(e){ return !!e && !!(e.offsetWidth || e.offsetHeight || e.getClientRects().length)"
+            + " && window.getComputedStyle(e).visibility !== 'hidden'; }";
+
+    private final List<T> outcomes = new ArrayList<>();
+    private final List<Probe> probes = new ArrayList<>();
+
+    private RaceWait() {
+    }
+
+    public static <T> RaceWait<T> race() {
+        return new RaceWait<>();
+    }
+
+    /**
+     * Registra un posible resultado. Ante empate gana el registrado primero.
+     */
+    public RaceWait<T> when(T outcome, Probe probe) {
+        outcomes.add(outcome);
+        probes.add(probe);
+        return this;
+    }
+
+    /**
+     * Sondea hasta que alguna condición se cumple o vence el timeout.
+     *
+     * @return el resultado ganador, o vacío si ninguno se cumplió a tiempo
+     */
+    public Optional<T> await(Duration timeout) {
+        String script = buildScript();
+        Object[] args = probes.stream().map(Probe::arg).toArray();
+        long deadline = System.currentTimeMillis() + timeout.toMillis();
+
+        while (true) {
+            try {
+                Number winner = Selenide.executeJavaScript(script, args);
+                if (winner != null && winner.intValue() >= 0) {
+                    return Optional.of(outcomes.get(winner.intValue()));
+                }
+            } catch (StaleElementReferenceException | NoSuchElementException e) {
+                // Navegación en curso (el documento se está reemplazando): se reintenta en el siguiente sondeo.
+                // Un JavascriptException no es transitorio (las sondas ya atrapan sus propios errores): el script
+                // está roto y se propaga en lugar de agotar el timeout en silencio
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                return Optional.empty();
+            }
+            Selenide.sleep(POLL_INTERVAL_MS);
+        }
+    }
+
+    private String buildScript() {
+        StringBuilder script = new StringBuilder("var probes = [");
+        for (int i = 0; i < probes.size(); i++) {
+            script.append(i == 0 ? "" : ", ").append(probes.get(i).function());
+        }
+        return script.append("];")
+                .append("for (var i = 0; i < probes.length; i++) {")
+                .append("  try { if (probes[i](arguments[i])) return i; } catch (e) {}")
+                .append("}")
+                .append("return -1;")
+                .toString();
+    }
+
+    public static Probe urlContains(String fragment) {
+        return new Probe("function(a){ return window.location.href.indexOf(a) >= 0; }", fragment);
+    }
+
+    public static Probe visibleCss(String cssSelector) {
+        return new Probe("function(a){ return (" + VISIBLE_FN + ")(document.querySelector(a)); }", cssSelector);
+    }
+
+    public static Probe visibleXpath(String xpath) {
+        return new Probe("function(a){ return (" + VISIBLE_FN + ")(document.evaluate(a, document, null,"
+                + " XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue); }", xpath);
+    }
+
+    /**
+     * Condición evaluable en el navegador: una función JavaScript de un argumento y el valor de ese argumento.
+     */
+    public record Probe(String function, Object arg) {
+
+        /**
+         * Se cumple solo si ambas condiciones se cumplen en el mismo sondeo.
+         */
+        public Probe and(Probe other) {
+            return new Probe("function(a){ return (" + function + ")(a[0]) && (" + other.function + ")(a[1]); }",
+                    List.of(arg, other.arg));
+        }
+    }
+}
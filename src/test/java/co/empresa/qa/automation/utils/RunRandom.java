@@ -0,0 +1,128 @@
+package co.empresa.qa.automation.utils;
+
+import co.empresa.qa.automation.config.ConfigManager;
+import co.empresa.qa.automation.models.AffiliateDataGenerator;
+import com.github.javafaker.Faker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.Properties;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Aleatoriedad de toda la ejecución a partir de una sola semilla ({@code random.seed}, o una al azar si no se da).
+ * Cada hilo tiene su propio {@code Random} y su propio {@code Faker} (que no es seguro entre hilos), así que no hay
+ * contención entre pruebas paralelas.
+ * <p>
+ * La semilla de cada hilo se deriva de la semilla de la ejecución y de una clave estable: {@code DriverHooks} la
+ * vuelve a sembrar con el id de cada prueba, de modo que con {@code -Drandom.seed=<semilla>} cada prueba repite sus
+ * datos y selecciones aunque el reparto entre hilos cambie. Los números de documento no se repiten: los asigna
+ * {@code DocumentNumberAllocator}.
+ *
+ * @author David
+ */
+public final class RunRandom {
+    private static final Logger log = LoggerFactory.getLogger(RunRandom.class);
+
+    private static final long RUN_SEED = resolveSeed();
+
+    /**
+     * El {@code Faker} usa el {@code Random} del hilo, así que al resembrar uno se resiembra el otro.
+     */
+    private static final ThreadLocal<ThreadRandom> CURRENT = ThreadLocal.withInitial(
+            () -> new ThreadRandom(derive(Thread.currentThread().getName())));
+
+    static {
+        log.info("🎲 Semilla de la ejecución: {} (repetir con -Drandom.seed={})", RUN_SEED, RUN_SEED);
+        publishToAllure();
+    }
+
+    private RunRandom() {
+        // Utilidad: no instanciable
+    }
+
+    public static long seed() {
+        return RUN_SEED;
+    }
+
+    /**
+     * {@code Random} del hilo actual. No debe compartirse con otros hilos.
+     */
+    public static Random random() {
+        return CURRENT.get().random;
+    }
+
+    /**
+     * {@code Faker} (es-CO) del hilo actual, construido sobre {@link #random()}.
+     */
+    public static Faker faker() {
+        return CURRENT.get().faker;
+    }
+
+    /**
+     * Vuelve a sembrar el hilo actual con una semilla derivada de la de la ejecución y de {@code key}
+     * (id de la prueba, índice del afiliado...): misma semilla y misma clave, misma secuencia.
+     */
+    public static void reseed(String key) {
+        CURRENT.get().random.setSeed(derive(key));
+    }
+
+    /**
+     * Semilla independiente por clave: hash estable (FNV-1a de 64 bits) mezclado con la semilla de la ejecución
+     * mediante {@code SplittableRandom} (SplitMix64), para que claves parecidas no den secuencias correlacionadas.
+     */
+    static long derive(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return new SplittableRandom(RUN_SEED ^ hash).nextLong();
+    }
+
+    private static long resolveSeed() {
+        String configured = ConfigManager.getRandomSeed();
+        return configured.isBlank() ? new SecureRandom().nextLong() : Long.parseLong(configured.trim());
+    }
+
+    /**
+     * Registra la semilla en {@code environment.properties} de Allure (visible en la portada del reporte),
+     * conservando las entradas que ya existan.
+     */
+    private static void publishToAllure() {
+        Path environment = Path.of(System.getProperty("allure.results.directory", "allure-results"))
+                .resolve("environment.properties");
+        try {
+            Properties properties = new Properties();
+            if (Files.exists(environment)) {
+                try (Reader in = Files.newBufferedReader(environment, StandardCharsets.ISO_8859_1)) {
+                    properties.load(in);
+                }
+            }
+            properties.setProperty("random.seed", String.valueOf(RUN_SEED));
+            Files.createDirectories(environment.toAbsolutePath().getParent());
+            try (Writer out = Files.newBufferedWriter(environment, StandardCharsets.ISO_8859_1)) {
+                properties.store(out, null);
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudo registrar la semilla en {}: {}", environment, e.getMessage());
+        }
+    }
+
+    private static final class ThreadRandom {
+        private final Random random;
+        private final Faker faker;
+
+        ThreadRandom(long seed) {
+            this.random = new Random(seed);
+            this.faker = new Faker(AffiliateDataGenerator.LOCALE, random);
+        }
+    }
+}
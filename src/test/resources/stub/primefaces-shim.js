@@ -0,0 +1,403 @@
+/*
+ * Shim de PrimeFaces/jQuery para las páginas de SaviaStubServer: lo justo para que los page objects y las utilidades
+ * (PrimeFacesSelect, AutoCompleteSelect, PrimeFacesAjax, PrimeFacesWidgets) funcionen igual que contra Savia.
+ * - PrimeFaces.ab: petición parcial JSF (Faces-Request: partial/ajax) encolada en PrimeFaces.ajax.Queue, con
+ *   jQuery.active, ViewState rotativo, <update> por id (ejecutando sus <script>) y <redirect>.
+ * - PrimeFaces.cw: widgets SelectOneMenu, AutoComplete y Calendar con la API que usa el llenado rápido
+ *   (id, items, selectItem, search) y sus eventos AJAX (change, itemSelect, dateSelect).
+ * - Paneles con animación de window.STUB_ANIMATION_MS ms, visible para jQuery(':animated') salvo jQuery.fx.off.
+ * Escrito en ES5 para no depender del navegador.
+ */
+(function () {
+    var animationMs = window.STUB_ANIMATION_MS || 0;
+    var animating = 0;
+    var requests = [];
+    var viewState = null;
+
+    // --- jQuery mínimo ---
+
+    function Wrapped(elements) {
+        this.elements = elements;
+        this.length = elements.length;
+        for (var i = 0; i < elements.length; i++) {
+            this[i] = elements[i];
+        }
+    }
+
+    Wrapped.prototype.eq = function (index) {
+        return new Wrapped(this.elements[index] ? [this.elements[index]] : []);
+    };
+    Wrapped.prototype.get = function (index) {
+        return index === undefined ? this.elements.slice() : this.elements[index];
+    };
+    Wrapped.prototype.map = function (fn) {
+        var out = [];
+        for (var i = 0; i < this.elements.length; i++) {
+            var result = fn.call(this.elements[i], i, this.elements[i]);
+            if (result === null || result === undefined) {
+                continue;
+            }
+            if (Object.prototype.toString.call(result) === '[object Array]') {
+                out.push.apply(out, result); // como jQuery: aplana un nivel
+            } else {
+                out.push(result);
+            }
+        }
+        return new Wrapped(out);
+    };
+    Wrapped.prototype.attr = function (name) {
+        var value = this.elements[0] ? this.elements[0].getAttribute(name) : null;
+        return value === null ? undefined : value;
+    };
+    Wrapped.prototype.text = function () {
+        var text = '';
+        for (var i = 0; i < this.elements.length; i++) {
+            text += this.elements[i].textContent;
+        }
+        return text;
+    };
+    Wrapped.prototype.trigger = function (type) {
+        for (var i = 0; i < this.elements.length; i++) {
+            var event = document.createEvent('HTMLEvents');
+            event.initEvent(type, true, true);
+            this.elements[i].dispatchEvent(event);
+        }
+        return this;
+    };
+
+    function jQuery(selector) {
+        if (selector === ':animated') {
+            return {length: animating};
+        }
+        if (typeof selector === 'string') {
+            return new Wrapped(toArray(document.querySelectorAll(selector)));
+        }
+        return new Wrapped(selector ? [selector] : []);
+    }
+
+    jQuery.active = 0;
+    jQuery.fx = {off: false};
+
+    function toArray(list) {
+        return Array.prototype.slice.call(list);
+    }
+
+    function show(panel) {
+        panel.style.display = 'block';
+        if (jQuery.fx.off || animationMs <= 0) {
+            return;
+        }
+        animating++;
+        panel.style.opacity = '0.2';
+        setTimeout(function () {
+            panel.style.opacity = '1';
+            animating--;
+        }, animationMs);
+    }
+
+    function hide(panel) {
+        panel.style.display = 'none';
+    }
+
+    // --- AJAX JSF ---
+
+    function currentViewState() {
+        if (viewState === null) {
+            var input = document.querySelector('input[name="javax.faces.ViewState"]');
+            viewState = input ? input.value : '';
+        }
+        return viewState;
+    }
+
+    function ab(cfg, ext) {
+        requests.push({cfg: cfg, ext: ext || {}});
+        if (requests.length === 1) {
+            send(requests[0]);
+        }
+    }
+
+    function send(request) {
+        var cfg = request.cfg;
+        var form = document.getElementById(cfg.f);
+        var params = [];
+        var add = function (name, value) {
+            params.push(encodeURIComponent(name) + '=' + encodeURIComponent(value));
+        };
+        if (form) {
+            var fields = form.querySelectorAll('input, select, textarea');
+            for (var i = 0; i < fields.length; i++) {
+                var field = fields[i];
+                if (!field.name || field.disabled || field.name === 'javax.faces.ViewState'
+                        || ((field.type === 'checkbox' || field.type === 'radio') && !field.checked)) {
+                    continue;
+                }
+                add(field.name, field.value);
+            }
+        }
+        add('javax.faces.partial.ajax', 'true');
+        add('javax.faces.source', cfg.s);
+        add('javax.faces.partial.execute', cfg.p || cfg.s);
+        add('javax.faces.partial.render', cfg.u || '');
+        if (cfg.e) {
+            add('javax.faces.behavior.event', cfg.e);
+            add('javax.faces.partial.event', cfg.e);
+        } else {
+            add(cfg.s, cfg.s);
+        }
+        var extra = request.ext.params || [];
+        for (var j = 0; j < extra.length; j++) {
+            add(extra[j].name, extra[j].value);
+        }
+        add('javax.faces.ViewState', currentViewState());
+
+        jQuery.active++;
+        var xhr = new XMLHttpRequest();
+        xhr.open('POST', (form && form.getAttribute('action')) || window.location.pathname, true);
+        xhr.setRequestHeader('Content-Type', 'application/x-www-form-urlencoded; charset=UTF-8');
+        xhr.setRequestHeader('Faces-Request', 'partial/ajax');
+        xhr.onreadystatechange = function () {
+            if (xhr.readyState !== 4) {
+                return;
+            }
+            try {
+                if (xhr.status === 200) {
+                    handleResponse(xhr.responseText, request.ext);
+                }
+            } finally {
+                jQuery.active--;
+                requests.shift();
+                if (requests.length > 0) {
+                    send(requests[0]);
+                }
+            }
+        };
+        xhr.send(params.join('&'));
+    }
+
+    function handleResponse(text, ext) {
+        var xml = new DOMParser().parseFromString(text, 'text/xml');
+        var redirects = xml.getElementsByTagName('redirect');
+        if (redirects.length > 0) {
+            window.location.href = redirects[0].getAttribute('url');
+            return;
+        }
+        if (xml.getElementsByTagName('error').length > 0) {
+            if (window.console) {
+                console.error('Error JSF: ' + xml.getElementsByTagName('error-name')[0].textContent);
+            }
+            return;
+        }
+        var updates = xml.getElementsByTagName('update');
+        for (var i = 0; i < updates.length; i++) {
+            var id = updates[i].getAttribute('id');
+            var markup = updates[i].textContent;
+            if (id.indexOf('javax.faces.ViewState') >= 0) {
+                viewState = markup;
+            } else if (!(ext.onupdate && ext.onupdate(id, markup))) {
+                replace(id, markup);
+            }
+        }
+    }
+
+    /**
+     * Reemplaza el elemento si el marcado trae su mismo id en la raíz; si no, reemplaza su contenido
+     * (p. ej. el contenedor de un diálogo que recibe un formulario).
+     */
+    function replace(id, markup) {
+        var target = document.getElementById(id);
+        if (!target) {
+            return;
+        }
+        var holder = document.createElement('div');
+        holder.innerHTML = markup;
+        var root = holder.firstElementChild;
+        var container;
+        if (root && root.id === id) {
+            target.parentNode.replaceChild(root, target);
+            container = root;
+        } else {
+            target.innerHTML = '';
+            while (holder.firstChild) {
+                target.appendChild(holder.firstChild);
+            }
+            container = target;
+        }
+        var scripts = container.getElementsByTagName('script');
+        var sources = [];
+        for (var i = 0; i < scripts.length; i++) {
+            sources.push(scripts[i].text);
+        }
+        for (var j = 0; j < sources.length; j++) {
+            (new Function(sources[j]))();
+        }
+    }
+
+    function fire(widget, event, ext) {
+        var behavior = widget.cfg.behaviors && widget.cfg.behaviors[event];
+        if (behavior) {
+            behavior.call(widget, ext || {}, event);
+        }
+    }
+
+    // --- Widgets ---
+
+    function SelectOneMenu(cfg) {
+        var widget = this;
+        this.cfg = cfg;
+        this.id = cfg.id;
+        this.input = document.getElementById(cfg.id + '_input');
+        this.label = document.getElementById(cfg.id + '_label');
+
+        // Como PrimeFaces, el panel se mueve al body; al re-renderizar el componente se descarta el anterior
+        var stale = document.getElementById(cfg.id + '_panel');
+        if (stale) {
+            stale.parentNode.removeChild(stale);
+        }
+        this.panel = document.createElement('div');
+        this.panel.id = cfg.id + '_panel';
+        this.panel.className = 'ui-selectonemenu-panel ui-widget-content';
+        this.panel.style.display = 'none';
+        var list = document.createElement('ul');
+        list.id = cfg.id + '_items';
+        list.className = 'ui-selectonemenu-items ui-selectonemenu-list';
+        for (var i = 0; i < this.input.options.length; i++) {
+            var option = this.input.options[i];
+            var li = document.createElement('li');
+            li.className = 'ui-selectonemenu-item ui-selectonemenu-list-item'
+                    + (option.value === '' ? ' ui-noselection-option' : '');
+            li.setAttribute('data-label', option.text);
+            li.textContent = option.text;
+            list.appendChild(li);
+        }
+        this.panel.appendChild(list);
+        document.body.appendChild(this.panel);
+        this.items = new Wrapped(toArray(list.children));
+
+        document.getElementById(cfg.id).querySelector('.ui-selectonemenu-trigger')
+                .addEventListener('click', function () {
+                    if (widget.panel.style.display === 'none') {
+                        show(widget.panel);
+                    } else {
+                        hide(widget.panel);
+                    }
+                });
+        list.addEventListener('click', function (event) {
+            var item = event.target.closest('li');
+            if (item) {
+                widget.selectItem(new Wrapped([item]));
+            }
+        });
+    }
+
+    SelectOneMenu.prototype.selectItem = function (item) {
+        var li = item.get(0);
+        this.input.selectedIndex = this.items.get().indexOf(li);
+        this.label.textContent = li.textContent;
+        hide(this.panel);
+        fire(this, 'change');
+    };
+
+    function AutoComplete(cfg) {
+        var widget = this;
+        this.cfg = cfg;
+        this.id = cfg.id;
+        this.input = document.getElementById(cfg.id + '_input');
+        this.hinput = document.getElementById(cfg.id + '_hinput');
+        this.panel = document.getElementById(cfg.id + '_panel');
+        this.panel.style.display = 'none';
+        this.items = new Wrapped([]);
+
+        var timer = null;
+        this.input.addEventListener('input', function () {
+            clearTimeout(timer);
+            timer = setTimeout(function () {
+                if (widget.input.value) {
+                    widget.search(widget.input.value);
+                }
+            }, 0);
+        });
+        this.panel.addEventListener('click', function (event) {
+            var item = event.target.closest('li');
+            if (item) {
+                widget.selectItem(item);
+            }
+        });
+    }
+
+    AutoComplete.prototype.search = function (query) {
+        var widget = this;
+        ab({s: this.id, f: this.id.split(':')[0], p: this.id, u: this.id}, {
+            params: [{name: this.id + '_query', value: query}],
+            onupdate: function (id, markup) {
+                if (id !== widget.id) {
+                    return false;
+                }
+                widget.panel.innerHTML = markup;
+                widget.items = new Wrapped(toArray(widget.panel.getElementsByTagName('li')));
+                show(widget.panel);
+                return true;
+            }
+        });
+    };
+
+    AutoComplete.prototype.selectItem = function (li) {
+        this.input.value = li.getAttribute('data-item-label');
+        this.hinput.value = li.getAttribute('data-item-value');
+        hide(this.panel);
+        this.panel.innerHTML = ''; // un solo panel de sugerencias en el DOM, como espera AutoCompleteSelect
+        this.items = new Wrapped([]);
+        fire(this, 'itemSelect');
+    };
+
+    function Calendar(cfg) {
+        var widget = this;
+        this.cfg = cfg;
+        this.id = cfg.id;
+        this.input = document.getElementById(cfg.id + '_input');
+
+        var timer = null;
+        var selected = null;
+        this.input.addEventListener('input', function () {
+            clearTimeout(timer);
+            timer = setTimeout(function () {
+                var value = widget.input.value;
+                if (/^\d{4}-\d{2}-\d{2}$/.test(value) && value !== selected) {
+                    selected = value;
+                    fire(widget, 'dateSelect');
+                }
+            }, 0);
+        });
+    }
+
+    var WIDGETS = {SelectOneMenu: SelectOneMenu, AutoComplete: AutoComplete, Calendar: Calendar};
+
+    window.jQuery = jQuery;
+    window.PrimeFaces = {
+        widgets: {},
+        ajax: {
+            Queue: {
+                requests: requests,
+                isEmpty: function () {
+                    return requests.length === 0;
+                }
+            }
+        },
+        ab: ab,
+        cw: function (type, widgetVar, cfg) {
+            if (WIDGETS[type]) {
+                window.PrimeFaces.widgets[widgetVar] = new WIDGETS[type](cfg);
+            }
+        }
+    };
+
+    // Checkboxes (sin widget en el stub): el clic en el componente alterna el input oculto
+    document.addEventListener('click', function (event) {
+        var box = event.target.closest ? event.target.closest('.ui-chkbox') : null;
+        if (box) {
+            var input = box.querySelector('input[type="checkbox"]');
+            input.checked = !input.checked;
+            box.querySelector('.ui-chkbox-box').className = 'ui-chkbox-box ui-widget ui-state-default'
+                    + (input.checked ? ' ui-state-active' : '');
+        }
+    });
+})();